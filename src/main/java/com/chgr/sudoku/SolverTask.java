@@ -0,0 +1,44 @@
+package com.chgr.sudoku;
+
+import com.chgr.sudoku.models.BaseAction;
+import com.chgr.sudoku.models.ISudoku;
+import com.chgr.sudoku.solver.SolveResult;
+import com.chgr.sudoku.solver.SolverListener;
+import com.chgr.sudoku.solver.SudokuSolver;
+import javafx.concurrent.Task;
+
+// Runs a headless solver in the background for the UI, forwarding progress and cancellation
+public class SolverTask extends Task<SolveResult> {
+
+    private final SudokuSolver solver;
+    private final ISudoku sudoku;
+
+    public SolverTask(SudokuSolver solver, ISudoku sudoku) {
+        this.solver = solver;
+        this.sudoku = sudoku;
+    }
+
+    @Override
+    protected SolveResult call() {
+        solver.setCancellation(this::isCancelled);
+        solver.setListener(new SolverListener() {
+            @Override
+            public void onStep(BaseAction step) {
+                updateMessage(step.getName());
+            }
+
+            @Override
+            public void onProgress(int filled, int total) {
+                updateProgress(filled, total);
+            }
+
+            @Override
+            public void onSearch(int[] values) {
+                sudoku.preview(values);
+            }
+        });
+        SolveResult result = solver.solve(sudoku);
+        sudoku.reRender();
+        return result;
+    }
+}
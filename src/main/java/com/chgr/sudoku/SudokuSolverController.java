@@ -3,7 +3,8 @@ package com.chgr.sudoku;
 import com.chgr.sudoku.models.*;
 import com.chgr.sudoku.solver.BacktrackingSolver;
 import com.chgr.sudoku.solver.LogicalSolver;
-import javafx.concurrent.Task;
+import com.chgr.sudoku.solver.SolveResult;
+import com.chgr.sudoku.solver.SudokuSolver;
 import javafx.fxml.FXML;
 import javafx.fxml.Initializable;
 import javafx.scene.control.Alert;
@@ -52,26 +53,30 @@ public class SudokuSolverController implements Initializable {
 
     @FXML
     private void bruteSolve(){
-        BacktrackingSolver solver = new BacktrackingSolver(sudoku);
+        submit(new BacktrackingSolver());
+    }
+
+    private void submit(SudokuSolver solver) {
+        SolverTask task = new SolverTask(solver, sudoku);
         btnBruteSolve.setDisable(true);
         btnLogicalSolve.setDisable(true);
-        setSuccessHandler(solver);
-        executorService.submit(solver);
+        setSuccessHandler(task);
+        executorService.submit(task);
     }
 
-    private void setSuccessHandler(Task<Boolean> solver) {
-        solver.setOnSucceeded(event -> {
-            if(solver instanceof LogicalSolver logicalSolver){
-                solveSteps = logicalSolver.getSteps();
+    private void setSuccessHandler(SolverTask task) {
+        task.setOnSucceeded(event -> {
+            SolveResult result = task.getValue();
+            if(!result.steps().isEmpty()){
+                solveSteps = result.steps();
                 solveStepView.setVisible(true);
                 solveStepList.getItems().clear();
                 solveStepList.getItems().addAll(solveSteps.stream().map(BaseAction::getName).toList());
                 solveStepList.getSelectionModel().select(0);
                 setSolveStepView(0);
             }
-            boolean result = solver.getValue();
             Alert alert;
-            if(result){
+            if(result.isSolved()){
                 alert = new Alert(Alert.AlertType.INFORMATION);
                 alert.setTitle("Solver finished");
                 alert.setContentText("Sudoku solved!");
@@ -88,11 +93,7 @@ public class SudokuSolverController implements Initializable {
 
     @FXML
     private void logicalSolve(){
-        LogicalSolver solver = new LogicalSolver(sudoku);
-        btnBruteSolve.setDisable(true);
-        btnLogicalSolve.setDisable(true);
-        setSuccessHandler(solver);
-        executorService.submit(solver);
+        submit(new LogicalSolver());
     }
 
     @FXML
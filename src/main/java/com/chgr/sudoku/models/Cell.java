@@ -7,13 +7,14 @@ import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import com.chgr.sudoku.utils.CandidateUtils;
 import lombok.Getter;
 import lombok.Setter;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 
+// Cell of the JavaFX board, which is the standard 9x9 grid: candidates are drawn in a 3x3 grid inside the cell
 public class Cell extends StackPane implements ICell {
 
     public static final int SIZE = 80;
@@ -23,20 +24,28 @@ public class Cell extends StackPane implements ICell {
     @Setter
     @Getter
     private int y;
-    private final Set<Integer> candidates;
+    private int candidates;
     private final StackPane[][] candidatesPane = new StackPane[3][3];
     private final Text[][] candidatesText = new Text[3][3];
     @Getter
     private int value;
     private final Text valueText = new Text();
     private boolean hasChanged = false;
+    private UnitMasks unitMasks;
 
     public void setValue(int value) {
+        if (unitMasks != null)
+            unitMasks.updateValue(SudokuLayout.index(x, y), this.value, value);
         this.value = value;
         clearCandidates();
         hasChanged = true;
     }
 
+    Cell(int x, int y, UnitMasks unitMasks) {
+        this(x, y);
+        this.unitMasks = unitMasks;
+    }
+
     public Cell(int x, int y) {
         super();
 
@@ -85,7 +94,7 @@ public class Cell extends StackPane implements ICell {
 
         this.x = x;
         this.y = y;
-        this.candidates = new HashSet<>();
+        this.candidates = 0;
         this.value = EMPTY;
 
         this.setOnMouseClicked(_ -> this.requestFocus());
@@ -116,18 +125,22 @@ public class Cell extends StackPane implements ICell {
         if(this.value != EMPTY)
             return;
         if (candidate > 0 && candidate < 10) {
-            candidates.add(candidate);
+            writeCandidates(candidates | CandidateUtils.bit(candidate));
             hasChanged = true;
         }
     }
 
     public void addCandidates(Collection<Integer> candidates) {
-        candidates.forEach(this::addCandidate);
+        if(this.value != EMPTY)
+            return;
+        writeCandidates((this.candidates | CandidateUtils.toMask(candidates)) & SudokuGeometry.STANDARD.getAllCandidates());
+        hasChanged = true;
     }
 
     public boolean removeCandidate(int candidate) {
         if (candidate > 0 && candidate < 10 && value == EMPTY) {
-            if(candidates.remove(candidate)) {
+            if((candidates & CandidateUtils.bit(candidate)) != 0) {
+                writeCandidates(candidates & ~CandidateUtils.bit(candidate));
                 hasChanged = true;
                 return true;
             }
@@ -136,25 +149,49 @@ public class Cell extends StackPane implements ICell {
     }
 
     public boolean removeCandidates(Collection<Integer> candidates) {
-        return candidates.stream()
-                .map(this::removeCandidate)
-                .reduce(false, (a, b) -> a || b);
+        if (value != EMPTY)
+            return false;
+        int before = this.candidates;
+        writeCandidates(this.candidates & ~CandidateUtils.toMask(candidates));
+        if (before == this.candidates)
+            return false;
+        hasChanged = true;
+        return true;
     }
 
     @Override
     public com.chgr.sudoku.models.Pos getPos() {
-        return new Pos(x, y);
+        return Pos.of(x, y);
     }
 
     public void clearCandidates() {
-        candidates.clear();
+        writeCandidates(0);
         hasChanged = true;
     }
 
+    private void writeCandidates(int mask) {
+        if (unitMasks != null)
+            unitMasks.updateCandidates(SudokuLayout.index(x, y), candidates, mask);
+        candidates = mask;
+    }
+
     public Set<Integer> getCandidates() {
         if(this.value != EMPTY)
             return Set.of();
-        return Set.copyOf(candidates);
+        return CandidateUtils.toSet(candidates);
+    }
+
+    public int getCandidateMask() {
+        if(this.value != EMPTY)
+            return 0;
+        return candidates;
+    }
+
+    public void setCandidateMask(int mask) {
+        if(this.value != EMPTY)
+            return;
+        writeCandidates(mask & SudokuGeometry.STANDARD.getAllCandidates());
+        hasChanged = true;
     }
 
     public void colorCandidates(Collection<Integer> candidates, Color color) {
@@ -162,7 +199,7 @@ public class Cell extends StackPane implements ICell {
             if(candidate > 0 && candidate < 10){
                 int candidateX = (candidate - 1) / 3;
                 int candidateY = (candidate - 1) % 3;
-                if(!this.candidates.contains(candidate))
+                if((this.candidates & CandidateUtils.bit(candidate)) == 0)
                     continue;
                 String colorAsHex = String.format("#%02X%02X%02X%02X",
                         (int) (color.getRed() * 255),
@@ -209,7 +246,7 @@ public class Cell extends StackPane implements ICell {
             for(int i = 0; i < 3; i++){
                 for(int j = 0; j < 3; j++){
                     int candidate = i * 3 + j + 1;
-                    if(candidates.contains(candidate)){
+                    if((candidates & CandidateUtils.bit(candidate)) != 0){
                         candidatesText[i][j].setText(String.valueOf(candidate));
                     }
                     else{
@@ -220,6 +257,21 @@ public class Cell extends StackPane implements ICell {
         }
     }
 
+    // Shows a value the solver is trying in an empty cell, reRender shows the cell's own state again
+    public void preview(int value) {
+        if (this.value != EMPTY)
+            return;
+        hasChanged = true;
+        valueText.setFill(Color.GRAY);
+        valueText.setText(value == EMPTY ? "" : String.valueOf(value));
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                int candidate = i * 3 + j + 1;
+                candidatesText[i][j].setText(value == EMPTY && (candidates & CandidateUtils.bit(candidate)) != 0 ? String.valueOf(candidate) : " ");
+            }
+        }
+    }
+
     public int getSquare() {
         return x / 3 + y / 3 * 3;
     }
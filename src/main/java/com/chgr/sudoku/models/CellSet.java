@@ -0,0 +1,100 @@
+package com.chgr.sudoku.models;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+// Set of cells of the 9x9 grid stored as 81 bits, bit i is the cell with SudokuLayout index i.
+// Cells 0-63 live in low, cells 64-80 in high.
+// Iterate without allocating with:
+//   for (int i = set.next(0); i >= 0; i = set.next(i + 1)) { ... }
+public record CellSet(long low, long high) {
+
+    public static final CellSet EMPTY = new CellSet(0L, 0L);
+    public static final CellSet ALL = new CellSet(-1L, (1L << (SudokuLayout.CELL_COUNT - 64)) - 1);
+
+    public static CellSet of(int index) {
+        return index < 64 ? new CellSet(1L << index, 0L) : new CellSet(0L, 1L << (index - 64));
+    }
+
+    public static CellSet of(ICell cell) {
+        return of(SudokuLayout.index(cell.getX(), cell.getY()));
+    }
+
+    public static CellSet of(Collection<? extends ICell> cells) {
+        long low = 0L, high = 0L;
+        for (ICell cell : cells) {
+            int index = SudokuLayout.index(cell.getX(), cell.getY());
+            if (index < 64)
+                low |= 1L << index;
+            else
+                high |= 1L << (index - 64);
+        }
+        return new CellSet(low, high);
+    }
+
+    public static CellSet peersOf(ICell cell) {
+        return SudokuLayout.PEER_SETS[SudokuLayout.index(cell.getX(), cell.getY())];
+    }
+
+    public CellSet union(CellSet other) {
+        return new CellSet(low | other.low, high | other.high);
+    }
+
+    public CellSet intersect(CellSet other) {
+        return new CellSet(low & other.low, high & other.high);
+    }
+
+    public CellSet difference(CellSet other) {
+        return new CellSet(low & ~other.low, high & ~other.high);
+    }
+
+    public CellSet with(int index) {
+        return union(of(index));
+    }
+
+    public CellSet without(int index) {
+        return difference(of(index));
+    }
+
+    public boolean intersects(CellSet other) {
+        return (low & other.low) != 0 || (high & other.high) != 0;
+    }
+
+    public boolean contains(int index) {
+        return index < 64 ? (low & (1L << index)) != 0 : (high & (1L << (index - 64))) != 0;
+    }
+
+    public boolean contains(ICell cell) {
+        return contains(SudokuLayout.index(cell.getX(), cell.getY()));
+    }
+
+    public boolean isEmpty() {
+        return low == 0 && high == 0;
+    }
+
+    public int size() {
+        return Long.bitCount(low) + Long.bitCount(high);
+    }
+
+    // First cell index >= from, or -1 when there is none
+    public int next(int from) {
+        if (from < 64) {
+            long bits = low & (-1L << from);
+            if (bits != 0)
+                return Long.numberOfTrailingZeros(bits);
+            from = 64;
+        }
+        if (from >= 128)
+            return -1;
+        long bits = high & (-1L << (from - 64));
+        return bits != 0 ? 64 + Long.numberOfTrailingZeros(bits) : -1;
+    }
+
+    public Set<ICell> toCells(ISudoku sudoku) {
+        Set<ICell> cells = new HashSet<>();
+        for (int i = next(0); i >= 0; i = next(i + 1))
+            cells.add(sudoku.getCell(SudokuLayout.x(i), SudokuLayout.y(i)));
+        return cells;
+    }
+}
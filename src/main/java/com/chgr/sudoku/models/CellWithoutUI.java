@@ -1,42 +1,81 @@
 package com.chgr.sudoku.models;
 
+import com.chgr.sudoku.utils.CandidateUtils;
 import lombok.Getter;
 
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.Set;
 
+// Cell of a board with the given geometry, digits and squares follow its size
 public class CellWithoutUI implements ICell {
 
     @Getter
     private final int x;
     @Getter
     private final int y;
-    private final Set<Integer> candidates;
+    private int candidates;
     @Getter
     private int value;
+    private final SudokuGeometry geometry;
+    private final UnitMasks unitMasks;
 
     public CellWithoutUI(int x, int y){
+        this(x, y, SudokuGeometry.STANDARD);
+    }
+
+    public CellWithoutUI(int x, int y, SudokuGeometry geometry){
+        this(x, y, geometry, null);
+    }
+
+    CellWithoutUI(int x, int y, UnitMasks unitMasks){
+        this(x, y, unitMasks.getGeometry(), unitMasks);
+    }
+
+    private CellWithoutUI(int x, int y, SudokuGeometry geometry, UnitMasks unitMasks){
         this.x = x;
         this.y = y;
-        this.candidates = new HashSet<>();
+        this.candidates = 0;
         this.value = EMPTY;
+        this.geometry = geometry;
+        this.unitMasks = unitMasks;
     }
 
     @Override
     public Set<Integer> getCandidates() {
         if(this.value != EMPTY)
             return Set.of();
-        return Set.copyOf(candidates);
+        return CandidateUtils.toSet(candidates);
+    }
+
+    @Override
+    public int getCandidateMask() {
+        if(this.value != EMPTY)
+            return 0;
+        return candidates;
+    }
+
+    @Override
+    public void setCandidateMask(int mask) {
+        if(this.value != EMPTY)
+            return;
+        writeCandidates(mask & geometry.getAllCandidates());
     }
 
     @Override
     public void clearCandidates() {
-        candidates.clear();
+        writeCandidates(0);
+    }
+
+    private void writeCandidates(int mask) {
+        if (unitMasks != null)
+            unitMasks.updateCandidates(geometry.index(x, y), candidates, mask);
+        candidates = mask;
     }
 
     @Override
     public void setValue(int value) {
+        if (unitMasks != null)
+            unitMasks.updateValue(geometry.index(x, y), this.value, value);
         this.value = value;
         clearCandidates();
     }
@@ -50,38 +89,44 @@ public class CellWithoutUI implements ICell {
     public void addCandidate(int candidate) {
         if(this.value != EMPTY)
             return;
-        if (candidate > 0 && candidate < 10) {
-            candidates.add(candidate);
+        if (candidate > 0 && candidate <= geometry.getSize()) {
+            writeCandidates(candidates | CandidateUtils.bit(candidate));
         }
     }
 
     @Override
     public void addCandidates(Collection<Integer> candidates) {
-        candidates.forEach(this::addCandidate);
+        if(this.value != EMPTY)
+            return;
+        writeCandidates((this.candidates | CandidateUtils.toMask(candidates)) & geometry.getAllCandidates());
     }
 
     @Override
     public boolean removeCandidate(int candidate) {
-        if (candidate > 0 && candidate < 10 && value == EMPTY) {
-            return candidates.remove(candidate);
+        if (candidate > 0 && candidate <= geometry.getSize() && value == EMPTY) {
+            int before = candidates;
+            writeCandidates(candidates & ~CandidateUtils.bit(candidate));
+            return before != candidates;
         }
         return false;
     }
 
     @Override
     public boolean removeCandidates(Collection<Integer> candidates) {
-        return candidates.stream()
-                .map(this::removeCandidate)
-                .reduce(false, (a, b) -> a || b);
+        if (value != EMPTY)
+            return false;
+        int before = this.candidates;
+        writeCandidates(this.candidates & ~CandidateUtils.toMask(candidates));
+        return before != this.candidates;
     }
 
     @Override
     public Pos getPos() {
-        return new Pos(x, y);
+        return Pos.of(x, y);
     }
 
     @Override
     public int getSquare() {
-        return x / 3 + y / 3 * 3;
+        return geometry.square(x, y);
     }
-}
\ No newline at end of file
+}
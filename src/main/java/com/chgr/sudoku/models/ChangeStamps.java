@@ -0,0 +1,58 @@
+package com.chgr.sudoku.models;
+
+// Version of the last change per cell, unit and digit, so a technique can rescan only what changed since its last empty scan.
+// The board version grows by one on every value or candidate change, including the ones made by rollback and restore.
+class ChangeStamps {
+    private final SudokuGeometry geometry;
+    private final long[] cellStamps;
+    private final long[] unitStamps;
+    private final long[] digitStamps;
+    private long version;
+    // Changes up to this version count as seen, -1 reports everything as changed
+    private long since = -1;
+
+    ChangeStamps(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        this.cellStamps = new long[geometry.getCellCount()];
+        this.unitStamps = new long[geometry.getUnitCount()];
+        this.digitStamps = new long[geometry.getSize()];
+    }
+
+    void copyFrom(ChangeStamps other) {
+        System.arraycopy(other.cellStamps, 0, cellStamps, 0, cellStamps.length);
+        System.arraycopy(other.unitStamps, 0, unitStamps, 0, unitStamps.length);
+        System.arraycopy(other.digitStamps, 0, digitStamps, 0, digitStamps.length);
+        version = other.version;
+        since = other.since;
+    }
+
+    // Digits as a mask of candidate bits, a placed or removed value counts as its digit
+    void stamp(int index, int digits) {
+        version++;
+        cellStamps[index] = version;
+        for (int unit : geometry.getCellUnits()[index])
+            unitStamps[unit] = version;
+        for (; digits != 0; digits &= digits - 1)
+            digitStamps[Integer.numberOfTrailingZeros(digits)] = version;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    void setSince(long since) {
+        this.since = since;
+    }
+
+    boolean isCellChanged(int index) {
+        return cellStamps[index] > since;
+    }
+
+    boolean isUnitChanged(int unit) {
+        return unitStamps[unit] > since;
+    }
+
+    boolean isDigitChanged(int digit) {
+        return digitStamps[digit - 1] > since;
+    }
+}
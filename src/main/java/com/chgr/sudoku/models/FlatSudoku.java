@@ -0,0 +1,500 @@
+package com.chgr.sudoku.models;
+
+import com.chgr.sudoku.utils.CandidateUtils;
+
+import java.util.*;
+
+// Headless sudoku backed by flat value and candidate mask arrays.
+// Cells, rows, columns and squares are views created once, so looking at the board does not allocate.
+// Any SudokuGeometry is supported, candidate planes only for the standard 9x9 grid.
+public class FlatSudoku implements ISudoku {
+    private final SudokuGeometry geometry;
+    private final int[] values;
+    private final int[] candidates;
+    private final UnitMasks unitMasks;
+    private final ChangeStamps changes;
+    // Undo journal, two ints per change: index << 8 | old value, old candidate mask
+    private int[] trail = new int[256];
+    private int trailSize;
+    private boolean trailing;
+    private boolean explaining = true;
+    // Per digit planes of the cells still holding that candidate, split like CellSet
+    private final long[] planeLow;
+    private final long[] planeHigh;
+    private final FlatCell[] cells;
+    private final ICell[][] units;
+    // Same order as SudokuWithoutUI.getAllCells (column by column)
+    private final ICell[] allCells;
+
+    public FlatSudoku() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    public FlatSudoku(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        int size = geometry.getSize();
+        values = new int[geometry.getCellCount()];
+        candidates = new int[geometry.getCellCount()];
+        unitMasks = new UnitMasks(geometry);
+        changes = new ChangeStamps(geometry);
+        planeLow = geometry.isStandard() ? new long[size] : null;
+        planeHigh = geometry.isStandard() ? new long[size] : null;
+        cells = new FlatCell[geometry.getCellCount()];
+        units = new ICell[geometry.getUnitCount()][];
+        allCells = new ICell[geometry.getCellCount()];
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new FlatCell(i);
+        }
+        for (int unit = 0; unit < units.length; unit++) {
+            units[unit] = new ICell[size];
+            for (int i = 0; i < size; i++)
+                units[unit][i] = cells[geometry.getUnits()[unit][i]];
+        }
+        for (int x = 0; x < size; x++) {
+            System.arraycopy(units[geometry.getColumnOffset() + x], 0, allCells, x * size, size);
+        }
+    }
+
+    public FlatSudoku(SudokuSnapshot snapshot) {
+        this(snapshot.getGeometry());
+        restore(snapshot);
+    }
+
+    public FlatSudoku(ISudoku sudoku) {
+        this(sudoku.getGeometry());
+        for (int i = 0; i < cells.length; i++) {
+            setValue(i, sudoku.getCell(geometry.x(i), geometry.y(i)).getValue());
+        }
+    }
+
+    // Independent copy that keeps the change stamps and the explaining flag, so scans on it see the same board
+    // and narrow the same way as on this one
+    public FlatSudoku copy() {
+        FlatSudoku copy = new FlatSudoku(snapshot());
+        copy.changes.copyFrom(changes);
+        copy.explaining = explaining;
+        return copy;
+    }
+
+    // Reads one character per cell, row by row, as written by toString
+    public static FlatSudoku parse(String grid, SudokuGeometry geometry) {
+        if (grid.length() != geometry.getCellCount())
+            throw new IllegalArgumentException("Expected " + geometry.getCellCount() + " cells but got " + grid.length());
+        FlatSudoku sudoku = new FlatSudoku(geometry);
+        for (int i = 0; i < grid.length(); i++)
+            sudoku.setValue(i, geometry.fromChar(grid.charAt(i)));
+        return sudoku;
+    }
+
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    public void setValue(int index, int value) {
+        record(index);
+        applyValue(index, value);
+        applyCandidates(index, 0);
+    }
+
+    public int getCandidateMask(int index) {
+        return candidates[index];
+    }
+
+    public void setCandidateMask(int index, int mask) {
+        if (values[index] == Cell.EMPTY)
+            writeCandidates(index, mask & geometry.getAllCandidates());
+    }
+
+    public boolean removeCandidate(int index, int candidate) {
+        int before = candidates[index];
+        writeCandidates(index, before & ~CandidateUtils.bit(candidate));
+        return before != candidates[index];
+    }
+
+    public void addCandidate(int index, int candidate) {
+        if (values[index] == Cell.EMPTY)
+            writeCandidates(index, candidates[index] | CandidateUtils.bit(candidate));
+    }
+
+    private void writeCandidates(int index, int mask) {
+        if (candidates[index] == mask)
+            return;
+        record(index);
+        applyCandidates(index, mask);
+    }
+
+    private void applyValue(int index, int value) {
+        if (values[index] != value)
+            changes.stamp(index, valueBit(values[index]) | valueBit(value));
+        unitMasks.updateValue(index, values[index], value);
+        values[index] = value;
+    }
+
+    private void applyCandidates(int index, int mask) {
+        int changed = candidates[index] ^ mask;
+        if (changed != 0)
+            changes.stamp(index, changed);
+        unitMasks.updateCandidates(index, candidates[index], mask);
+        candidates[index] = mask;
+        if (planeLow == null)
+            return;
+        for (; changed != 0; changed &= changed - 1) {
+            int digit = Integer.numberOfTrailingZeros(changed);
+            if (index < 64)
+                planeLow[digit] ^= 1L << index;
+            else
+                planeHigh[digit] ^= 1L << (index - 64);
+        }
+    }
+
+    private static int valueBit(int value) {
+        return value == Cell.EMPTY ? 0 : CandidateUtils.bit(value);
+    }
+
+    private void record(int index) {
+        if (!trailing)
+            return;
+        if (trailSize == trail.length)
+            trail = Arrays.copyOf(trail, trail.length * 2);
+        trail[trailSize++] = index << 8 | values[index];
+        trail[trailSize++] = candidates[index];
+    }
+
+    @Override
+    public SudokuSnapshot snapshot() {
+        return new SudokuSnapshot(geometry, values.clone(), candidates.clone());
+    }
+
+    @Override
+    public void restore(SudokuSnapshot snapshot) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == snapshot.getValue(i) && candidates[i] == snapshot.getCandidateMask(i))
+                continue;
+            record(i);
+            applyValue(i, snapshot.getValue(i));
+            applyCandidates(i, snapshot.getCandidateMask(i));
+        }
+    }
+
+    // Starts recording changes and returns a checkpoint for rollback.
+    // Recording stays on until the board is rolled back to the first mark.
+    public int mark() {
+        trailing = true;
+        return trailSize;
+    }
+
+    // Undoes every value and candidate change made since the mark, most recent first
+    public void rollback(int mark) {
+        while (trailSize > mark) {
+            int mask = trail[--trailSize];
+            int entry = trail[--trailSize];
+            int index = entry >>> 8;
+            applyValue(index, entry & 0xFF);
+            applyCandidates(index, mask);
+        }
+        if (trailSize == 0)
+            trailing = false;
+    }
+
+    public boolean isTrailing() {
+        return trailing;
+    }
+
+    // Turns recording on or off without touching the trail, so marks taken before stay valid
+    public void setTrailing(boolean trailing) {
+        this.trailing = trailing;
+    }
+
+    // Grows with every value or candidate change
+    public long getVersion() {
+        return changes.getVersion();
+    }
+
+    // Changes up to the version count as seen by the next scans, -1 makes every scan complete again
+    public void setChangedSince(long version) {
+        changes.setSince(version);
+    }
+
+    @Override
+    public boolean isExplaining() {
+        return explaining;
+    }
+
+    public void setExplaining(boolean explaining) {
+        this.explaining = explaining;
+    }
+
+    @Override
+    public boolean isCellChanged(int index) {
+        return changes.isCellChanged(index);
+    }
+
+    @Override
+    public boolean isUnitChanged(int unit) {
+        return changes.isUnitChanged(unit);
+    }
+
+    @Override
+    public boolean isDigitChanged(int digit) {
+        return changes.isDigitChanged(digit);
+    }
+
+    @Override
+    public CellSet getCandidatePlane(int digit) {
+        if (planeLow == null)
+            throw new UnsupportedOperationException("Candidate planes are only kept for the standard 9x9 grid");
+        return new CellSet(planeLow[digit - 1], planeHigh[digit - 1]);
+    }
+
+    @Override
+    public ICell getCell(int index) {
+        return cells[index];
+    }
+
+    public int generateCandidateMask(int index) {
+        return unitMasks.generateCandidateMask(index);
+    }
+
+    @Override
+    public int getUsedMask(int unit) {
+        return unitMasks.getUsedMask(unit);
+    }
+
+    @Override
+    public int getPositionMask(int unit, int digit) {
+        return unitMasks.getPositionMask(unit, digit);
+    }
+
+    @Override
+    public int getFilledCount() {
+        return unitMasks.getFilledCount();
+    }
+
+    @Override
+    public boolean initialValidation() {
+        return !unitMasks.hasConflicts();
+    }
+
+    @Override
+    public void loadCandidates() {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] == Cell.EMPTY)
+                writeCandidates(i, generateCandidateMask(i));
+        }
+    }
+
+    @Override
+    public void reRender() {
+    }
+
+    @Override
+    public Set<ICell> getEmptyCells() {
+        Set<ICell> emptyCells = new HashSet<>();
+        for (FlatCell cell : cells) {
+            if (values[cell.index] == Cell.EMPTY)
+                emptyCells.add(cell);
+        }
+        return emptyCells;
+    }
+
+    @Override
+    public Set<ICell> getNonEmptyCells() {
+        Set<ICell> nonEmptyCells = new HashSet<>();
+        for (FlatCell cell : cells) {
+            if (values[cell.index] != Cell.EMPTY)
+                nonEmptyCells.add(cell);
+        }
+        return nonEmptyCells;
+    }
+
+    @Override
+    public ICell getCell(int x, int y) {
+        return cells[geometry.index(x, y)];
+    }
+
+    @Override
+    public ICell getCell(Pos pos) {
+        return cells[geometry.index(pos.x(), pos.y())];
+    }
+
+    private Set<Integer> getUnitValue(int unit) {
+        Set<Integer> unitValues = new HashSet<>();
+        for (int index : geometry.getUnits()[unit])
+            unitValues.add(values[index]);
+        return unitValues;
+    }
+
+    @Override
+    public Set<Integer> getRowValue(int y) {
+        return getUnitValue(geometry.getRowOffset() + y);
+    }
+
+    @Override
+    public Set<Integer> getColumnValue(int x) {
+        return getUnitValue(geometry.getColumnOffset() + x);
+    }
+
+    @Override
+    public Set<Integer> getSquareValue(int squareNumber) {
+        return getUnitValue(geometry.getSquareOffset() + squareNumber);
+    }
+
+    @Override
+    public Set<Integer> getSquareValue(int x, int y) {
+        return getSquareValue(geometry.square(x, y));
+    }
+
+    @Override
+    public Set<Pos> removeAffectedCandidates(int x, int y, int num) {
+        Set<Pos> affectedCells = new HashSet<>();
+        int index = geometry.index(x, y);
+        if (removeCandidate(index, num))
+            affectedCells.add(Pos.of(x, y));
+        for (int peer : geometry.getPeers()[index]) {
+            if (removeCandidate(peer, num))
+                affectedCells.add(Pos.of(geometry.x(peer), geometry.y(peer)));
+        }
+        return affectedCells;
+    }
+
+    @Override
+    public Set<Integer> generateCandidates(int x, int y) {
+        return CandidateUtils.toSet(generateCandidateMask(x, y));
+    }
+
+    @Override
+    public int generateCandidateMask(int x, int y) {
+        return generateCandidateMask(geometry.index(x, y));
+    }
+
+    @Override
+    public ICell[] getAllCells() {
+        return allCells;
+    }
+
+    @Override
+    public ICell[] getRow(int y) {
+        return units[geometry.getRowOffset() + y];
+    }
+
+    @Override
+    public ICell[] getColumn(int x) {
+        return units[geometry.getColumnOffset() + x];
+    }
+
+    @Override
+    public ICell[] getSquare(int squareNumber) {
+        return units[geometry.getSquareOffset() + squareNumber];
+    }
+
+    @Override
+    public ICell[] getSquare(int x, int y) {
+        return getSquare(geometry.square(x, y));
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder(values.length);
+        for (int value : values)
+            builder.append(geometry.toChar(value));
+        return builder.toString();
+    }
+
+    private final class FlatCell implements ICell {
+        private final int index;
+        private final Pos pos;
+
+        private FlatCell(int index) {
+            this.index = index;
+            this.pos = Pos.of(geometry.x(index), geometry.y(index));
+        }
+
+        @Override
+        public Set<Integer> getCandidates() {
+            return CandidateUtils.toSet(candidates[index]);
+        }
+
+        @Override
+        public int getCandidateMask() {
+            return candidates[index];
+        }
+
+        @Override
+        public void setCandidateMask(int mask) {
+            FlatSudoku.this.setCandidateMask(index, mask);
+        }
+
+        @Override
+        public int getX() {
+            return pos.x();
+        }
+
+        @Override
+        public int getY() {
+            return pos.y();
+        }
+
+        @Override
+        public int getValue() {
+            return values[index];
+        }
+
+        @Override
+        public void clearCandidates() {
+            writeCandidates(index, 0);
+        }
+
+        @Override
+        public void setValue(int num) {
+            FlatSudoku.this.setValue(index, num);
+        }
+
+        @Override
+        public void clear() {
+            setValue(EMPTY);
+        }
+
+        @Override
+        public void addCandidate(int num) {
+            if (num > 0 && num <= geometry.getSize())
+                FlatSudoku.this.addCandidate(index, num);
+        }
+
+        @Override
+        public void addCandidates(Collection<Integer> candidates) {
+            setCandidateMask(getCandidateMask() | CandidateUtils.toMask(candidates));
+        }
+
+        @Override
+        public boolean removeCandidate(int candidate) {
+            return candidate > 0 && candidate <= geometry.getSize() && FlatSudoku.this.removeCandidate(index, candidate);
+        }
+
+        @Override
+        public boolean removeCandidates(Collection<Integer> candidates) {
+            int before = getCandidateMask();
+            setCandidateMask(before & ~CandidateUtils.toMask(candidates));
+            return before != getCandidateMask();
+        }
+
+        @Override
+        public Pos getPos() {
+            return pos;
+        }
+
+        @Override
+        public int getSquare() {
+            return geometry.square(pos.x(), pos.y());
+        }
+
+        @Override
+        public int hashCode() {
+            return index;
+        }
+    }
+}
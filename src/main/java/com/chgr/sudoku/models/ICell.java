@@ -1,5 +1,6 @@
 package com.chgr.sudoku.models;
 
+import com.chgr.sudoku.utils.CandidateUtils;
 import javafx.scene.paint.Color;
 
 import java.util.Collection;
@@ -7,10 +8,21 @@ import java.util.Set;
 
 public interface ICell {
     int EMPTY = 0;
-    Set<Integer> DIGITS = Set.of(1, 2, 3, 4, 5, 6, 7, 8, 9);
 
     Set<Integer> getCandidates();
 
+    int getCandidateMask();
+
+    void setCandidateMask(int mask);
+
+    default boolean hasCandidate(int candidate) {
+        return CandidateUtils.contains(getCandidateMask(), candidate);
+    }
+
+    default int getCandidateCount() {
+        return Integer.bitCount(getCandidateMask());
+    }
+
     int getX();
 
     int getY();
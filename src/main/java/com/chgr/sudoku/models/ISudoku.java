@@ -14,6 +14,11 @@ public interface ISudoku {
         SQUARE
     }
 
+    // The UI boards are always 9x9, headless boards may use other sizes
+    default SudokuGeometry getGeometry() {
+        return SudokuGeometry.STANDARD;
+    }
+
     boolean initialValidation();
 
     void loadCandidates();
@@ -38,6 +43,21 @@ public interface ISudoku {
 
     Set<Integer> generateCandidates(int x, int y);
 
+    int generateCandidateMask(int x, int y);
+
+    // Digits placed in a unit, see SudokuGeometry for the unit numbering
+    int getUsedMask(int unit);
+
+    // Positions within the unit (bit k is the k-th cell of getRow/getColumn/getSquare) still holding the digit
+    int getPositionMask(int unit, int digit);
+
+    int getFilledCount();
+
+    default boolean isSolved() {
+        return getFilledCount() == getGeometry().getCellCount() && initialValidation();
+    }
+
+    // Cell views are built once per board and shared, callers must not modify the returned arrays
     ICell[] getAllCells();
 
     ICell[] getRow(int y);
@@ -50,6 +70,16 @@ public interface ISudoku {
 
     ICell getCell(Pos key);
 
+    // Cell by SudokuGeometry index (y * size + x)
+    default ICell getCell(int index) {
+        return getCell(getGeometry().x(index), getGeometry().y(index));
+    }
+
+    // Cell indices of a unit in getRow/getColumn/getSquare order, shared table that must not be modified
+    default int[] getUnitIndices(int unit) {
+        return getGeometry().getUnits()[unit];
+    }
+
     default ICell[] getCells(GroupType type, int index) {
         return switch (type) {
             case ROW -> getRow(index);
@@ -58,6 +88,55 @@ public interface ISudoku {
         };
     }
 
+    default SudokuSnapshot snapshot() {
+        return SudokuSnapshot.of(this);
+    }
+
+    default void restore(SudokuSnapshot snapshot) {
+        SudokuGeometry geometry = getGeometry();
+        for (int i = 0; i < geometry.getCellCount(); i++) {
+            ICell cell = getCell(geometry.x(i), geometry.y(i));
+            cell.setValue(snapshot.getValue(i));
+            cell.setCandidateMask(snapshot.getCandidateMask(i));
+        }
+    }
+
+    // Change tracking for techniques that rescan only what changed since their last scan without result (see FlatSudoku.setChangedSince).
+    // A technique may skip a cell, unit or digit that did not change only when its findings there depend on nothing else.
+    // Boards without tracking report everything as changed, so every scan stays complete.
+    default boolean isCellChanged(int index) {
+        return true;
+    }
+
+    default boolean isUnitChanged(int unit) {
+        return true;
+    }
+
+    default boolean isDigitChanged(int digit) {
+        return true;
+    }
+
+    // False when techniques only need to report what they change, without descriptions and colorings
+    default boolean isExplaining() {
+        return true;
+    }
+
+    // Cells that still hold the candidate digit.
+    // CellSet only covers the 9x9 grid, so callers check getGeometry().isStandard() first, as LogicalSolver does when picking techniques.
+    default CellSet getCandidatePlane(int digit) {
+        if (!getGeometry().isStandard())
+            throw new UnsupportedOperationException("Candidate planes are only kept for the standard 9x9 grid");
+        CellSet plane = CellSet.EMPTY;
+        for (ICell cell : getAllCells()) {
+            if (cell.hasCandidate(digit))
+                plane = plane.union(CellSet.of(cell));
+        }
+        return plane;
+    }
+
+    // Shows values a solver is trying, indexed like SudokuGeometry, without changing the board. The next reRender shows the board again.
+    default void preview(int[] values) {}
+
     default void colorGroup(Pos first, Pos second, Color color) {}
 
     default void clearColorGroup() {}
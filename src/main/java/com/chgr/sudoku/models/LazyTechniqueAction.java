@@ -0,0 +1,49 @@
+package com.chgr.sudoku.models;
+
+import lombok.experimental.SuperBuilder;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+// Step of a lean solve, holds the lean action and rebuilds the explained one from the board before the step when it is asked for.
+// The recorded lean action is the one applied, the rebuilt one only explains and colours it.
+@SuperBuilder
+public class LazyTechniqueAction extends BaseAction {
+    private TechniqueAction action;
+    private SudokuSnapshot before;
+    private Function<ISudoku, Optional<TechniqueAction>> technique;
+    private TechniqueAction explained;
+
+    private TechniqueAction explained() {
+        if (explained == null) {
+            TechniqueAction rebuilt = technique.apply(new FlatSudoku(before))
+                    .orElseThrow(() -> new IllegalStateException(getName() + " found nothing when rebuilding its explanation"));
+            if (!rebuilt.hasSameEffect(action))
+                throw new IllegalStateException(getName() + " rebuilt a different step than the one recorded");
+            explained = rebuilt;
+        }
+        return explained;
+    }
+
+    public boolean isExplained() {
+        return explained != null;
+    }
+
+    @Override
+    public String getDescription() {
+        return explained().getDescription();
+    }
+
+    @Override
+    public void apply(ISudoku sudoku) {
+        // colourings shown through the explained action are cleared through it as well
+        if (explained != null)
+            explained.clearColoring(sudoku);
+        action.apply(sudoku);
+    }
+
+    @Override
+    public void display(ISudoku sudoku) {
+        explained().display(sudoku);
+    }
+}
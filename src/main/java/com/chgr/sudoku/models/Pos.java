@@ -2,6 +2,35 @@ package com.chgr.sudoku.models;
 
 public record Pos(int x, int y) {
 
+    // One shared instance per cell of the 9x9 grid, indexed like SudokuLayout
+    private static final Pos[] TABLE = new Pos[ISudoku.SUDOKU_SIZE * ISudoku.SUDOKU_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE.length; i++)
+            TABLE[i] = new Pos(i % ISudoku.SUDOKU_SIZE, i / ISudoku.SUDOKU_SIZE);
+    }
+
+    // Index into the 9x9 grid, use SudokuGeometry.x and y for other sizes
+    public static Pos of(int index) {
+        if (index < 0 || index >= TABLE.length)
+            throw new IllegalArgumentException("Index " + index + " is outside the 9x9 grid");
+        return TABLE[index];
+    }
+
+    // Interned for the 9x9 grid, a new instance for anything outside it
+    public static Pos of(int x, int y) {
+        if (x < 0 || y < 0 || x >= ISudoku.SUDOKU_SIZE || y >= ISudoku.SUDOKU_SIZE)
+            return new Pos(x, y);
+        return TABLE[y * ISudoku.SUDOKU_SIZE + x];
+    }
+
+    // Index in the 9x9 grid, use SudokuGeometry.index for other sizes
+    public int index() {
+        if (isOutOfBound())
+            throw new IllegalStateException(this + " is outside the 9x9 grid");
+        return y * ISudoku.SUDOKU_SIZE + x;
+    }
+
     @Override
     public String toString() {
         return String.format("( %s, %s)", x, y);
@@ -1,4 +1,36 @@
 package com.chgr.sudoku.models;
 
 public record PosCandidate(Pos pos, int candidate) {
+
+    // One shared instance per candidate node of the 9x9 grid, see SudokuLayout.node
+    private static final PosCandidate[] TABLE = new PosCandidate[SudokuLayout.NODE_COUNT];
+
+    static {
+        for (int node = 0; node < TABLE.length; node++)
+            TABLE[node] = new PosCandidate(Pos.of(SudokuLayout.nodeIndex(node)), SudokuLayout.nodeDigit(node));
+    }
+
+    public static PosCandidate of(int node) {
+        if (node < 0 || node >= TABLE.length)
+            throw new IllegalArgumentException("Node " + node + " is outside the 9x9 grid");
+        return TABLE[node];
+    }
+
+    // Interned for the 9x9 grid, a new instance for a cell or digit outside it
+    public static PosCandidate of(Pos pos, int candidate) {
+        if (!isStandard(pos, candidate))
+            return new PosCandidate(pos, candidate);
+        return TABLE[SudokuLayout.node(pos.index(), candidate)];
+    }
+
+    // Node in the 9x9 grid, larger boards have no node numbering
+    public int node() {
+        if (!isStandard(pos, candidate))
+            throw new IllegalStateException(this + " is outside the 9x9 grid");
+        return SudokuLayout.node(pos.index(), candidate);
+    }
+
+    private static boolean isStandard(Pos pos, int candidate) {
+        return !pos.isOutOfBound() && candidate >= 1 && candidate <= ISudoku.SUDOKU_SIZE;
+    }
 }
@@ -1,5 +1,6 @@
 package com.chgr.sudoku.models;
 
+import com.chgr.sudoku.utils.CandidateUtils;
 import javafx.application.Platform;
 import javafx.geometry.Point2D;
 import javafx.scene.control.Alert;
@@ -16,16 +17,29 @@ import java.util.stream.Collectors;
 public class Sudoku extends Pane implements ISudoku {
 
     private final Cell[][] cells = new Cell[SUDOKU_SIZE][SUDOKU_SIZE];
+    private final UnitMasks unitMasks = new UnitMasks();
+    private final Cell[][] units = new Cell[SudokuLayout.UNIT_COUNT][];
+    // Column by column, like the cells array
+    private final Cell[] allCells = new Cell[SudokuLayout.CELL_COUNT];
     private static final int SIZE = Cell.SIZE * SUDOKU_SIZE;
 
     public Sudoku(){
         this.setPrefSize(SIZE, SIZE);
         for(int i=0; i<SUDOKU_SIZE; i++){
             for(int j=0; j<SUDOKU_SIZE; j++){
-                cells[i][j] = new Cell(i, j);
+                cells[i][j] = new Cell(i, j, unitMasks);
                 this.getChildren().add(cells[i][j]);
             }
         }
+        for (int unit = 0; unit < SudokuLayout.UNIT_COUNT; unit++) {
+            units[unit] = new Cell[SUDOKU_SIZE];
+            for (int k = 0; k < SUDOKU_SIZE; k++) {
+                int index = SudokuLayout.UNITS[unit][k];
+                units[unit][k] = cells[SudokuLayout.x(index)][SudokuLayout.y(index)];
+            }
+        }
+        for (int x = 0; x < SUDOKU_SIZE; x++)
+            System.arraycopy(cells[x], 0, allCells, x * SUDOKU_SIZE, SUDOKU_SIZE);
     }
 
     public void clear(){
@@ -40,24 +54,16 @@ public class Sudoku extends Pane implements ISudoku {
     }
 
     public boolean initialValidation(){
-        for(int i =0; i<SUDOKU_SIZE; i++){
-            Set<Integer> row = getRowValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(row.size() != row.stream().distinct().count()){
-                showAlert("Duplicate found at row " + (i+1));
-                return false;
-            }
-            Set<Integer> col = getColumnValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(col.size() != col.stream().distinct().count()){
-                showAlert("Duplicate found at column " + (i+1));
-                return false;
-            }
-            Set<Integer> square = getSquareValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(square.size() != square.stream().distinct().count()){
-                showAlert("Duplicate found at square " + (i+1));
-                return false;
-            }
-        }
-        return true;
+        int unit = unitMasks.findConflict();
+        if(unit == -1)
+            return true;
+        if(unit < SudokuLayout.COLUMN_OFFSET)
+            showAlert("Duplicate found at row " + (unit - SudokuLayout.ROW_OFFSET + 1));
+        else if(unit < SudokuLayout.SQUARE_OFFSET)
+            showAlert("Duplicate found at column " + (unit - SudokuLayout.COLUMN_OFFSET + 1));
+        else
+            showAlert("Duplicate found at square " + (unit - SudokuLayout.SQUARE_OFFSET + 1));
+        return false;
     }
 
     private void showAlert(String message) {
@@ -76,7 +82,7 @@ public class Sudoku extends Pane implements ISudoku {
     }
 
     public Cell[] getAllCells(){
-        return Arrays.stream(cells).flatMap(Arrays::stream).toArray(Cell[]::new);
+        return allCells;
     }
 
     public Cell[] getColumn(int x){
@@ -84,27 +90,15 @@ public class Sudoku extends Pane implements ISudoku {
     }
 
     public Cell[] getRow(int y){
-        return Arrays.stream(cells).map(row -> row[y]).toArray(Cell[]::new);
+        return units[SudokuLayout.ROW_OFFSET + y];
     }
 
     public Cell[] getSquare(int x, int y){
-        //col and row are the coordinates of the top left most cell in the square that x,y is located
-        int col = x / 3 * 3;
-        int row = y / 3 * 3;
-        Cell[] square = new Cell[SUDOKU_SIZE];
-        for (int i = 0; i < 3; i++)
-            System.arraycopy(cells[col + i], row, square, i * 3, 3);
-        return square;
+        return getSquare(SudokuLayout.square(x, y));
     }
 
     public Cell[] getSquare(int squareNumber){
-        //col and row are the coordinates of the top left most cell in the square that x,y is located
-        int col = squareNumber * 3 % 9;
-        int row = squareNumber / 3 * 3;
-        Cell[] square = new Cell[SUDOKU_SIZE];
-        for (int i = 0; i < 3; i++)
-            System.arraycopy(cells[col + i], row, square, i * 3, 3);
-        return square;
+        return units[SudokuLayout.SQUARE_OFFSET + squareNumber];
     }
 
     public Set<Integer> getColumnValue(int x){
@@ -141,25 +135,37 @@ public class Sudoku extends Pane implements ISudoku {
         Set<Pos> affectedCells = new HashSet<>();
         for (Cell cell : getRow(y)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         for (Cell cell : getColumn(x)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         for (Cell cell : getSquare(x, y)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         return affectedCells;
     }
 
     public Set<Integer> generateCandidates(int col, int row){
-        Set<Integer> candidates = new HashSet<>(Cell.DIGITS);
-        candidates.removeAll(getColumnValue(col));
-        candidates.removeAll(getRowValue(row));
-        candidates.removeAll(getSquareValue(col, row));
-        return candidates;
+        return CandidateUtils.toSet(generateCandidateMask(col, row));
+    }
+
+    public int generateCandidateMask(int x, int y){
+        return unitMasks.generateCandidateMask(SudokuLayout.index(x, y));
+    }
+
+    public int getUsedMask(int unit) {
+        return unitMasks.getUsedMask(unit);
+    }
+
+    public int getPositionMask(int unit, int digit) {
+        return unitMasks.getPositionMask(unit, digit);
+    }
+
+    public int getFilledCount() {
+        return unitMasks.getFilledCount();
     }
 
     public void loadCandidates(){
@@ -167,8 +173,7 @@ public class Sudoku extends Pane implements ISudoku {
             for(int j=0; j<SUDOKU_SIZE; j++){
                 Cell cell = cells[i][j];
                 if(cell.getValue() == Cell.EMPTY) {
-                    cell.clearCandidates();
-                    cell.addCandidates(generateCandidates(cell.getX(), cell.getY()));
+                    cell.setCandidateMask(generateCandidateMask(cell.getX(), cell.getY()));
                 }
             }
         }
@@ -192,6 +197,14 @@ public class Sudoku extends Pane implements ISudoku {
         });
     }
 
+    @Override
+    public void preview(int[] values) {
+        Platform.runLater(() -> {
+            for (int index = 0; index < values.length; index++)
+                cells[SudokuLayout.x(index)][SudokuLayout.y(index)].preview(values[index]);
+        });
+    }
+
     public void colorGroup(Pos first, Pos second, Color color) {
         if(first.isOutOfBound() || second.isOutOfBound())
             return;
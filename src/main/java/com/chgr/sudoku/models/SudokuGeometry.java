@@ -0,0 +1,141 @@
+package com.chgr.sudoku.models;
+
+import lombok.Getter;
+
+// Precomputed tables of an N x N grid with square boxes (N = boxSize^2, 4x4 up to 25x25).
+// Cells are addressed by index = y * size + x, units 0..size-1 are rows, then columns, then squares.
+// Squares are ordered column by column like SudokuWithoutUI.getSquare.
+// The returned tables are shared and must not be modified.
+@Getter
+public final class SudokuGeometry {
+
+    public static final SudokuGeometry STANDARD = new SudokuGeometry(ISudoku.SQUARE_SIZE);
+    private static final SudokuGeometry[] BY_BOX_SIZE = {
+            null, null, new SudokuGeometry(2), STANDARD, new SudokuGeometry(4), new SudokuGeometry(5)
+    };
+
+    private final int boxSize;
+    private final int size;
+    private final int cellCount;
+    private final int unitCount;
+    private final int peerCount;
+    // Candidate mask with all digits 1..size set
+    private final int allCandidates;
+    private final int[][] units;
+    // Row, column and square unit of every cell
+    private final int[][] cellUnits;
+    // Position of every cell within the units of cellUnits
+    private final int[][] unitPositions;
+    private final int[][] peers;
+
+    private SudokuGeometry(int boxSize) {
+        this.boxSize = boxSize;
+        this.size = boxSize * boxSize;
+        this.cellCount = size * size;
+        this.unitCount = size * 3;
+        this.peerCount = 3 * (size - 1) - 2 * (boxSize - 1);
+        this.allCandidates = (1 << size) - 1;
+        this.units = new int[unitCount][size];
+        this.cellUnits = new int[cellCount][3];
+        this.unitPositions = new int[cellCount][3];
+        this.peers = new int[cellCount][peerCount];
+
+        for (int i = 0; i < size; i++) {
+            for (int j = 0; j < size; j++) {
+                units[getRowOffset() + i][j] = index(j, i);
+                units[getColumnOffset() + i][j] = index(i, j);
+                int col = i % boxSize * boxSize + j / boxSize;
+                int row = i / boxSize * boxSize + j % boxSize;
+                units[getSquareOffset() + i][j] = index(col, row);
+            }
+        }
+        for (int index = 0; index < cellCount; index++) {
+            int x = x(index);
+            int y = y(index);
+            cellUnits[index][0] = getRowOffset() + y;
+            cellUnits[index][1] = getColumnOffset() + x;
+            cellUnits[index][2] = getSquareOffset() + square(x, y);
+            unitPositions[index][0] = x;
+            unitPositions[index][1] = y;
+            unitPositions[index][2] = x % boxSize * boxSize + y % boxSize;
+            int count = 0;
+            for (int other = 0; other < cellCount; other++) {
+                if (other != index && isPeer(index, other))
+                    peers[index][count++] = other;
+            }
+        }
+    }
+
+    public static SudokuGeometry ofSize(int size) {
+        for (SudokuGeometry geometry : BY_BOX_SIZE) {
+            if (geometry != null && geometry.size == size)
+                return geometry;
+        }
+        throw new IllegalArgumentException("Unsupported sudoku size " + size);
+    }
+
+    public boolean isStandard() {
+        return this == STANDARD;
+    }
+
+    public int getRowOffset() {
+        return 0;
+    }
+
+    public int getColumnOffset() {
+        return size;
+    }
+
+    public int getSquareOffset() {
+        return size * 2;
+    }
+
+    public int unit(ISudoku.GroupType type, int index) {
+        return switch (type) {
+            case ROW -> getRowOffset() + index;
+            case COLUMN -> getColumnOffset() + index;
+            case SQUARE -> getSquareOffset() + index;
+        };
+    }
+
+    public int index(int x, int y) {
+        return y * size + x;
+    }
+
+    public int x(int index) {
+        return index % size;
+    }
+
+    public int y(int index) {
+        return index / size;
+    }
+
+    public int square(int x, int y) {
+        return x / boxSize + y / boxSize * boxSize;
+    }
+
+    public boolean isPeer(int first, int second) {
+        int x1 = x(first), y1 = y(first), x2 = x(second), y2 = y(second);
+        return x1 == x2 || y1 == y2 || square(x1, y1) == square(x2, y2);
+    }
+
+    // Digits are written 1-9 then A-P, empty cells as 0 or '.'
+    public char toChar(int value) {
+        return value < 10 ? (char) ('0' + value) : (char) ('A' + value - 10);
+    }
+
+    public int fromChar(char c) {
+        int value;
+        if (c == '.' || c == '0')
+            value = ICell.EMPTY;
+        else if (c >= '1' && c <= '9')
+            value = c - '0';
+        else if (Character.toUpperCase(c) >= 'A' && Character.toUpperCase(c) <= 'Z')
+            value = Character.toUpperCase(c) - 'A' + 10;
+        else
+            value = -1;
+        if (value < 0 || value > size)
+            throw new IllegalArgumentException("Invalid digit '" + c + "' for a " + size + "x" + size + " sudoku");
+        return value;
+    }
+}
@@ -0,0 +1,84 @@
+package com.chgr.sudoku.models;
+
+// Precomputed geometry of the 9x9 grid, the specialised counterpart of SudokuGeometry.STANDARD. Cells are addressed by index = y * 9 + x,
+// units 0-8 are rows, 9-17 columns and 18-26 squares.
+public final class SudokuLayout {
+
+    public static final int CELL_COUNT = ISudoku.SUDOKU_SIZE * ISudoku.SUDOKU_SIZE;
+    public static final int UNIT_COUNT = ISudoku.SUDOKU_SIZE * 3;
+    public static final int PEER_COUNT = 20;
+    // Candidate nodes, one per cell and digit: node = index * 9 + digit - 1
+    public static final int NODE_COUNT = CELL_COUNT * ISudoku.SUDOKU_SIZE;
+
+    public static final int ROW_OFFSET = 0;
+    public static final int COLUMN_OFFSET = ISudoku.SUDOKU_SIZE;
+    public static final int SQUARE_OFFSET = ISudoku.SUDOKU_SIZE * 2;
+
+    // Tables of SudokuGeometry.STANDARD, kept static for the 9x9 specific code
+    public static final int[][] UNITS = SudokuGeometry.STANDARD.getUnits();
+    // Row, column and square unit of every cell
+    public static final int[][] CELL_UNITS = SudokuGeometry.STANDARD.getCellUnits();
+    // Position of every cell within the units of CELL_UNITS
+    public static final int[][] UNIT_POSITIONS = SudokuGeometry.STANDARD.getUnitPositions();
+    public static final int[][] PEERS = SudokuGeometry.STANDARD.getPeers();
+    public static final CellSet[] UNIT_SETS = new CellSet[UNIT_COUNT];
+    public static final CellSet[] PEER_SETS = new CellSet[CELL_COUNT];
+
+    static {
+        for (int index = 0; index < CELL_COUNT; index++) {
+            CellSet peers = CellSet.EMPTY;
+            for (int peer : PEERS[index])
+                peers = peers.with(peer);
+            PEER_SETS[index] = peers;
+        }
+        for (int unit = 0; unit < UNIT_COUNT; unit++) {
+            CellSet cells = CellSet.EMPTY;
+            for (int index : UNITS[unit])
+                cells = cells.with(index);
+            UNIT_SETS[unit] = cells;
+        }
+    }
+
+    private SudokuLayout() {
+    }
+
+    public static int unit(ISudoku.GroupType type, int index) {
+        return switch (type) {
+            case ROW -> ROW_OFFSET + index;
+            case COLUMN -> COLUMN_OFFSET + index;
+            case SQUARE -> SQUARE_OFFSET + index;
+        };
+    }
+
+    public static CellSet unitSet(ISudoku.GroupType type, int index) {
+        return UNIT_SETS[unit(type, index)];
+    }
+
+    public static int index(int x, int y) {
+        return y * ISudoku.SUDOKU_SIZE + x;
+    }
+
+    public static int x(int index) {
+        return index % ISudoku.SUDOKU_SIZE;
+    }
+
+    public static int y(int index) {
+        return index / ISudoku.SUDOKU_SIZE;
+    }
+
+    public static int node(int index, int digit) {
+        return index * ISudoku.SUDOKU_SIZE + digit - 1;
+    }
+
+    public static int nodeIndex(int node) {
+        return node / ISudoku.SUDOKU_SIZE;
+    }
+
+    public static int nodeDigit(int node) {
+        return node % ISudoku.SUDOKU_SIZE + 1;
+    }
+
+    public static int square(int x, int y) {
+        return x / 3 + y / 3 * 3;
+    }
+}
@@ -0,0 +1,38 @@
+package com.chgr.sudoku.models;
+
+import lombok.Getter;
+
+// Immutable copy of the values and candidate masks of a board, indexed like its SudokuGeometry.
+// Safe to hand to other threads, see ISudoku.snapshot and ISudoku.restore.
+public final class SudokuSnapshot {
+    @Getter
+    private final SudokuGeometry geometry;
+    private final int[] values;
+    private final int[] candidates;
+
+    SudokuSnapshot(SudokuGeometry geometry, int[] values, int[] candidates) {
+        this.geometry = geometry;
+        this.values = values;
+        this.candidates = candidates;
+    }
+
+    public static SudokuSnapshot of(ISudoku sudoku) {
+        SudokuGeometry geometry = sudoku.getGeometry();
+        int[] values = new int[geometry.getCellCount()];
+        int[] candidates = new int[geometry.getCellCount()];
+        for (int i = 0; i < values.length; i++) {
+            ICell cell = sudoku.getCell(geometry.x(i), geometry.y(i));
+            values[i] = cell.getValue();
+            candidates[i] = cell.getCandidateMask();
+        }
+        return new SudokuSnapshot(geometry, values, candidates);
+    }
+
+    public int getValue(int index) {
+        return values[index];
+    }
+
+    public int getCandidateMask(int index) {
+        return candidates[index];
+    }
+}
@@ -1,37 +1,38 @@
 package com.chgr.sudoku.models;
 
+import com.chgr.sudoku.utils.CandidateUtils;
+
 import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
 public class SudokuWithoutUI implements ISudoku {
     private final CellWithoutUI[][] cells = new CellWithoutUI[SUDOKU_SIZE][SUDOKU_SIZE];
+    private final UnitMasks unitMasks = new UnitMasks();
+    private final CellWithoutUI[][] units = new CellWithoutUI[SudokuLayout.UNIT_COUNT][];
+    // Column by column, like the cells array
+    private final CellWithoutUI[] allCells = new CellWithoutUI[SudokuLayout.CELL_COUNT];
 
     public SudokuWithoutUI(){
         for (int i = 0; i < SUDOKU_SIZE; i++) {
             for (int j = 0; j < SUDOKU_SIZE; j++) {
-                cells[i][j] = new CellWithoutUI(i, j);
+                cells[i][j] = new CellWithoutUI(i, j, unitMasks);
+            }
+        }
+        for (int unit = 0; unit < SudokuLayout.UNIT_COUNT; unit++) {
+            units[unit] = new CellWithoutUI[SUDOKU_SIZE];
+            for (int k = 0; k < SUDOKU_SIZE; k++) {
+                int index = SudokuLayout.UNITS[unit][k];
+                units[unit][k] = cells[SudokuLayout.x(index)][SudokuLayout.y(index)];
             }
         }
+        for (int x = 0; x < SUDOKU_SIZE; x++)
+            System.arraycopy(cells[x], 0, allCells, x * SUDOKU_SIZE, SUDOKU_SIZE);
     }
 
     @Override
     public boolean initialValidation() {
-        for(int i =0; i<SUDOKU_SIZE; i++){
-            Set<Integer> row = getRowValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(row.size() != row.stream().distinct().count()){
-                return false;
-            }
-            Set<Integer> col = getColumnValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(col.size() != col.stream().distinct().count()){
-                return false;
-            }
-            Set<Integer> square = getSquareValue(i).stream().filter(value -> value != Cell.EMPTY).collect(Collectors.toSet());
-            if(square.size() != square.stream().distinct().count()){
-                return false;
-            }
-        }
-        return true;
+        return !unitMasks.hasConflicts();
     }
 
     @Override
@@ -40,8 +41,7 @@ public class SudokuWithoutUI implements ISudoku {
             for(int j=0; j<SUDOKU_SIZE; j++){
                 CellWithoutUI cell = cells[i][j];
                 if(cell.getValue() == Cell.EMPTY) {
-                    cell.clearCandidates();
-                    cell.addCandidates(generateCandidates(cell.getX(), cell.getY()));
+                    cell.setCandidateMask(generateCandidateMask(cell.getX(), cell.getY()));
                 }
             }
         }
@@ -110,31 +110,47 @@ public class SudokuWithoutUI implements ISudoku {
         Set<Pos> affectedCells = new HashSet<>();
         for (CellWithoutUI cell : getRow(y)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         for (CellWithoutUI cell : getColumn(x)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         for (CellWithoutUI cell : getSquare(x, y)) {
             if(cell.removeCandidate(value))
-                affectedCells.add(new Pos(cell.getX(), cell.getY()));
+                affectedCells.add(cell.getPos());
         }
         return affectedCells;
     }
 
     @Override
     public Set<Integer> generateCandidates(int x, int y) {
-        Set<Integer> candidates = new HashSet<>(Cell.DIGITS);
-        candidates.removeAll(getColumnValue(x));
-        candidates.removeAll(getRowValue(y));
-        candidates.removeAll(getSquareValue(x, y));
-        return candidates;
+        return CandidateUtils.toSet(generateCandidateMask(x, y));
+    }
+
+    @Override
+    public int generateCandidateMask(int x, int y) {
+        return unitMasks.generateCandidateMask(SudokuLayout.index(x, y));
+    }
+
+    @Override
+    public int getUsedMask(int unit) {
+        return unitMasks.getUsedMask(unit);
+    }
+
+    @Override
+    public int getPositionMask(int unit, int digit) {
+        return unitMasks.getPositionMask(unit, digit);
+    }
+
+    @Override
+    public int getFilledCount() {
+        return unitMasks.getFilledCount();
     }
 
     @Override
     public CellWithoutUI[] getAllCells() {
-        return Arrays.stream(cells).flatMap(Arrays::stream).toArray(CellWithoutUI[]::new);
+        return allCells;
     }
 
     @Override
@@ -144,28 +160,16 @@ public class SudokuWithoutUI implements ISudoku {
 
     @Override
     public CellWithoutUI[] getRow(int y){
-        return Arrays.stream(cells).map(row -> row[y]).toArray(CellWithoutUI[]::new);
+        return units[SudokuLayout.ROW_OFFSET + y];
     }
 
     @Override
     public CellWithoutUI[] getSquare(int squareNumber){
-        //col and row are the coordinates of the top left most cell in the square that x,y is located
-        int col = squareNumber * 3 % 9;
-        int row = squareNumber / 3 * 3;
-        CellWithoutUI[] square = new CellWithoutUI[SUDOKU_SIZE];
-        for (int i = 0; i < 3; i++)
-            System.arraycopy(cells[col + i], row, square, i * 3, 3);
-        return square;
+        return units[SudokuLayout.SQUARE_OFFSET + squareNumber];
     }
 
     public CellWithoutUI[] getSquare(int x, int y){
-        //col and row are the coordinates of the top left most cell in the square that x,y is located
-        int col = x / 3 * 3;
-        int row = y / 3 * 3;
-        CellWithoutUI[] square = new CellWithoutUI[SUDOKU_SIZE];
-        for (int i = 0; i < 3; i++)
-            System.arraycopy(cells[col + i], row, square, i * 3, 3);
-        return square;
+        return getSquare(SudokuLayout.square(x, y));
     }
 
     @Override
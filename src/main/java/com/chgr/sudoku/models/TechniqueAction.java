@@ -7,10 +7,32 @@ import org.apache.commons.math3.util.Pair;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 @SuperBuilder
 public class TechniqueAction extends BaseAction {
+    // Explanations are only built for boards that ask for them (see ISudoku.isExplaining), lean actions keep the name,
+    // eliminations and placements
+    public static abstract class TechniqueActionBuilder<C extends TechniqueAction, B extends TechniqueActionBuilder<C, B>> extends BaseAction.BaseActionBuilder<C, B> {
+        private boolean lean;
+
+        public B explaining(ISudoku sudoku) {
+            lean = !sudoku.isExplaining();
+            return self();
+        }
+
+        public B description(Supplier<String> description) {
+            return lean ? self() : description(description.get());
+        }
+
+        // Lombok skips generating a method whose name is taken, so this cannot be a cellColorings overload
+        public B colorings(Supplier<List<CellColoring>> cellColorings) {
+            return cellColorings(lean ? List.of() : cellColorings.get());
+        }
+    }
+
     public interface CellColoring {
         void apply(ISudoku sudoku);
         void clear(ISudoku sudoku);
@@ -67,7 +89,7 @@ public class TechniqueAction extends BaseAction {
         }
 
         public LineColoring(List<Pair<Pos, Pos>> linePos, Color color, int candidate, boolean isDouble) {
-            this.linePos = linePos.stream().map(pair -> new Pair<>(new PosCandidate(pair.getFirst(), candidate), new PosCandidate(pair.getSecond(), candidate))).toList();
+            this.linePos = linePos.stream().map(pair -> new Pair<>(PosCandidate.of(pair.getFirst(), candidate), PosCandidate.of(pair.getSecond(), candidate))).toList();
             this.color = color;
             this.isDouble = isDouble;
         }
@@ -101,6 +123,16 @@ public class TechniqueAction extends BaseAction {
         sudoku.reRender();
     }
 
+    // Same placements and eliminations, whatever the explanation
+    public boolean hasSameEffect(TechniqueAction other) {
+        return Objects.equals(orEmpty(setValueMap), orEmpty(other.setValueMap))
+                && Objects.equals(orEmpty(removeCandidatesMap), orEmpty(other.removeCandidatesMap));
+    }
+
+    private static <K, V> Map<K, V> orEmpty(Map<K, V> map) {
+        return map == null ? Map.of() : map;
+    }
+
     public void clearColoring(ISudoku sudoku) {
         for (CellColoring cellColoring : cellColorings) {
             cellColoring.clear(sudoku);
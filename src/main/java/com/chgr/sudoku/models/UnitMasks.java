@@ -0,0 +1,99 @@
+package com.chgr.sudoku.models;
+
+import com.chgr.sudoku.utils.CandidateUtils;
+
+// Used digits of the units, the number of filled cells and, per unit and digit, the positions still holding that candidate.
+// Kept up to date by the cells on every value and candidate change.
+// Digits are counted per unit so duplicates can be reported and removed again.
+class UnitMasks {
+    private final SudokuGeometry geometry;
+    private final int size;
+    private final int[] counts;
+    private final int[] usedMasks;
+    private final int[] positionMasks;
+    private int filledCount;
+    private int conflictCount;
+
+    UnitMasks() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    UnitMasks(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.counts = new int[geometry.getUnitCount() * size];
+        this.usedMasks = new int[geometry.getUnitCount()];
+        this.positionMasks = new int[geometry.getUnitCount() * size];
+    }
+
+    SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    void updateValue(int index, int oldValue, int newValue) {
+        if (oldValue == newValue)
+            return;
+        if (oldValue != ICell.EMPTY) {
+            filledCount--;
+            for (int unit : geometry.getCellUnits()[index]) {
+                int count = --counts[unit * size + oldValue - 1];
+                if (count == 0)
+                    usedMasks[unit] &= ~CandidateUtils.bit(oldValue);
+                else if (count == 1)
+                    conflictCount--;
+            }
+        }
+        if (newValue != ICell.EMPTY) {
+            filledCount++;
+            for (int unit : geometry.getCellUnits()[index]) {
+                int count = ++counts[unit * size + newValue - 1];
+                if (count == 1)
+                    usedMasks[unit] |= CandidateUtils.bit(newValue);
+                else if (count == 2)
+                    conflictCount++;
+            }
+        }
+    }
+
+    void updateCandidates(int index, int oldMask, int newMask) {
+        int[] units = geometry.getCellUnits()[index];
+        int[] positions = geometry.getUnitPositions()[index];
+        for (int changed = oldMask ^ newMask; changed != 0; changed &= changed - 1) {
+            int digit = Integer.numberOfTrailingZeros(changed);
+            for (int i = 0; i < units.length; i++)
+                positionMasks[units[i] * size + digit] ^= 1 << positions[i];
+        }
+    }
+
+    int getPositionMask(int unit, int digit) {
+        return positionMasks[unit * size + digit - 1];
+    }
+
+    int getUsedMask(int unit) {
+        return usedMasks[unit];
+    }
+
+    int getFilledCount() {
+        return filledCount;
+    }
+
+    boolean hasConflicts() {
+        return conflictCount != 0;
+    }
+
+    // First unit holding a digit twice, -1 when there is none
+    int findConflict() {
+        if (conflictCount == 0)
+            return -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 1)
+                return i / size;
+        }
+        return -1;
+    }
+
+    int generateCandidateMask(int index) {
+        int[] units = geometry.getCellUnits()[index];
+        return geometry.getAllCandidates() & ~(usedMasks[units[0]] | usedMasks[units[1]] | usedMasks[units[2]]);
+    }
+}
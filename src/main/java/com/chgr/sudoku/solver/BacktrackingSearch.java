@@ -0,0 +1,166 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.ISudoku;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.function.BooleanSupplier;
+
+// Backtracking search as a state machine over an explicit stack, so it can stop anywhere and pick up again.
+// Every run call works within a SearchBudget and returns PAUSED when the budget is used up, the object itself is the continuation.
+// After SOLVED the next run continues with the next solution, EXHAUSTED means every solution has been reported.
+// Works on its own copy of the puzzle, so many searches can be interleaved by a scheduler, but each one is not thread safe.
+public class BacktrackingSearch {
+
+    public enum State {
+        // not finished yet, call run again to continue
+        PAUSED,
+        SOLVED,
+        EXHAUSTED,
+        CANCELLED
+    }
+
+    // Wall clock is checked every that many nodes
+    private static final int CLOCK_INTERVAL = 64;
+
+    private final FlatSudoku board;
+    private final SudokuGeometry geometry;
+    private final BooleanSupplier cancelled;
+    private final BranchingStrategy branching;
+    // Frame per depth: placements of the branch, how many there are, the next one to try and the board mark to roll back to
+    private final int[][] branches;
+    private final int[] branchCounts;
+    private final int[] nextBranch;
+    private final int[] marks;
+    // Work buffer handed to the branching strategy at every node
+    private final int[] scratch;
+    private int depth;
+    // true when the next step picks a new branch, false when it tries the next placement of the top frame
+    private boolean descending;
+    private State state;
+    private long nodes;
+    private int maxDepth;
+    private long backtracks;
+    private int solutions;
+
+    public BacktrackingSearch(ISudoku sudoku) {
+        this(sudoku, () -> false, Branching.MRV);
+    }
+
+    public BacktrackingSearch(ISudoku sudoku, BooleanSupplier cancelled, BranchingStrategy branching) {
+        this.board = new FlatSudoku(sudoku);
+        this.geometry = board.getGeometry();
+        this.cancelled = cancelled;
+        this.branching = branching;
+        // one frame per empty cell, plus the level where a full board is detected
+        int frames = geometry.getCellCount() + 1;
+        this.branches = new int[frames][geometry.getSize()];
+        this.branchCounts = new int[frames];
+        this.nextBranch = new int[frames];
+        this.marks = new int[frames];
+        this.scratch = new int[2 * geometry.getSize()];
+        this.descending = true;
+        if (board.initialValidation()) {
+            board.loadCandidates();
+            state = State.PAUSED;
+        } else {
+            state = State.EXHAUSTED;
+        }
+    }
+
+    public State run(SearchBudget budget) {
+        if (state == State.EXHAUSTED || state == State.CANCELLED)
+            return state;
+        // the board keeps its trail between runs, recording is only switched on while this run moves
+        boolean trailing = board.isTrailing();
+        try {
+            return state = step(budget);
+        } finally {
+            board.setTrailing(trailing);
+        }
+    }
+
+    private State step(SearchBudget budget) {
+        // saturates instead of overflowing for budgets close to Long.MAX_VALUE
+        long nodeLimit = nodes > Long.MAX_VALUE - budget.maxNodes() ? Long.MAX_VALUE : nodes + budget.maxNodes();
+        long start = System.nanoTime();
+        long steps = 0;
+        while (true) {
+            if (cancelled.getAsBoolean())
+                return State.CANCELLED;
+            if (nodes >= nodeLimit
+                    || ++steps % CLOCK_INTERVAL == 0 && System.nanoTime() - start >= budget.maxNanos())
+                return State.PAUSED;
+
+            if (descending) {
+                nodes++;
+                int count = branching.branch(board, branches[depth], scratch);
+                descending = false;
+                // if no empty cell
+                if (count == -1) {
+                    solutions++;
+                    return State.SOLVED;
+                }
+                branchCounts[depth] = count;
+                nextBranch[depth] = 0;
+                marks[depth] = board.mark();
+                depth++;
+                maxDepth = Math.max(maxDepth, depth);
+                continue;
+            }
+
+            if (depth == 0)
+                return State.EXHAUSTED;
+            int top = depth - 1;
+            board.rollback(marks[top]);
+            if (nextBranch[top] > 0)
+                backtracks++;
+            if (nextBranch[top] == branchCounts[top]) {
+                depth--;
+                continue;
+            }
+            int node = branches[top][nextBranch[top]++];
+            // rolling back to the first mark stops recording, marking again turns it back on at the same checkpoint
+            marks[top] = board.mark();
+            assignValue(node / geometry.getSize(), node % geometry.getSize() + 1);
+            descending = true;
+        }
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    public SearchStats getStats() {
+        return new SearchStats(nodes, maxDepth, backtracks, 0);
+    }
+
+    public int getSolutionCount() {
+        return solutions;
+    }
+
+    // Values of the board, the solution right after run returned SOLVED
+    public int[] getValues() {
+        int[] values = new int[geometry.getCellCount()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = board.getValue(i);
+        return values;
+    }
+
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    private void assignValue(int index, int num) {
+        // remove num from possible values of all peers
+        for (int peer : geometry.getPeers()[index])
+            board.removeCandidate(peer, num);
+
+        // fill the cell
+        board.setValue(index, num);
+    }
+}
@@ -2,82 +2,129 @@ package com.chgr.sudoku.solver;
 
 import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
-import com.chgr.sudoku.models.Pos;
-import javafx.concurrent.Task;
 
-import java.util.Comparator;
-import java.util.Set;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
 
-public class BacktrackingSolver extends Task<Boolean> {
+public class BacktrackingSolver implements SudokuSolver {
 
-    @Override
-    protected Boolean call() {
-        return solve();
-    }
+    // How long the built-in search runs between two reports of the board it is working on
+    private static final SearchBudget REPORT_INTERVAL = SearchBudget.ofTime(Duration.ofMillis(50));
 
-    private final ISudoku sudoku;
+    // Headless engine to hand the job to, null for the built-in search
+    private final EngineType engineType;
+    private SolverListener listener = SolverListener.NONE;
+    private BooleanSupplier cancelled = () -> false;
+    private BranchingStrategy branching = Branching.MRV;
+    // Restarts with randomised branching when set, replacing the branching strategy
+    private RestartPolicy restartPolicy;
 
-    public BacktrackingSolver(ISudoku sudoku) {
-        this.sudoku = sudoku;
+    public BacktrackingSolver() {
+        this(null);
     }
 
-    public boolean solve() {
-        if (sudoku.initialValidation()) {
-            sudoku.loadCandidates();
-            return scan();
-        }
-        return false;
+    public BacktrackingSolver(EngineType engineType) {
+        this.engineType = engineType;
     }
 
-    private boolean scan() {
-        sudoku.reRender();
-        ICell cell = sudoku.getEmptyCells().stream().min(Comparator.comparingInt(c -> c.getCandidates().size())).orElse(null);
-
-        // if no empty cell
-        if (cell == null)
-            return true;
-
-
-        for (int candidate : cell.getCandidates()) {
-            Set<Pos> affectedCells = assignValue(cell, candidate);
-
-            if (scan()) {
-                return true;
-            }
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
 
-            unassignValue(cell, candidate, affectedCells);
-        }
-        return false;
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
     }
 
-    private Set<Pos> assignValue(ICell cell, int num) {
-        // remove this cell from possibleValues as it is filled
-        cell.clearCandidates();
+    // Only used by the built-in search, engines branch their own way
+    public void setBranching(BranchingStrategy branching) {
+        this.branching = branching;
+    }
 
-        // remove num from possible values of all peers
-        Set<Pos> affectedPositions = sudoku.removeAffectedCandidates(cell.getX(), cell.getY(), num);
+    // Only used by solve with the built-in search, counting needs one systematic run
+    public void setRestartPolicy(RestartPolicy restartPolicy) {
+        this.restartPolicy = restartPolicy;
+    }
 
-        // fill the cell
-        cell.setValue(num);
+    // Fills the empty cells of the sudoku when it has a solution
+    @Override
+    public SolveResult solve(ISudoku sudoku) {
+        SolveResult result = engineType != null
+                ? SolveResult.of(createEngine(sudoku).solve(sudoku), cancelled.getAsBoolean(), List.of())
+                : search(sudoku);
+        if (result.isSolved())
+            listener.onProgress(sudoku.getGeometry().getCellCount(), sudoku.getGeometry().getCellCount());
+        return result;
+    }
 
-        return affectedPositions;
+    // Resumable search over a copy of the sudoku, for callers that schedule work in budgeted slices
+    public BacktrackingSearch start(ISudoku sudoku) {
+        return new BacktrackingSearch(sudoku, cancelled, branching);
     }
 
-    private void unassignValue(ICell cell, int num, Set<Pos> affectedPositions) {
-        // unfill the cell
-        cell.clear();
+    private SolveResult search(ISudoku sudoku) {
+        BacktrackingSearch search;
+        BacktrackingSearch.State state;
+        SearchStats stats = SearchStats.NONE;
+        if (restartPolicy == null) {
+            search = start(sudoku);
+            // the search works on a copy, so the listener is shown its board between slices
+            while ((state = search.run(REPORT_INTERVAL)) == BacktrackingSearch.State.PAUSED)
+                report(search);
+        } else {
+            RandomizedBranching randomized = new RandomizedBranching(restartPolicy.seed());
+            int restart = 0;
+            while (true) {
+                search = new BacktrackingSearch(sudoku, cancelled, randomized);
+                state = search.run(SearchBudget.ofNodes(restartPolicy.cutoff(restart++)));
+                if (state != BacktrackingSearch.State.PAUSED)
+                    break;
+                // the run used up its cutoff and is abandoned for a fresh one
+                stats = stats.plus(search.getStats()).withRestart();
+            }
+        }
+        SearchStats total = stats.plus(search.getStats());
+        if (state == BacktrackingSearch.State.SOLVED) {
+            int[] values = search.getValues();
+            for (int index = 0; index < values.length; index++) {
+                ICell cell = sudoku.getCell(index);
+                if (cell.getValue() == ICell.EMPTY)
+                    cell.setValue(values[index]);
+            }
+        }
+        return SolveResult.of(state == BacktrackingSearch.State.SOLVED, state == BacktrackingSearch.State.CANCELLED, List.of(), total);
+    }
 
-        // add num back to possible values of all affected cells
-        for (Pos affectedPos : affectedPositions) {
-            ICell affectedCell = sudoku.getCell(affectedPos.x(), affectedPos.y());
-            affectedCell.addCandidate(num);
+    private void report(BacktrackingSearch search) {
+        int[] values = search.getValues();
+        int filled = 0;
+        for (int value : values) {
+            if (value != ICell.EMPTY)
+                filled++;
         }
+        listener.onSearch(values);
+        listener.onProgress(filled, values.length);
+    }
 
-        // clear the list of affected cells
-        affectedPositions.clear();
+    // Counts the solutions of the sudoku without changing it, stopping at limit (2 is enough to check uniqueness)
+    public SolutionCount countSolutions(ISudoku sudoku, int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        if (engineType != null)
+            return createEngine(sudoku).countSolutions(sudoku, limit);
+        List<int[]> solutions = new ArrayList<>();
+        BacktrackingSearch search = start(sudoku);
+        while (solutions.size() < limit && search.run(SearchBudget.UNLIMITED) == BacktrackingSearch.State.SOLVED)
+            solutions.add(search.getValues());
+        return new SolutionCount(solutions.size(), limit, solutions);
+    }
 
-        // Repopulate the possible values for the unassigned cell
-        Set<Integer> candidates = sudoku.generateCandidates(cell.getX(), cell.getY());
-        cell.addCandidates(candidates);
+    private SudokuEngine createEngine(ISudoku sudoku) {
+        SudokuEngine engine = engineType.create(sudoku.getGeometry());
+        engine.setCancellation(cancelled);
+        return engine;
     }
 }
@@ -0,0 +1,205 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Headless backtracking engine working directly on candidate masks.
+// Every search level owns a preallocated copy of the board, so branching is an array copy and backtracking is free.
+// Naked and hidden singles are propagated at every node and branching picks the cell with the fewest candidates.
+// An instance allocates nothing per node or per puzzle and can be reused, but is not thread safe.
+public class BitboardSolver implements SudokuEngine {
+
+    private final SudokuGeometry geometry;
+    private final int cellCount;
+    private final int allCandidates;
+    private final int[][] units;
+    private final int[][] peers;
+    // values[level] and candidates[level] are the board at each search depth
+    private final int[][] values;
+    private final int[][] candidates;
+    // Cells reduced to a single candidate, waiting to be assigned
+    private final int[] queue;
+    private int queueSize;
+    private int[] solution;
+    // Counting mode: solutions found so far and where to stop, found is null when solving
+    private List<int[]> found;
+    private int limit;
+    private BooleanSupplier cancelled = () -> false;
+
+    public BitboardSolver() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    public BitboardSolver(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        this.cellCount = geometry.getCellCount();
+        this.allCandidates = geometry.getAllCandidates();
+        this.units = geometry.getUnits();
+        this.peers = geometry.getPeers();
+        this.values = new int[cellCount + 1][cellCount];
+        this.candidates = new int[cellCount + 1][cellCount];
+        this.queue = new int[cellCount];
+    }
+
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        if (!load(grid))
+            return false;
+        solution = grid;
+        found = null;
+        limit = 1;
+        return search(0);
+    }
+
+    @Override
+    public SolutionCount countSolutions(int[] grid, int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        List<int[]> solutions = new ArrayList<>();
+        if (load(grid)) {
+            found = solutions;
+            this.limit = limit;
+            search(0);
+            found = null;
+        }
+        return new SolutionCount(solutions.size(), limit, solutions);
+    }
+
+    // Sets up the first level from the givens, false when they already contradict each other
+    private boolean load(int[] grid) {
+        if (grid.length != cellCount)
+            throw new IllegalArgumentException("Expected " + cellCount + " cells but got " + grid.length);
+        int[] vals = values[0];
+        int[] cand = candidates[0];
+        Arrays.fill(vals, ICell.EMPTY);
+        Arrays.fill(cand, allCandidates);
+        queueSize = 0;
+        for (int i = 0; i < cellCount; i++) {
+            if (grid[i] != ICell.EMPTY && (grid[i] > geometry.getSize() || !assign(vals, cand, i, grid[i])))
+                return false;
+        }
+        return propagate(vals, cand);
+    }
+
+    private boolean search(int level) {
+        if (cancelled.getAsBoolean())
+            return false;
+        int[] vals = values[level];
+        int[] cand = candidates[level];
+        int index = -1;
+        int minCount = Integer.MAX_VALUE;
+        for (int i = 0; i < cellCount; i++) {
+            if (vals[i] != ICell.EMPTY)
+                continue;
+            int count = Integer.bitCount(cand[i]);
+            if (count < minCount) {
+                index = i;
+                minCount = count;
+                if (count <= 2)
+                    break;
+            }
+        }
+
+        // if no empty cell
+        if (index == -1) {
+            if (found == null) {
+                System.arraycopy(vals, 0, solution, 0, cellCount);
+                return true;
+            }
+            found.add(vals.clone());
+            return found.size() >= limit;
+        }
+
+        int[] nextVals = values[level + 1];
+        int[] nextCand = candidates[level + 1];
+        for (int mask = cand[index]; mask != 0; mask &= mask - 1) {
+            System.arraycopy(vals, 0, nextVals, 0, cellCount);
+            System.arraycopy(cand, 0, nextCand, 0, cellCount);
+            queueSize = 0;
+            if (assign(nextVals, nextCand, index, Integer.numberOfTrailingZeros(mask) + 1)
+                    && propagate(nextVals, nextCand)
+                    && search(level + 1))
+                return true;
+        }
+        return false;
+    }
+
+    // Places the digit and removes it from the peers, queueing peers left with a single candidate
+    private boolean assign(int[] vals, int[] cand, int index, int digit) {
+        int bit = 1 << (digit - 1);
+        if ((cand[index] & bit) == 0)
+            return false;
+        vals[index] = digit;
+        cand[index] = 0;
+        for (int peer : peers[index]) {
+            int mask = cand[peer];
+            if ((mask & bit) == 0)
+                continue;
+            mask &= ~bit;
+            cand[peer] = mask;
+            if (mask == 0)
+                return false;
+            if ((mask & (mask - 1)) == 0)
+                queue[queueSize++] = peer;
+        }
+        return true;
+    }
+
+    private boolean propagate(int[] vals, int[] cand) {
+        boolean changed = true;
+        while (changed) {
+            // naked singles
+            while (queueSize > 0) {
+                int index = queue[--queueSize];
+                if (vals[index] != ICell.EMPTY)
+                    continue;
+                if (cand[index] == 0 || !assign(vals, cand, index, Integer.numberOfTrailingZeros(cand[index]) + 1))
+                    return false;
+            }
+            // hidden singles, a digit with one place left in a unit
+            changed = false;
+            for (int[] unit : units) {
+                int once = 0, twice = 0, placed = 0;
+                for (int index : unit) {
+                    int mask = cand[index];
+                    twice |= once & mask;
+                    once |= mask;
+                    if (vals[index] != ICell.EMPTY)
+                        placed |= 1 << (vals[index] - 1);
+                }
+                if ((once | placed) != allCandidates)
+                    return false;
+                int singles = once & ~twice & ~placed;
+                if (singles == 0)
+                    continue;
+                for (; singles != 0; singles &= singles - 1) {
+                    int bit = singles & -singles;
+                    for (int index : unit) {
+                        if ((cand[index] & bit) != 0) {
+                            if (!assign(vals, cand, index, Integer.numberOfTrailingZeros(bit) + 1))
+                                return false;
+                            break;
+                        }
+                    }
+                }
+                changed = true;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,153 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.Arrays;
+
+// Built-in branching strategies, all stateless and safe to share between searches.
+// Sort keys and digit counts go into the scratch buffer of the search, so branching does not allocate.
+public enum Branching implements BranchingStrategy {
+
+    // Cell with the fewest candidates, first cell on ties, digits in ascending order
+    MRV {
+        @Override
+        public int branch(FlatSudoku board, int[] branches, int[] scratch) {
+            int index = fewestCandidates(board, null);
+            return index == -1 ? -1 : cellBranches(board, index, branches);
+        }
+    },
+    // Like MRV, ties go to the cell whose candidates have the fewest places left on the whole board,
+    // and the digits with the most places left are tried first
+    MRV_DIGIT_FREQUENCY {
+        @Override
+        public int branch(FlatSudoku board, int[] branches, int[] scratch) {
+            // digit counts in the first half of scratch, sort keys in the second
+            int size = board.getGeometry().getSize();
+            digitFrequency(board, scratch);
+            int index = fewestCandidates(board, scratch);
+            if (index == -1)
+                return -1;
+            int count = cellBranches(board, index, branches);
+            for (int i = 0; i < count; i++)
+                scratch[size + i] = -scratch[branches[i] % size];
+            sortByKey(branches, scratch, size, count);
+            return count;
+        }
+    },
+    // MRV cell, digits ordered by how few empty peers they would take a candidate from
+    LEAST_CONSTRAINING_VALUE {
+        @Override
+        public int branch(FlatSudoku board, int[] branches, int[] scratch) {
+            int index = fewestCandidates(board, null);
+            if (index == -1)
+                return -1;
+            int count = cellBranches(board, index, branches);
+            int size = board.getGeometry().getSize();
+            Arrays.fill(scratch, 0, count, 0);
+            for (int peer : board.getGeometry().getPeers()[index]) {
+                int mask = board.getCandidateMask(peer);
+                for (int i = 0; i < count; i++)
+                    scratch[i] += mask >>> (branches[i] % size) & 1;
+            }
+            sortByKey(branches, scratch, 0, count);
+            return count;
+        }
+    },
+    // Digit with the fewest positions left in a unit, branching over those positions,
+    // unless some cell has even fewer candidates
+    FEWEST_POSITIONS {
+        @Override
+        public int branch(FlatSudoku board, int[] branches, int[] scratch) {
+            int index = fewestCandidates(board, null);
+            if (index == -1)
+                return -1;
+            SudokuGeometry geometry = board.getGeometry();
+            int size = geometry.getSize();
+            int cellCount = Integer.bitCount(board.getCandidateMask(index));
+            int bestUnit = -1, bestDigit = 0, bestCount = cellCount;
+            for (int unit = 0; unit < geometry.getUnitCount() && bestCount > 1; unit++) {
+                for (int missing = geometry.getAllCandidates() & ~board.getUsedMask(unit); missing != 0; missing &= missing - 1) {
+                    int digit = Integer.numberOfTrailingZeros(missing) + 1;
+                    int count = Integer.bitCount(board.getPositionMask(unit, digit));
+                    if (count < bestCount) {
+                        bestUnit = unit;
+                        bestDigit = digit;
+                        bestCount = count;
+                    }
+                }
+            }
+            if (bestUnit == -1)
+                return cellBranches(board, index, branches);
+            int count = 0;
+            int[] cells = geometry.getUnits()[bestUnit];
+            for (int positions = board.getPositionMask(bestUnit, bestDigit); positions != 0; positions &= positions - 1)
+                branches[count++] = cells[Integer.numberOfTrailingZeros(positions)] * size + bestDigit - 1;
+            return count;
+        }
+    };
+
+    // Empty cell with the fewest candidates, ties broken by the lowest digit frequency sum when given, -1 when the board is full
+    private static int fewestCandidates(FlatSudoku board, int[] frequency) {
+        int index = -1;
+        int minCount = Integer.MAX_VALUE;
+        int minFrequency = Integer.MAX_VALUE;
+        for (int i = 0; i < board.getGeometry().getCellCount(); i++) {
+            if (board.getValue(i) != ICell.EMPTY)
+                continue;
+            int mask = board.getCandidateMask(i);
+            int count = Integer.bitCount(mask);
+            if (count > minCount)
+                continue;
+            if (frequency == null) {
+                if (count < minCount) {
+                    index = i;
+                    minCount = count;
+                }
+                continue;
+            }
+            int sum = 0;
+            for (; mask != 0; mask &= mask - 1)
+                sum += frequency[Integer.numberOfTrailingZeros(mask)];
+            if (count < minCount || sum < minFrequency) {
+                index = i;
+                minCount = count;
+                minFrequency = sum;
+            }
+        }
+        return index;
+    }
+
+    private static int cellBranches(FlatSudoku board, int index, int[] branches) {
+        int size = board.getGeometry().getSize();
+        int count = 0;
+        for (int mask = board.getCandidateMask(index); mask != 0; mask &= mask - 1)
+            branches[count++] = index * size + Integer.numberOfTrailingZeros(mask);
+        return count;
+    }
+
+    // Empty cells still holding each digit, written to frequency at digit - 1
+    private static void digitFrequency(FlatSudoku board, int[] frequency) {
+        SudokuGeometry geometry = board.getGeometry();
+        Arrays.fill(frequency, 0, geometry.getSize(), 0);
+        for (int row = 0; row < geometry.getSize(); row++) {
+            for (int digit = 1; digit <= geometry.getSize(); digit++)
+                frequency[digit - 1] += Integer.bitCount(board.getPositionMask(geometry.getRowOffset() + row, digit));
+        }
+    }
+
+    // Stable insertion sort of the first count branches by ascending key, the key of branch i is keys[offset + i]
+    private static void sortByKey(int[] branches, int[] keys, int offset, int count) {
+        for (int i = 1; i < count; i++) {
+            int branch = branches[i], key = keys[offset + i];
+            int j = i - 1;
+            for (; j >= 0 && keys[offset + j] > key; j--) {
+                branches[j + 1] = branches[j];
+                keys[offset + j + 1] = keys[offset + j];
+            }
+            branches[j + 1] = branch;
+            keys[offset + j + 1] = key;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+
+// Decides where BacktrackingSearch branches next, see Branching for the built-in strategies.
+// A branch is a list of placements (node = index * size + digit - 1) of which exactly one holds in any solution,
+// like the candidates of one cell or the positions of one digit in a unit. They are tried in the given order.
+public interface BranchingStrategy {
+
+    // Writes the placements into branches (room for size entries) and returns their number,
+    // 0 when the board has reached a dead end and -1 when it is full.
+    // scratch is a work buffer of 2 * size ints reused by the search for every node, its contents are undefined on entry.
+    int branch(FlatSudoku board, int[] branches, int[] scratch);
+}
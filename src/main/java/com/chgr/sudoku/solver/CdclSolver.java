@@ -0,0 +1,606 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Conflict-driven clause learning engine for large, sparse boards, a small built-in SAT core without external dependencies.
+// Variable v = index * size + digit - 1 is true when the cell holds the digit, literals are 2 * v (true) and 2 * v + 1 (false).
+// "At most one digit per cell" and "at most one place per digit and unit" are propagated directly from the peers,
+// "at least one" for every cell and unit/digit pair is stored as clauses and propagated with two watched literals.
+// Every assignment remembers its reason, conflicts are analysed to the first unique implication point, the learned
+// nogood is added and the search backjumps non-chronologically. Decisions place the most active digit (VSIDS),
+// restarts follow the Luby sequence over conflicts and learned clauses with many decision levels are dropped regularly.
+public class CdclSolver implements SudokuEngine {
+
+    // Reasons: clause index when >= 0, otherwise a decision, a given or a peer conflict
+    private static final int NO_REASON = -1;
+    // Peer reasons store the other, false literal of the binary clause as -2 - literal
+    private static final int PEER_REASON = -2;
+    private static final int NO_CONFLICT = -1;
+    private static final int BINARY_CONFLICT = -2;
+    private static final double VAR_DECAY = 0.95;
+    private static final RestartPolicy RESTARTS = RestartPolicy.luby(100, 0);
+    private static final int FIRST_REDUCE = 2000;
+
+    private final SudokuGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int varCount;
+    private final int[][] peers;
+
+    // Clause database, the "at least one" clauses first and learned ones after them, compacted when learned ones are dropped
+    private final List<int[]> clauses = new ArrayList<>();
+    private final int staticCount;
+    private int[] lbd = new int[64];
+    // Clause indices watching each literal
+    private final int[][] watches;
+    private final int[] watchSizes;
+
+    // Assignment: 1 true, -1 false, 0 unassigned
+    private final int[] assigns;
+    private final int[] levels;
+    private final int[] reasons;
+    private final int[] trail;
+    private int trailSize;
+    private int propagated;
+    private final int[] levelStarts;
+    private int level;
+
+    // VSIDS activity with a binary max heap of the unassigned candidates
+    private final double[] activity;
+    private double varIncrement = 1;
+    private final int[] heap;
+    private final int[] heapIndex;
+    private int heapSize;
+
+    // Scratch space of the conflict analysis
+    private final boolean[] seen;
+    private final int[] learnt;
+    private int learntSize;
+    private final int[] minimized;
+    private final int[] levelSeen;
+    private int levelStamp;
+    private final int[] conflictLits = new int[2];
+
+    private BooleanSupplier cancelled = () -> false;
+
+    public CdclSolver() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    public CdclSolver(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        this.varCount = cellCount * size;
+        this.peers = geometry.getPeers();
+        this.watches = new int[2 * varCount][];
+        this.watchSizes = new int[2 * varCount];
+        for (int i = 0; i < watches.length; i++)
+            watches[i] = new int[4];
+        this.assigns = new int[varCount];
+        this.levels = new int[varCount];
+        this.reasons = new int[varCount];
+        this.trail = new int[varCount];
+        this.levelStarts = new int[varCount + 1];
+        this.activity = new double[varCount];
+        this.heap = new int[varCount];
+        this.heapIndex = new int[varCount];
+        this.seen = new boolean[varCount];
+        this.learnt = new int[varCount];
+        this.minimized = new int[varCount];
+        this.levelSeen = new int[varCount + 1];
+
+        for (int index = 0; index < cellCount; index++) {
+            int[] clause = new int[size];
+            for (int d = 0; d < size; d++)
+                clause[d] = 2 * (index * size + d);
+            clauses.add(clause);
+        }
+        for (int[] unit : geometry.getUnits()) {
+            for (int d = 0; d < size; d++) {
+                int[] clause = new int[size];
+                for (int k = 0; k < size; k++)
+                    clause[k] = 2 * (unit[k] * size + d);
+                clauses.add(clause);
+            }
+        }
+        this.staticCount = clauses.size();
+    }
+
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        SolutionCount count = countSolutions(grid, 1);
+        if (!count.hasSolution())
+            return false;
+        System.arraycopy(count.solutions().getFirst(), 0, grid, 0, cellCount);
+        return true;
+    }
+
+    @Override
+    public SolutionCount countSolutions(int[] grid, int limit) {
+        if (grid.length != cellCount)
+            throw new IllegalArgumentException("Expected " + cellCount + " cells but got " + grid.length);
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        List<int[]> solutions = new ArrayList<>();
+        if (!reset(grid))
+            return new SolutionCount(0, limit, solutions);
+        while (solutions.size() < limit && search()) {
+            int[] solution = new int[cellCount];
+            for (int v = 0; v < varCount; v++) {
+                if (assigns[v] == 1)
+                    solution[v / size] = v % size + 1;
+            }
+            solutions.add(solution);
+            if (solutions.size() < limit && !block(grid, solution))
+                break;
+        }
+        return new SolutionCount(solutions.size(), limit, solutions);
+    }
+
+    // Clears the previous puzzle and assigns the givens at level 0, false when they already conflict
+    private boolean reset(int[] grid) {
+        clauses.subList(staticCount, clauses.size()).clear();
+        Arrays.fill(watchSizes, 0);
+        for (int i = 0; i < staticCount; i++)
+            watch(i, clauses.get(i));
+        Arrays.fill(assigns, 0);
+        Arrays.fill(activity, 0);
+        varIncrement = 1;
+        trailSize = 0;
+        propagated = 0;
+        level = 0;
+        heapSize = 0;
+        for (int v = 0; v < varCount; v++)
+            heapInsert(v);
+
+        for (int index = 0; index < cellCount; index++) {
+            int value = grid[index];
+            if (value == ICell.EMPTY)
+                continue;
+            if (value < 0 || value > size)
+                return false;
+            int lit = 2 * (index * size + value - 1);
+            if (litValue(lit) == -1)
+                return false;
+            if (litValue(lit) == 0)
+                assign(lit, NO_REASON);
+        }
+        return propagate() == NO_CONFLICT;
+    }
+
+    // Runs until every variable is assigned without conflict (true) or the puzzle has no further solution (false)
+    private boolean search() {
+        int restart = 0;
+        long conflictBudget = RESTARTS.cutoff(restart);
+        long conflicts = 0;
+        long nextReduce = FIRST_REDUCE;
+        while (true) {
+            if (cancelled.getAsBoolean())
+                return false;
+            int conflict = propagate();
+            if (conflict != NO_CONFLICT) {
+                if (level == 0)
+                    return false;
+                conflicts++;
+                int backjumpLevel = analyze(conflict);
+                learn(backjumpLevel);
+                varIncrement /= VAR_DECAY;
+                if (varIncrement > 1e100)
+                    rescaleActivity();
+                continue;
+            }
+
+            if (conflicts >= conflictBudget) {
+                conflicts = 0;
+                conflictBudget = RESTARTS.cutoff(++restart);
+                cancelUntil(0);
+                continue;
+            }
+            if (clauses.size() - staticCount >= nextReduce) {
+                reduceLearnt();
+                nextReduce += FIRST_REDUCE / 2;
+            }
+
+            int next = pickBranchVar();
+            if (next == -1)
+                return true;
+            levelStarts[level++] = trailSize;
+            assign(2 * next, NO_REASON);
+        }
+    }
+
+    // Adds the nogood of the found solution so the next search has to find a different one, false when none can exist
+    private boolean block(int[] grid, int[] solution) {
+        cancelUntil(0);
+        int[] clause = new int[cellCount];
+        int length = 0;
+        for (int index = 0; index < cellCount; index++) {
+            if (grid[index] != ICell.EMPTY)
+                continue;
+            int lit = 2 * (index * size + solution[index] - 1) + 1;
+            if (litValue(lit) == 1)
+                return true;
+            if (litValue(lit) == 0)
+                clause[length++] = lit;
+        }
+        if (length == 0)
+            return false;
+        if (length == 1) {
+            assign(clause[0], NO_REASON);
+            return true;
+        }
+        // block distance 0 keeps the clause out of every reduction
+        addClause(Arrays.copyOf(clause, length), 0);
+        return true;
+    }
+
+    private int propagate() {
+        while (propagated < trailSize) {
+            int lit = trail[propagated++];
+            if ((lit & 1) == 0 && !propagatePeers(lit >> 1))
+                return BINARY_CONFLICT;
+            int conflict = propagateWatches(lit ^ 1);
+            if (conflict != NO_CONFLICT)
+                return conflict;
+        }
+        return NO_CONFLICT;
+    }
+
+    // A placed digit excludes the other digits of its cell and the digit from every peer
+    private boolean propagatePeers(int v) {
+        int index = v / size;
+        int digit = v % size;
+        int cause = 2 * v + 1;
+        for (int d = 0; d < size; d++) {
+            if (d != digit && !exclude(index * size + d, cause))
+                return false;
+        }
+        for (int peer : peers[index]) {
+            if (!exclude(peer * size + digit, cause))
+                return false;
+        }
+        return true;
+    }
+
+    private boolean exclude(int v, int cause) {
+        int lit = 2 * v + 1;
+        int value = litValue(lit);
+        if (value == 0) {
+            assign(lit, PEER_REASON - cause);
+        } else if (value == -1) {
+            conflictLits[0] = lit;
+            conflictLits[1] = cause;
+            return false;
+        }
+        return true;
+    }
+
+    // Visits the clauses watching the literal that just became false
+    private int propagateWatches(int falseLit) {
+        int[] list = watches[falseLit];
+        int count = watchSizes[falseLit];
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int clauseIndex = list[i];
+            int[] clause = clauses.get(clauseIndex);
+            if (clause[0] == falseLit) {
+                clause[0] = clause[1];
+                clause[1] = falseLit;
+            }
+            if (litValue(clause[0]) == 1) {
+                list[kept++] = clauseIndex;
+                continue;
+            }
+            boolean moved = false;
+            for (int k = 2; k < clause.length; k++) {
+                if (litValue(clause[k]) != -1) {
+                    clause[1] = clause[k];
+                    clause[k] = falseLit;
+                    addWatch(clause[1], clauseIndex);
+                    moved = true;
+                    break;
+                }
+            }
+            if (moved)
+                continue;
+            list[kept++] = clauseIndex;
+            if (litValue(clause[0]) == -1) {
+                for (i++; i < count; i++)
+                    list[kept++] = list[i];
+                watchSizes[falseLit] = kept;
+                return clauseIndex;
+            }
+            assign(clause[0], clauseIndex);
+        }
+        watchSizes[falseLit] = kept;
+        return NO_CONFLICT;
+    }
+
+    // First unique implication point analysis, leaves the clause in learnt and returns the level to jump back to
+    private int analyze(int conflict) {
+        int[] lits = conflict == BINARY_CONFLICT ? conflictLits : clauses.get(conflict);
+        int length = conflict == BINARY_CONFLICT ? 2 : lits.length;
+        learntSize = 1;
+        int pathCount = 0;
+        int lit = -1;
+        int index = trailSize - 1;
+        do {
+            for (int j = lit == -1 ? 0 : 1; j < length; j++) {
+                int v = lits[j] >> 1;
+                if (seen[v] || levels[v] == 0)
+                    continue;
+                seen[v] = true;
+                bumpActivity(v);
+                if (levels[v] >= level)
+                    pathCount++;
+                else
+                    learnt[learntSize++] = lits[j];
+            }
+            while (!seen[trail[index] >> 1])
+                index--;
+            lit = trail[index--];
+            int v = lit >> 1;
+            seen[v] = false;
+            pathCount--;
+            if (pathCount > 0) {
+                int reason = reasons[v];
+                if (reason >= 0) {
+                    lits = clauses.get(reason);
+                    length = lits.length;
+                } else {
+                    conflictLits[0] = lit;
+                    conflictLits[1] = PEER_REASON - reason;
+                    lits = conflictLits;
+                    length = 2;
+                }
+            }
+        } while (pathCount > 0);
+        learnt[0] = lit ^ 1;
+
+        // drop literals implied by other literals of the clause
+        int kept = 1;
+        for (int i = 1; i < learntSize; i++) {
+            if (!isRedundant(learnt[i] >> 1))
+                minimized[kept++] = learnt[i];
+        }
+        for (int i = 1; i < learntSize; i++)
+            seen[learnt[i] >> 1] = false;
+        System.arraycopy(minimized, 1, learnt, 1, kept - 1);
+        learntSize = kept;
+
+        int backjumpLevel = 0;
+        for (int i = 1; i < learntSize; i++) {
+            if (levels[learnt[i] >> 1] > backjumpLevel) {
+                backjumpLevel = levels[learnt[i] >> 1];
+                int swap = learnt[1];
+                learnt[1] = learnt[i];
+                learnt[i] = swap;
+            }
+        }
+        return backjumpLevel;
+    }
+
+    // A literal is redundant when all other literals of its reason are already in the clause or fixed at level 0
+    private boolean isRedundant(int v) {
+        int reason = reasons[v];
+        if (reason == NO_REASON)
+            return false;
+        if (reason < NO_REASON) {
+            int other = (PEER_REASON - reason) >> 1;
+            return seen[other] || levels[other] == 0;
+        }
+        int[] clause = clauses.get(reason);
+        for (int k = 1; k < clause.length; k++) {
+            int other = clause[k] >> 1;
+            if (!seen[other] && levels[other] != 0)
+                return false;
+        }
+        return true;
+    }
+
+    private void learn(int backjumpLevel) {
+        cancelUntil(backjumpLevel);
+        if (learntSize == 1) {
+            assign(learnt[0], NO_REASON);
+            return;
+        }
+        int[] clause = Arrays.copyOf(learnt, learntSize);
+        levelStamp++;
+        int distinct = 0;
+        for (int lit : clause) {
+            if (levelSeen[levels[lit >> 1]] != levelStamp) {
+                levelSeen[levels[lit >> 1]] = levelStamp;
+                distinct++;
+            }
+        }
+        int clauseIndex = addClause(clause, distinct);
+        assign(clause[0], clauseIndex);
+    }
+
+    private int addClause(int[] clause, int blockDistance) {
+        int clauseIndex = clauses.size();
+        clauses.add(clause);
+        if (clauseIndex >= staticCount + lbd.length)
+            lbd = Arrays.copyOf(lbd, lbd.length * 2);
+        lbd[clauseIndex - staticCount] = blockDistance;
+        watch(clauseIndex, clause);
+        return clauseIndex;
+    }
+
+    // Drops the worse half of the learned clauses, those spanning the most decision levels and the older one on ties.
+    // Reasons of current assignments and glue clauses (two levels or fewer) are kept, then the database is compacted.
+    private void reduceLearnt() {
+        int learntCount = clauses.size() - staticCount;
+        // most levels first, lower index first on ties
+        long[] order = new long[learntCount];
+        int candidates = 0;
+        for (int i = 0; i < learntCount; i++) {
+            if (lbd[i] <= 2 || isLocked(staticCount + i))
+                continue;
+            order[candidates++] = (long) (Integer.MAX_VALUE - lbd[i]) << 32 | i;
+        }
+        Arrays.sort(order, 0, candidates);
+        boolean[] dropped = new boolean[learntCount];
+        for (int k = 0; k < Math.min(candidates, learntCount / 2); k++)
+            dropped[(int) order[k]] = true;
+
+        // new index of every learned clause, -1 once dropped
+        int[] moved = new int[learntCount];
+        int kept = 0;
+        for (int i = 0; i < learntCount; i++) {
+            if (dropped[i]) {
+                moved[i] = -1;
+                continue;
+            }
+            moved[i] = staticCount + kept;
+            clauses.set(staticCount + kept, clauses.get(staticCount + i));
+            lbd[kept++] = lbd[i];
+        }
+        clauses.subList(staticCount + kept, clauses.size()).clear();
+        for (int v = 0; v < varCount; v++) {
+            if (reasons[v] >= staticCount)
+                reasons[v] = assigns[v] != 0 ? moved[reasons[v] - staticCount] : NO_REASON;
+        }
+        for (int lit = 0; lit < watches.length; lit++) {
+            int[] list = watches[lit];
+            int count = 0;
+            for (int i = 0; i < watchSizes[lit]; i++) {
+                int clauseIndex = list[i] < staticCount ? list[i] : moved[list[i] - staticCount];
+                if (clauseIndex != -1)
+                    list[count++] = clauseIndex;
+            }
+            watchSizes[lit] = count;
+        }
+    }
+
+    // The clause is the reason of a current assignment, which is always its first literal
+    private boolean isLocked(int clauseIndex) {
+        int v = clauses.get(clauseIndex)[0] >> 1;
+        return assigns[v] != 0 && reasons[v] == clauseIndex;
+    }
+
+    private void watch(int clauseIndex, int[] clause) {
+        addWatch(clause[0], clauseIndex);
+        addWatch(clause[1], clauseIndex);
+    }
+
+    private void addWatch(int lit, int clauseIndex) {
+        if (watchSizes[lit] == watches[lit].length)
+            watches[lit] = Arrays.copyOf(watches[lit], watches[lit].length * 2);
+        watches[lit][watchSizes[lit]++] = clauseIndex;
+    }
+
+    private int litValue(int lit) {
+        int value = assigns[lit >> 1];
+        return (lit & 1) == 0 ? value : -value;
+    }
+
+    private void assign(int lit, int reason) {
+        int v = lit >> 1;
+        assigns[v] = (lit & 1) == 0 ? 1 : -1;
+        levels[v] = level;
+        reasons[v] = reason;
+        trail[trailSize++] = lit;
+    }
+
+    private void cancelUntil(int target) {
+        if (level <= target)
+            return;
+        for (int i = trailSize - 1; i >= levelStarts[target]; i--) {
+            int v = trail[i] >> 1;
+            assigns[v] = 0;
+            if (heapIndex[v] == -1)
+                heapInsert(v);
+        }
+        trailSize = levelStarts[target];
+        propagated = trailSize;
+        level = target;
+    }
+
+    private int pickBranchVar() {
+        while (heapSize > 0) {
+            int v = heapRemoveMax();
+            if (assigns[v] == 0)
+                return v;
+        }
+        return -1;
+    }
+
+    private void bumpActivity(int v) {
+        activity[v] += varIncrement;
+        if (heapIndex[v] != -1)
+            heapUp(heapIndex[v]);
+    }
+
+    private void rescaleActivity() {
+        for (int v = 0; v < varCount; v++)
+            activity[v] *= 1e-100;
+        varIncrement *= 1e-100;
+    }
+
+    private void heapInsert(int v) {
+        heap[heapSize] = v;
+        heapIndex[v] = heapSize;
+        heapUp(heapSize++);
+    }
+
+    private int heapRemoveMax() {
+        int top = heap[0];
+        heapIndex[top] = -1;
+        if (--heapSize > 0) {
+            heap[0] = heap[heapSize];
+            heapIndex[heap[0]] = 0;
+            heapDown(0);
+        }
+        return top;
+    }
+
+    private void heapUp(int i) {
+        int v = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (activity[heap[parent]] >= activity[v])
+                break;
+            heap[i] = heap[parent];
+            heapIndex[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+
+    private void heapDown(int i) {
+        int v = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && activity[heap[child + 1]] > activity[heap[child]])
+                child++;
+            if (activity[heap[child]] <= activity[v])
+                break;
+            heap[i] = heap[child];
+            heapIndex[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = v;
+        heapIndex[v] = i;
+    }
+}
@@ -0,0 +1,245 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+// Exact cover solver (Knuth's Algorithm X with Dancing Links).
+// Rows are the size^3 placements (cell, digit), columns the 4 * size^2 constraints: each cell filled once,
+// each digit once per row, column and square. For 9x9 that is the 729 x 324 matrix.
+// Nodes live in parallel int arrays built once per instance, the matrix is fully restored after every solve.
+public class DancingLinksSolver implements SudokuEngine {
+
+    private static final int ROOT = 0;
+
+    private final SudokuGeometry geometry;
+    private final int size;
+    private final int cellCount;
+    private final int[] left;
+    private final int[] right;
+    private final int[] up;
+    private final int[] down;
+    private final int[] column;
+    // Placement of a node, index * size + digit - 1
+    private final int[] row;
+    // Column header nodes hold the number of rows left in the column
+    private final int[] columnSize;
+    // First node of every placement
+    private final int[] rowStart;
+    // Placements chosen so far, givens first
+    private final int[] chosen;
+    private int[] solution;
+    // Counting mode: solutions found so far and where to stop, found is null when solving
+    private List<int[]> found;
+    private int limit;
+    private BooleanSupplier cancelled = () -> false;
+
+    public DancingLinksSolver() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    public DancingLinksSolver(SudokuGeometry geometry) {
+        this.geometry = geometry;
+        this.size = geometry.getSize();
+        this.cellCount = geometry.getCellCount();
+        int columns = 4 * cellCount;
+        int rows = cellCount * size;
+        int nodes = 1 + columns + 4 * rows;
+        left = new int[nodes];
+        right = new int[nodes];
+        up = new int[nodes];
+        down = new int[nodes];
+        column = new int[nodes];
+        row = new int[nodes];
+        columnSize = new int[1 + columns];
+        rowStart = new int[rows];
+        chosen = new int[cellCount];
+
+        for (int c = 0; c <= columns; c++) {
+            left[c] = c == 0 ? columns : c - 1;
+            right[c] = c == columns ? 0 : c + 1;
+            up[c] = c;
+            down[c] = c;
+            column[c] = c;
+        }
+        int node = columns + 1;
+        for (int index = 0; index < cellCount; index++) {
+            int x = geometry.x(index);
+            int y = geometry.y(index);
+            int square = geometry.square(x, y);
+            for (int d = 0; d < size; d++) {
+                int placement = index * size + d;
+                rowStart[placement] = node;
+                int[] constraints = {
+                        1 + index,
+                        1 + cellCount + y * size + d,
+                        1 + 2 * cellCount + x * size + d,
+                        1 + 3 * cellCount + square * size + d
+                };
+                for (int k = 0; k < 4; k++) {
+                    int c = constraints[k];
+                    column[node] = c;
+                    row[node] = placement;
+                    up[node] = up[c];
+                    down[node] = c;
+                    down[up[c]] = node;
+                    up[c] = node;
+                    columnSize[c]++;
+                    left[node] = k == 0 ? node + 3 : node - 1;
+                    right[node] = k == 3 ? node - 3 : node + 1;
+                    node++;
+                }
+            }
+        }
+    }
+
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        int givens = selectGivens(grid);
+        solution = grid;
+        found = null;
+        limit = 1;
+        if (givens < 0)
+            return false;
+        boolean solved = search(givens);
+        unselectGivens(givens);
+        return solved;
+    }
+
+    @Override
+    public SolutionCount countSolutions(int[] grid, int limit) {
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        List<int[]> solutions = new ArrayList<>();
+        int givens = selectGivens(grid);
+        if (givens >= 0) {
+            found = solutions;
+            this.limit = limit;
+            search(givens);
+            found = null;
+            unselectGivens(givens);
+        }
+        return new SolutionCount(solutions.size(), limit, solutions);
+    }
+
+    // Selects the rows of the givens and returns their number, -1 (with nothing selected) when they contradict each other
+    private int selectGivens(int[] grid) {
+        if (grid.length != cellCount)
+            throw new IllegalArgumentException("Expected " + cellCount + " cells but got " + grid.length);
+        int givens = 0;
+        for (int index = 0; index < cellCount; index++) {
+            int value = grid[index];
+            if (value == ICell.EMPTY)
+                continue;
+            if (value > size || !isAvailable(index * size + value - 1)) {
+                unselectGivens(givens);
+                return -1;
+            }
+            chosen[givens++] = index * size + value - 1;
+            selectRow(rowStart[index * size + value - 1]);
+        }
+        return givens;
+    }
+
+    private void unselectGivens(int givens) {
+        for (int i = givens - 1; i >= 0; i--)
+            unselectRow(rowStart[chosen[i]]);
+    }
+
+    // A placement is still available when none of its columns has been covered
+    private boolean isAvailable(int placement) {
+        int node = rowStart[placement];
+        for (int k = 0; k < 4; k++) {
+            int c = column[node + k];
+            if (right[left[c]] != c)
+                return false;
+        }
+        return true;
+    }
+
+    // True once the search should stop: the solution is found when solving, the limit is reached when counting
+    private boolean search(int depth) {
+        if (cancelled.getAsBoolean())
+            return false;
+        if (right[ROOT] == ROOT) {
+            int[] target = found == null ? solution : new int[cellCount];
+            for (int i = 0; i < depth; i++)
+                target[chosen[i] / size] = chosen[i] % size + 1;
+            if (found == null)
+                return true;
+            found.add(target);
+            return found.size() >= limit;
+        }
+
+        // Column with the fewest remaining rows
+        int best = right[ROOT];
+        for (int c = right[best]; c != ROOT && columnSize[best] > 1; c = right[c]) {
+            if (columnSize[c] < columnSize[best])
+                best = c;
+        }
+        if (columnSize[best] == 0)
+            return false;
+
+        cover(best);
+        boolean stop = false;
+        for (int node = down[best]; node != best && !stop; node = down[node]) {
+            chosen[depth] = row[node];
+            for (int j = right[node]; j != node; j = right[j])
+                cover(column[j]);
+            stop = search(depth + 1);
+            for (int j = left[node]; j != node; j = left[j])
+                uncover(column[j]);
+        }
+        uncover(best);
+        return stop;
+    }
+
+    private void selectRow(int node) {
+        cover(column[node]);
+        for (int j = right[node]; j != node; j = right[j])
+            cover(column[j]);
+    }
+
+    private void unselectRow(int node) {
+        for (int j = left[node]; j != node; j = left[j])
+            uncover(column[j]);
+        uncover(column[node]);
+    }
+
+    private void cover(int c) {
+        right[left[c]] = right[c];
+        left[right[c]] = left[c];
+        for (int i = down[c]; i != c; i = down[i]) {
+            for (int j = right[i]; j != i; j = right[j]) {
+                up[down[j]] = up[j];
+                down[up[j]] = down[j];
+                columnSize[column[j]]--;
+            }
+        }
+    }
+
+    private void uncover(int c) {
+        for (int i = up[c]; i != c; i = up[i]) {
+            for (int j = left[i]; j != i; j = left[j]) {
+                columnSize[column[j]]++;
+                up[down[j]] = j;
+                down[up[j]] = j;
+            }
+        }
+        right[left[c]] = c;
+        left[right[c]] = c;
+    }
+}
@@ -0,0 +1,26 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.function.Function;
+
+public enum EngineType {
+    // Cell by cell search with singles propagation, fastest on typical puzzles
+    BITBOARD(BitboardSolver::new),
+    // Exact cover with Dancing Links, steadier on the hardest and on larger puzzles
+    DANCING_LINKS(DancingLinksSolver::new),
+    // Bitboard search split into fork/join tasks on the common pool, for pathological puzzles and enumeration
+    PARALLEL(ParallelSolver::new),
+    // Clause learning with non-chronological backjumping, for large and sparse puzzles where backtracking thrashes
+    CDCL(CdclSolver::new);
+
+    private final Function<SudokuGeometry, SudokuEngine> factory;
+
+    EngineType(Function<SudokuGeometry, SudokuEngine> factory) {
+        this.factory = factory;
+    }
+
+    public SudokuEngine create(SudokuGeometry geometry) {
+        return factory.apply(geometry);
+    }
+}
@@ -2,86 +2,163 @@ package com.chgr.sudoku.solver;
 
 import com.chgr.sudoku.models.*;
 import com.chgr.sudoku.solver.techniques.*;
-import com.chgr.sudoku.utils.SudokuConverter;
-import javafx.concurrent.Task;
 
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
 import java.util.function.Function;
 
-public class LogicalSolver extends Task<Boolean> {
+// Solves a copy of the puzzle with human techniques, the puzzle itself is left unchanged and the result holds the steps to replay
+public class LogicalSolver implements SudokuSolver {
 
-    private final List<BaseAction> solveSteps;
-    private final Map<Pos, Integer> initialValues;
-    private final SudokuWithoutUI sudoku;
+    private SolverListener listener = SolverListener.NONE;
+    private BooleanSupplier cancelled = () -> false;
+    private boolean explaining = true;
+    private boolean batching;
+    private TechniqueOrder order = TechniqueOrder.GRADING;
+    private ExecutorService executor;
+    // Last counted puzzle, solving it again skips the count
+    private volatile CountedPuzzle counted;
+    // Measured per technique over every solve of this solver, used by adaptive ordering.
+    // Concurrent, as one solver can be shared by threads solving different puzzles.
+    private final Map<Function<ISudoku, Optional<TechniqueAction>>, TechniqueStats> stats = new ConcurrentHashMap<>();
 
-    public LogicalSolver(ISudoku sudoku) {
-        this.solveSteps = new ArrayList<>();
-        this.initialValues = SudokuConverter.getInitialValues(sudoku);
-        this.sudoku = new SudokuWithoutUI();
-        for(Map.Entry<Pos, Integer> entry : initialValues.entrySet()){
-            this.sudoku.getCell(entry.getKey()).setValue(entry.getValue());
-        }
-    }
+    // Techniques that rely on the puzzle having a single solution, skipped when it has several
+    private static final Set<Function<ISudoku, Optional<TechniqueAction>>> uniquenessTechniques = new HashSet<>();
 
-    private boolean isSolved() {
-        for (int i = 0; i < ISudoku.SUDOKU_SIZE; i++) {
-            if (!sudoku.getRowValue(i).containsAll(ICell.DIGITS) ||
-                    !sudoku.getColumnValue(i).containsAll(ICell.DIGITS) ||
-                    !sudoku.getSquareValue(i).containsAll(ICell.DIGITS))
-                return false;
-        }
-        return true;
-    }
-
-    private static final List<Function<ISudoku, Optional<TechniqueAction>>> techniques = List.of(
-            NakedTechnique::nakedSingle,
-            HiddenTechnique::hiddenSingle,
-            NakedTechnique::nakedPair,
-            NakedTechnique::nakedTriple,
-            HiddenTechnique::hiddenPair,
-            HiddenTechnique::hiddenTriple,
-            NakedTechnique::nakedQuad,
-            HiddenTechnique::hiddenQuad,
-            IntersectionTechnique::pointingTuple,
-            IntersectionTechnique::boxLineReduction,
-            WingTechnique::xWing,
-            ChainTechnique::simpleColoring,
-            WingTechnique::yWing,
-            RectangleTechnique::rectangleElimination,
-            WingTechnique::swordfish,
-            WingTechnique::xyzWing,
-            ChainTechnique::xCycle,
-            ChainTechnique::xyChain,
-            ChainTechnique::medusa3D,
-            WingTechnique::jellyfish,
-            RectangleTechnique::uniqueRectangle,
-            IntersectionTechnique::firework,
-            ChainTechnique::skLoop,
-            RectangleTechnique::extendedUniqueRectangle,
-            RectangleTechnique::hiddenUniqueRectangle,
-            WingTechnique::wxyzWing,
-            IntersectionTechnique::alignedPairExclusion,
-            WingTechnique::finnedXWing,
-            WingTechnique::finnedSwordfish,
-            ChainTechnique::groupedXCycle
+    // Versions of techniques that report every finding of one scan, used when batching
+    private static final Map<Function<ISudoku, Optional<TechniqueAction>>, Function<ISudoku, List<TechniqueAction>>> batchTechniques = new HashMap<>();
+
+    // Techniques in grading order, grouped into tiers of similar difficulty
+    private static final List<List<Function<ISudoku, Optional<TechniqueAction>>>> tiers = List.of(
+            List.of(
+                    batch(NakedTechnique::nakedSingle, NakedTechnique::nakedSingles),
+                    batch(HiddenTechnique::hiddenSingle, HiddenTechnique::hiddenSingles)),
+            List.of(
+                    NakedTechnique::nakedPair,
+                    NakedTechnique::nakedTriple,
+                    HiddenTechnique::hiddenPair,
+                    HiddenTechnique::hiddenTriple,
+                    NakedTechnique::nakedQuad,
+                    HiddenTechnique::hiddenQuad),
+            List.of(
+                    batch(IntersectionTechnique::pointingTuple, IntersectionTechnique::pointingTuples),
+                    batch(IntersectionTechnique::boxLineReduction, IntersectionTechnique::boxLineReductions)),
+            List.of(
+                    WingTechnique::xWing,
+                    ChainTechnique::simpleColoring,
+                    WingTechnique::yWing,
+                    RectangleTechnique::rectangleElimination,
+                    WingTechnique::swordfish,
+                    WingTechnique::xyzWing),
+            List.of(
+                    ChainTechnique::xCycle,
+                    ChainTechnique::xyChain,
+                    ChainTechnique::medusa3D,
+                    WingTechnique::jellyfish,
+                    uniqueness(RectangleTechnique::uniqueRectangle),
+                    IntersectionTechnique::firework,
+                    ChainTechnique::skLoop,
+                    uniqueness(RectangleTechnique::extendedUniqueRectangle),
+                    uniqueness(RectangleTechnique::hiddenUniqueRectangle),
+                    WingTechnique::wxyzWing,
+                    IntersectionTechnique::alignedPairExclusion),
+            List.of(
+                    WingTechnique::finnedXWing,
+                    WingTechnique::finnedSwordfish,
+                    ChainTechnique::groupedXCycle)
     );
 
-    public boolean solve(){
+    // Tiers from here on hold the wing, chain and rectangle searches, scanned concurrently when there is an executor
+    private static final int FIRST_CONCURRENT_TIER = 3;
+    // Tail scans running or queued at the same time, each holds its own copy of the board
+    private static final int MAX_IN_FLIGHT = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    private static final List<Function<ISudoku, Optional<TechniqueAction>>> techniques = tiers.stream().flatMap(List::stream).toList();
+
+    // Techniques that work on any SudokuGeometry, the singles and subsets, the others assume the 9x9 grid
+    private static final List<Function<ISudoku, Optional<TechniqueAction>>> genericTechniques = tiers.subList(0, 2).stream().flatMap(List::stream).toList();
+
+    private static Function<ISudoku, Optional<TechniqueAction>> uniqueness(Function<ISudoku, Optional<TechniqueAction>> technique) {
+        uniquenessTechniques.add(technique);
+        return technique;
+    }
+
+    private static Function<ISudoku, Optional<TechniqueAction>> batch(Function<ISudoku, Optional<TechniqueAction>> technique, Function<ISudoku, List<TechniqueAction>> all) {
+        batchTechniques.put(technique, all);
+        return technique;
+    }
+
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    // Without explanations techniques only report eliminations and placements, descriptions and colourings are rebuilt
+    // for a step when it is asked for
+    public void setExplaining(boolean explaining) {
+        this.explaining = explaining;
+    }
+
+    // Findings of one scan are all valid on the board they were found on, so in batches a technique that can report
+    // them all has them applied together before starting again from the first technique. Each is still its own step.
+    public void setBatching(boolean batching) {
+        this.batching = batching;
+    }
+
+    public void setOrder(TechniqueOrder order) {
+        this.order = order;
+    }
+
+    // Once the techniques before the wing, chain and rectangle searches find nothing, those searches run a few at a time on
+    // copies of the board and the first finding in scan order wins, so the steps are the same as without an executor.
+    // The executor is not shut down by the solver, null scans one technique after the other.
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    // Techniques of the standard grid in grading order
+    static List<Function<ISudoku, Optional<TechniqueAction>>> techniques() {
+        return techniques;
+    }
+
+    // Counts a scan of the technique as if it had been measured, lets tests start adaptive ordering from known stats
+    void recordScan(Function<ISudoku, Optional<TechniqueAction>> technique, long nanos, boolean found) {
+        stats.computeIfAbsent(technique, _ -> new TechniqueStats()).record(nanos, found);
+    }
+
+    @Override
+    public SolveResult solve(ISudoku puzzle){
+        List<BaseAction> solveSteps = new ArrayList<>();
+        SudokuSnapshot initialState = puzzle.snapshot();
+        FlatSudoku sudoku = new FlatSudoku(initialState);
+        sudoku.setExplaining(explaining);
         if(!sudoku.initialValidation())
-            return false;
-        solveSteps.add(SimpleAction.builder()
+            return SolveResult.of(false, false, solveSteps);
+        addStep(solveSteps, SimpleAction.builder()
                         .name("Initial values")
                         .description("Set initial values")
                         .function( (sud) -> {
-                            for(Map.Entry<Pos, Integer> entry : initialValues.entrySet()){
-                                ICell cell = sud.getCell(entry.getKey());
-                                cell.setValue(entry.getValue());
+                            SudokuGeometry geometry = initialState.getGeometry();
+                            for(int i = 0; i < geometry.getCellCount(); i++){
+                                ICell cell = sud.getCell(geometry.x(i), geometry.y(i));
+                                cell.setValue(initialState.getValue(i));
                                 cell.reRender(true);
                             }
                             return null;
                         })
                         .build());
-        solveSteps.add(SimpleAction.builder()
+        addStep(solveSteps, SimpleAction.builder()
                 .name("Load candidates")
                 .description("Load candidates")
                 .function( sud -> {
@@ -91,34 +168,195 @@ public class LogicalSolver extends Task<Boolean> {
                 })
                 .build());
         sudoku.loadCandidates();
+        List<Function<ISudoku, Optional<TechniqueAction>>> available = sudoku.getGeometry().isStandard() ? techniques : genericTechniques;
+        if (available.stream().anyMatch(uniquenessTechniques::contains)) {
+            boolean unique = hasUniqueSolution(initialState);
+            if (cancelled.getAsBoolean())
+                return SolveResult.of(false, true, solveSteps);
+            if (!unique)
+                available = available.stream().filter(technique -> !uniquenessTechniques.contains(technique)).toList();
+        }
+        int cellCount = sudoku.getGeometry().getCellCount();
+        // Board version at each technique's last scan without result, -1 when it has to scan everything
+        long[] emptyScans = new long[available.size()];
+        Arrays.fill(emptyScans, -1);
+        int[] tierOf = new int[available.size()];
+        TechniqueStats[] techniqueStats = new TechniqueStats[available.size()];
+        Integer[] scanOrder = new Integer[available.size()];
+        for (int i = 0; i < available.size(); i++) {
+            tierOf[i] = tierOf(available.get(i));
+            techniqueStats[i] = stats.computeIfAbsent(available.get(i), _ -> new TechniqueStats());
+            scanOrder[i] = i;
+        }
         boolean changed;
         do {
-            sudoku.reRender();
+            if (cancelled.getAsBoolean())
+                return SolveResult.of(false, true, solveSteps);
+            listener.onProgress(sudoku.getFilledCount(), cellCount);
             changed = false;
-            for(Function<ISudoku, Optional<TechniqueAction>> technique : techniques){
-                Optional<TechniqueAction> action = technique.apply(sudoku);
-                if(action.isPresent()){
-                    action.get().apply(sudoku);
-                    solveSteps.add(action.get());
-                    changed = true;
-                    break;
+            if (order == TechniqueOrder.ADAPTIVE) {
+                // read once, other solves may update the stats while sorting
+                double[] costs = new double[techniqueStats.length];
+                for (int i = 0; i < costs.length; i++)
+                    costs[i] = techniqueStats[i].costPerFinding();
+                Arrays.sort(scanOrder, Comparator.<Integer>comparingInt(i -> tierOf[i]).thenComparingDouble(i -> costs[i]));
+            }
+            List<Integer> due = new ArrayList<>();
+            for (int i : scanOrder) {
+                // nothing changed since it last found nothing
+                if (emptyScans[i] != sudoku.getVersion())
+                    due.add(i);
+            }
+            List<Future<Scan>> tail = new ArrayList<>();
+            // Board of the pass shared by the tail scans, only read while they run, each scan copies it once it starts
+            FlatSudoku passBoard = null;
+            // Scans do not poll for interruption, so tail scans that have not started yet check this instead
+            AtomicBoolean decided = new AtomicBoolean();
+            int tailStart = 0;
+            int hit = -1;
+            List<TechniqueAction> found = List.of();
+            try {
+                for (int k = 0; k < due.size() && hit == -1; k++) {
+                    // long passes stop between techniques, not only between passes
+                    if (cancelled.getAsBoolean())
+                        return SolveResult.of(false, true, solveSteps);
+                    int i = due.get(k);
+                    if (executor != null && passBoard == null && tierOf[i] >= FIRST_CONCURRENT_TIER) {
+                        tailStart = k;
+                        passBoard = sudoku.copy();
+                    }
+                    Scan scan;
+                    if (passBoard == null) {
+                        scan = scan(sudoku, available.get(i), emptyScans[i]);
+                        // concurrent scans compete for the pool, only serial timings are comparable
+                        techniqueStats[i].record(scan.nanos(), !scan.found().isEmpty());
+                    } else {
+                        // at most MAX_IN_FLIGHT scans run ahead, the next one starts as the oldest is taken
+                        FlatSudoku board = passBoard;
+                        while (tailStart + tail.size() < Math.min(due.size(), k + MAX_IN_FLIGHT)) {
+                            int j = due.get(tailStart + tail.size());
+                            Function<ISudoku, Optional<TechniqueAction>> technique = available.get(j);
+                            long since = emptyScans[j];
+                            tail.add(executor.submit(() -> decided.get() ? null : scan(board.copy(), technique, since)));
+                        }
+                        scan = await(tail.get(k - tailStart));
+                        if (scan == null)
+                            return SolveResult.of(false, true, solveSteps);
+                    }
+                    if (scan.found().isEmpty()) {
+                        emptyScans[i] = sudoku.getVersion();
+                    } else {
+                        hit = i;
+                        found = scan.found();
+                    }
+                }
+            } finally {
+                // on a hit, a cancellation or a failure the scans after it are not needed,
+                // as in serial mode they would not have run
+                decided.set(true);
+                tail.forEach(future -> future.cancel(true));
+            }
+            if (hit != -1) {
+                // only the first finding is reported, so the next scan has to look everywhere again
+                emptyScans[hit] = -1;
+                Function<ISudoku, Optional<TechniqueAction>> technique = available.get(hit);
+                Function<ISudoku, List<TechniqueAction>> all = batching ? batchTechniques.get(technique) : null;
+                SudokuSnapshot before = explaining ? null : sudoku.snapshot();
+                found.forEach(action -> action.apply(sudoku));
+                for (int k = 0; k < found.size(); k++) {
+                    TechniqueAction action = found.get(k);
+                    int position = k;
+                    BaseAction step = explaining ? action : LazyTechniqueAction.builder()
+                            .name(action.getName())
+                            .action(action)
+                            .before(before)
+                            .technique(all == null ? technique : board -> all.apply(board).stream().skip(position).findFirst())
+                            .build();
+                    addStep(solveSteps, step);
                 }
+                changed = true;
             }
         } while (changed);
-        solveSteps.add(SimpleAction.builder()
+        addStep(solveSteps, SimpleAction.builder()
                 .name("End")
                 .description("Finished solving")
                 .function(_ -> null)
                 .build());
-        return isSolved();
+        return SolveResult.of(sudoku.isSolved(), false, solveSteps);
     }
 
-    @Override
-    protected Boolean call() {
-        return solve();
+    // The count stops when the solve is cancelled, its result is then not kept and not to be trusted
+    private boolean hasUniqueSolution(SudokuSnapshot initialState) {
+        int[] values = new int[initialState.getGeometry().getCellCount()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = initialState.getValue(i);
+        CountedPuzzle last = counted;
+        if (last != null && Arrays.equals(values, last.values()))
+            return last.unique();
+        BitboardSolver counter = new BitboardSolver(initialState.getGeometry());
+        counter.setCancellation(cancelled);
+        boolean unique = counter.countSolutions(values, 2).isUnique();
+        if (!cancelled.getAsBoolean())
+            counted = new CountedPuzzle(values, unique);
+        return unique;
+    }
+
+    // Givens of a puzzle and whether it has a single solution
+    private record CountedPuzzle(int[] values, boolean unique) {
     }
 
-    public List<BaseAction> getSteps() {
-        return Collections.unmodifiableList(solveSteps);
+    // Findings of one technique on the board, with the time the scan took
+    private record Scan(List<TechniqueAction> found, long nanos) {
+    }
+
+    private Scan scan(FlatSudoku board, Function<ISudoku, Optional<TechniqueAction>> technique, long since) {
+        Function<ISudoku, List<TechniqueAction>> all = batching ? batchTechniques.get(technique) : null;
+        board.setChangedSince(since);
+        long start = System.nanoTime();
+        List<TechniqueAction> found = all != null ? all.apply(board) : technique.apply(board).map(List::of).orElse(List.of());
+        long nanos = System.nanoTime() - start;
+        board.setChangedSince(-1);
+        return new Scan(found, nanos);
+    }
+
+    // Null when interrupted while waiting
+    private static Scan await(Future<Scan> scan) {
+        try {
+            return scan.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Technique failed", e.getCause());
+        }
+    }
+
+    private static int tierOf(Function<ISudoku, Optional<TechniqueAction>> technique) {
+        for (int tier = 0; tier < tiers.size(); tier++) {
+            if (tiers.get(tier).contains(technique))
+                return tier;
+        }
+        throw new IllegalArgumentException("Technique without tier");
+    }
+
+    private void addStep(List<BaseAction> solveSteps, BaseAction step) {
+        solveSteps.add(step);
+        listener.onStep(step);
+    }
+
+    private static final class TechniqueStats {
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder findings = new LongAdder();
+
+        void record(long nanos, boolean found) {
+            this.nanos.add(nanos);
+            if (found)
+                findings.increment();
+        }
+
+        // Techniques not measured yet come first, so every technique gets measured
+        double costPerFinding() {
+            return (double) nanos.sum() / (findings.sum() + 1);
+        }
     }
 }
@@ -0,0 +1,194 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+// Fork/join search for pathological puzzles and full enumeration of sparse grids.
+// The tree is split at the first splitDepth branch points into tasks that each own a copy of the values,
+// the subtrees below are searched by leaf engines and balanced by work stealing.
+// Leaf engines belong to one countSolutions call and are reused between its tasks, so nothing stays behind on the pool threads.
+// Every task stops cooperatively once the limit is reached, the first solution is found or the search is cancelled.
+// Solutions come in completion order, so which one solve() returns is not deterministic for ambiguous puzzles.
+public class ParallelSolver implements SudokuEngine {
+
+    private static final int DEFAULT_SPLIT_DEPTH = 4;
+
+    private final SudokuGeometry geometry;
+    private final ForkJoinPool pool;
+    private final int splitDepth;
+    private final EngineType leafEngine;
+    private BooleanSupplier cancelled = () -> false;
+
+    public ParallelSolver() {
+        this(SudokuGeometry.STANDARD);
+    }
+
+    public ParallelSolver(SudokuGeometry geometry) {
+        this(geometry, EngineType.BITBOARD, ForkJoinPool.commonPool(), DEFAULT_SPLIT_DEPTH);
+    }
+
+    public ParallelSolver(SudokuGeometry geometry, EngineType leafEngine, ForkJoinPool pool, int splitDepth) {
+        if (leafEngine == EngineType.PARALLEL)
+            throw new IllegalArgumentException("Leaf engine must be sequential");
+        this.geometry = geometry;
+        this.pool = pool;
+        this.splitDepth = splitDepth;
+        this.leafEngine = leafEngine;
+    }
+
+    @Override
+    public SudokuGeometry getGeometry() {
+        return geometry;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public boolean solve(int[] grid) {
+        SolutionCount count = countSolutions(grid, 1);
+        if (!count.hasSolution())
+            return false;
+        System.arraycopy(count.solutions().getFirst(), 0, grid, 0, geometry.getCellCount());
+        return true;
+    }
+
+    @Override
+    public SolutionCount countSolutions(int[] grid, int limit) {
+        if (grid.length != geometry.getCellCount())
+            throw new IllegalArgumentException("Expected " + geometry.getCellCount() + " cells but got " + grid.length);
+        if (limit < 1)
+            throw new IllegalArgumentException("Limit must be at least 1 but was " + limit);
+        Job job = new Job(limit, cancelled);
+        if (isValid(grid))
+            pool.invoke(new SearchTask(job, grid.clone(), 0));
+        List<int[]> solutions = new ArrayList<>(job.solutions);
+        return new SolutionCount(Math.min(job.count.get(), limit), limit, solutions);
+    }
+
+    private boolean isValid(int[] grid) {
+        for (int index = 0; index < grid.length; index++) {
+            int value = grid[index];
+            if (value == ICell.EMPTY)
+                continue;
+            if (value < 0 || value > geometry.getSize())
+                return false;
+            for (int peer : geometry.getPeers()[index]) {
+                if (grid[peer] == value)
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    // State shared by all tasks of one countSolutions call
+    private static final class Job implements BooleanSupplier {
+        private final int limit;
+        private final BooleanSupplier cancelled;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private final AtomicInteger count = new AtomicInteger();
+        private final ConcurrentLinkedQueue<int[]> solutions = new ConcurrentLinkedQueue<>();
+        // Leaf engines not in use right now, at most one is created per leaf running at the same time
+        private final ConcurrentLinkedQueue<SudokuEngine> engines = new ConcurrentLinkedQueue<>();
+
+        private Job(int limit, BooleanSupplier cancelled) {
+            this.limit = limit;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public boolean getAsBoolean() {
+            return done.get() || cancelled.getAsBoolean();
+        }
+
+        private void add(int[] solution) {
+            int found = count.incrementAndGet();
+            if (found <= limit)
+                solutions.add(solution);
+            if (found >= limit)
+                done.set(true);
+        }
+    }
+
+    private final class SearchTask extends RecursiveAction {
+        private final Job job;
+        private final int[] values;
+        private final int depth;
+
+        private SearchTask(Job job, int[] values, int depth) {
+            this.job = job;
+            this.values = values;
+            this.depth = depth;
+        }
+
+        @Override
+        protected void compute() {
+            if (job.getAsBoolean())
+                return;
+            if (depth >= splitDepth) {
+                searchLeaf();
+                return;
+            }
+
+            // Branch on the empty cell with the fewest candidates left by its peers
+            int index = -1;
+            int candidates = 0;
+            int minCount = Integer.MAX_VALUE;
+            for (int i = 0; i < values.length && minCount > 1; i++) {
+                if (values[i] != ICell.EMPTY)
+                    continue;
+                int mask = geometry.getAllCandidates();
+                for (int peer : geometry.getPeers()[i]) {
+                    if (values[peer] != ICell.EMPTY)
+                        mask &= ~(1 << (values[peer] - 1));
+                }
+                int count = Integer.bitCount(mask);
+                if (count < minCount) {
+                    index = i;
+                    candidates = mask;
+                    minCount = count;
+                }
+            }
+
+            // if no empty cell
+            if (index == -1) {
+                job.add(values);
+                return;
+            }
+
+            List<SearchTask> tasks = new ArrayList<>(minCount);
+            for (int mask = candidates; mask != 0; mask &= mask - 1) {
+                int[] next = values.clone();
+                next[index] = Integer.numberOfTrailingZeros(mask) + 1;
+                tasks.add(new SearchTask(job, next, depth + 1));
+            }
+            invokeAll(tasks);
+        }
+
+        private void searchLeaf() {
+            SudokuEngine engine = job.engines.poll();
+            if (engine == null) {
+                engine = leafEngine.create(geometry);
+                engine.setCancellation(job);
+            }
+            try {
+                SolutionCount count = engine.countSolutions(values, Math.max(1, job.limit - job.count.get()));
+                for (int[] solution : count.solutions())
+                    job.add(solution);
+            } finally {
+                job.engines.add(engine);
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.chgr.sudoku.solver;
+
+import java.time.Duration;
+
+// Outcome of a PortfolioSolver race: the entry that gave the first definitive answer, how long it took from the start
+// of the race and its result. Without a definitive answer winner is null and result is UNSOLVED or CANCELLED.
+public record PortfolioResult(String winner, Duration elapsed, SolveResult result) {
+
+    public boolean hasWinner() {
+        return winner != null;
+    }
+}
@@ -0,0 +1,134 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.BaseAction;
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.ISudoku;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+// Races several solvers on their own copies of the puzzle and takes the first definitive answer, the others are cancelled.
+// A definitive answer is SOLVED, or UNSOLVED from an entry that searches completely (a stuck logical solve is not one).
+// The puzzle is changed as if the winner had been called directly, so it is filled by a search but left as it is by
+// LogicalSolver, whose steps come back in the result. Losers stop cooperatively and are not waited for, an entry that
+// fails counts as giving no answer.
+public class PortfolioSolver implements SudokuSolver {
+
+    // One competitor, a fresh solver is created for every race so losers still winding down never share state
+    public record Entry(String name, Supplier<SudokuSolver> factory, boolean complete) {
+    }
+
+    // Daemon threads, one per running entry, so racing does not depend on the number of cores
+    private static final ExecutorService SHARED_POOL = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "portfolio-solver");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService executor;
+    private final List<Entry> entries;
+    private SolverListener listener = SolverListener.NONE;
+    private BooleanSupplier cancelled = () -> false;
+
+    public PortfolioSolver() {
+        this(SHARED_POOL, List.of(
+                new Entry("Logical", LogicalSolver::new, false),
+                new Entry("Backtracking", BacktrackingSolver::new, true),
+                new Entry("CDCL", () -> new BacktrackingSolver(EngineType.CDCL), true)));
+    }
+
+    // The executor must be able to run all entries at once, otherwise later entries only start when earlier ones end
+    public PortfolioSolver(ExecutorService executor, List<Entry> entries) {
+        if (entries.isEmpty())
+            throw new IllegalArgumentException("Portfolio needs at least one entry");
+        this.executor = executor;
+        this.entries = List.copyOf(entries);
+    }
+
+    // Called on the calling thread once the race is decided, with the steps of the winner
+    @Override
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    @Override
+    public void setCancellation(BooleanSupplier cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    @Override
+    public SolveResult solve(ISudoku sudoku) {
+        return race(sudoku).result();
+    }
+
+    public PortfolioResult race(ISudoku sudoku) {
+        long start = System.nanoTime();
+        AtomicBoolean decided = new AtomicBoolean();
+        BooleanSupplier stop = () -> decided.get() || cancelled.getAsBoolean();
+        CompletionService<Finish> race = new ExecutorCompletionService<>(executor);
+        for (Entry entry : entries) {
+            FlatSudoku copy = new FlatSudoku(sudoku);
+            race.submit(() -> {
+                SudokuSolver solver = entry.factory().get();
+                solver.setCancellation(stop);
+                SolveResult result = solver.solve(copy);
+                return new Finish(entry, copy, result, System.nanoTime() - start);
+            });
+        }
+        try {
+            for (int i = 0; i < entries.size(); i++) {
+                Finish finish;
+                try {
+                    finish = race.take().get();
+                } catch (ExecutionException e) {
+                    // a failed entry gives no answer, the others may still give one
+                    continue;
+                }
+                if (finish.isDefinitive()) {
+                    decided.set(true);
+                    return win(sudoku, finish);
+                }
+            }
+        } catch (InterruptedException e) {
+            decided.set(true);
+            Thread.currentThread().interrupt();
+            return noWinner(start, true);
+        }
+        return noWinner(start, cancelled.getAsBoolean());
+    }
+
+    private PortfolioResult win(ISudoku sudoku, Finish finish) {
+        if (finish.result().isSolved() && finish.board().isSolved()) {
+            for (int index = 0; index < sudoku.getGeometry().getCellCount(); index++) {
+                ICell cell = sudoku.getCell(index);
+                if (cell.getValue() == ICell.EMPTY)
+                    cell.setValue(finish.board().getValue(index));
+            }
+        }
+        for (BaseAction step : finish.result().steps())
+            listener.onStep(step);
+        if (finish.result().isSolved())
+            listener.onProgress(sudoku.getGeometry().getCellCount(), sudoku.getGeometry().getCellCount());
+        return new PortfolioResult(finish.entry().name(), Duration.ofNanos(finish.nanos()), finish.result());
+    }
+
+    private static PortfolioResult noWinner(long start, boolean cancelled) {
+        return new PortfolioResult(null, Duration.ofNanos(System.nanoTime() - start), SolveResult.of(false, cancelled, List.of()));
+    }
+
+    private record Finish(Entry entry, FlatSudoku board, SolveResult result, long nanos) {
+
+        boolean isDefinitive() {
+            return result.isSolved() || entry.complete() && result.status() == SolveResult.Status.UNSOLVED;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.ICell;
+
+import java.util.Random;
+
+// MRV with random tie-breaking between the cells with the fewest candidates and a random digit order,
+// used by the restart policy so every run explores a different tree. Reproducible from the seed, not thread safe.
+public class RandomizedBranching implements BranchingStrategy {
+
+    private final Random random;
+
+    public RandomizedBranching(long seed) {
+        this(new Random(seed));
+    }
+
+    public RandomizedBranching(Random random) {
+        this.random = random;
+    }
+
+    @Override
+    public int branch(FlatSudoku board, int[] branches, int[] scratch) {
+        int index = -1;
+        int minCount = Integer.MAX_VALUE;
+        int ties = 0;
+        for (int i = 0; i < board.getGeometry().getCellCount(); i++) {
+            if (board.getValue(i) != ICell.EMPTY)
+                continue;
+            int count = Integer.bitCount(board.getCandidateMask(i));
+            if (count < minCount) {
+                index = i;
+                minCount = count;
+                ties = 1;
+            } else if (count == minCount && random.nextInt(++ties) == 0) {
+                // reservoir sampling keeps every tied cell equally likely
+                index = i;
+            }
+        }
+        if (index == -1)
+            return -1;
+
+        int size = board.getGeometry().getSize();
+        int count = 0;
+        for (int mask = board.getCandidateMask(index); mask != 0; mask &= mask - 1) {
+            int j = random.nextInt(count + 1);
+            branches[count] = branches[j];
+            branches[j] = index * size + Integer.numberOfTrailingZeros(mask);
+            count++;
+        }
+        return count;
+    }
+}
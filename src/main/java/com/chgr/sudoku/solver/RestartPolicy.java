@@ -0,0 +1,47 @@
+package com.chgr.sudoku.solver;
+
+// When BacktrackingSolver gives up on a run and starts over with a fresh random branching order.
+// Cutoffs are node counts: Luby runs take unitNodes times 1, 1, 2, 1, 1, 2, 4, 1, ... and geometric runs grow by factor.
+// Both keep growing, so a search with restarts stays complete. The same seed always gives the same runs.
+public record RestartPolicy(Schedule schedule, long unitNodes, double factor, long seed) {
+
+    public enum Schedule {
+        LUBY,
+        GEOMETRIC
+    }
+
+    public RestartPolicy {
+        if (unitNodes < 1)
+            throw new IllegalArgumentException("Unit must be at least one node but was " + unitNodes);
+        if (schedule == Schedule.GEOMETRIC && factor <= 1)
+            throw new IllegalArgumentException("Geometric factor must be above 1 but was " + factor);
+    }
+
+    public static RestartPolicy luby(long unitNodes, long seed) {
+        return new RestartPolicy(Schedule.LUBY, unitNodes, 1, seed);
+    }
+
+    public static RestartPolicy geometric(long firstNodes, double factor, long seed) {
+        return new RestartPolicy(Schedule.GEOMETRIC, firstNodes, factor, seed);
+    }
+
+    // Node budget of the run after that many restarts
+    public long cutoff(int restart) {
+        double nodes = switch (schedule) {
+            case LUBY -> (double) unitNodes * luby(restart + 1);
+            case GEOMETRIC -> unitNodes * Math.pow(factor, restart);
+        };
+        return nodes >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) nodes;
+    }
+
+    // i-th term (from 1) of the Luby sequence
+    static long luby(long i) {
+        while (true) {
+            int k = 64 - Long.numberOfLeadingZeros(i + 1) - 1;
+            // i = 2^k - 1 ends a block
+            if ((1L << k) - 1 == i)
+                return 1L << (k - 1);
+            i -= (1L << k) - 1;
+        }
+    }
+}
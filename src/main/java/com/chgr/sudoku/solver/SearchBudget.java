@@ -0,0 +1,30 @@
+package com.chgr.sudoku.solver;
+
+import java.time.Duration;
+
+// Limits of a single BacktrackingSearch.run call, the search pauses once either is used up
+public record SearchBudget(long maxNodes, long maxNanos) {
+
+    public static final SearchBudget UNLIMITED = new SearchBudget(Long.MAX_VALUE, Long.MAX_VALUE);
+
+    public SearchBudget {
+        if (maxNodes < 1 || maxNanos < 1)
+            throw new IllegalArgumentException("Budget must allow at least one node and one nanosecond");
+    }
+
+    public static SearchBudget ofNodes(long maxNodes) {
+        return new SearchBudget(maxNodes, Long.MAX_VALUE);
+    }
+
+    public static SearchBudget ofTime(Duration time) {
+        return new SearchBudget(Long.MAX_VALUE, time.toNanos());
+    }
+
+    public SearchBudget withNodes(long maxNodes) {
+        return new SearchBudget(maxNodes, maxNanos);
+    }
+
+    public SearchBudget withTime(Duration time) {
+        return new SearchBudget(maxNodes, time.toNanos());
+    }
+}
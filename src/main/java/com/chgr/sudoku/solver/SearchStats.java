@@ -0,0 +1,18 @@
+package com.chgr.sudoku.solver;
+
+// Effort of a search: nodes visited, deepest branch level reached, placements undone after their subtree failed
+// and runs abandoned by a restart policy
+public record SearchStats(long nodes, int maxDepth, long backtracks, int restarts) {
+
+    public static final SearchStats NONE = new SearchStats(0, 0, 0, 0);
+
+    // Totals over several runs
+    public SearchStats plus(SearchStats next) {
+        return new SearchStats(nodes + next.nodes, Math.max(maxDepth, next.maxDepth), backtracks + next.backtracks, restarts + next.restarts);
+    }
+
+    // The same effort with one more run abandoned
+    public SearchStats withRestart() {
+        return new SearchStats(nodes, maxDepth, backtracks, restarts + 1);
+    }
+}
@@ -0,0 +1,21 @@
+package com.chgr.sudoku.solver;
+
+import java.util.List;
+
+// Result of a counting search stopped at the limit: count == limit means at least that many solutions.
+// Solutions are value arrays indexed like the geometry, in the order they were found.
+public record SolutionCount(int count, int limit, List<int[]> solutions) {
+
+    public boolean hasSolution() {
+        return count > 0;
+    }
+
+    // Only meaningful when the search was allowed to look for a second solution
+    public boolean isUnique() {
+        return count == 1 && limit > 1;
+    }
+
+    public boolean isLimitReached() {
+        return count >= limit;
+    }
+}
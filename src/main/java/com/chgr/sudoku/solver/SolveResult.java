@@ -0,0 +1,34 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.BaseAction;
+
+import java.util.List;
+
+// Outcome of a SudokuSolver run, steps are only recorded by solvers that explain their work
+// and stats only by searches that track them
+public record SolveResult(Status status, List<BaseAction> steps, SearchStats stats) {
+
+    public enum Status {
+        SOLVED,
+        // no solution, or the solver got stuck
+        UNSOLVED,
+        CANCELLED
+    }
+
+    public SolveResult {
+        steps = List.copyOf(steps);
+    }
+
+    public static SolveResult of(boolean solved, boolean cancelled, List<BaseAction> steps) {
+        return of(solved, cancelled, steps, SearchStats.NONE);
+    }
+
+    public static SolveResult of(boolean solved, boolean cancelled, List<BaseAction> steps, SearchStats stats) {
+        Status status = solved ? Status.SOLVED : cancelled ? Status.CANCELLED : Status.UNSOLVED;
+        return new SolveResult(status, steps, stats);
+    }
+
+    public boolean isSolved() {
+        return status == Status.SOLVED;
+    }
+}
@@ -0,0 +1,20 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.BaseAction;
+
+// Progress callbacks of a SudokuSolver, all methods are optional
+public interface SolverListener {
+
+    SolverListener NONE = new SolverListener() {
+    };
+
+    default void onStep(BaseAction step) {
+    }
+
+    default void onProgress(int filled, int total) {
+    }
+
+    // Values of the board a search is working on, reported now and then so a UI can show it at work
+    default void onSearch(int[] values) {
+    }
+}
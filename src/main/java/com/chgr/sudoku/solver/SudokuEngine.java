@@ -0,0 +1,50 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.ISudoku;
+import com.chgr.sudoku.models.SudokuGeometry;
+
+import java.util.function.BooleanSupplier;
+
+// Headless solving backend working on plain value arrays, see EngineType for the available implementations.
+// Instances keep their working memory between puzzles and are not thread safe.
+public interface SudokuEngine {
+
+    SudokuGeometry getGeometry();
+
+    // Solves the values indexed like the geometry (0 is empty) in place, leaves them untouched when there is no solution
+    boolean solve(int[] grid);
+
+    // Enumerates solutions of the values without changing them, stopping once limit solutions are found.
+    // A limit of 2 is enough to tell apart invalid, unique and ambiguous puzzles.
+    SolutionCount countSolutions(int[] grid, int limit);
+
+    // Polled at every search node, once it returns true the running solve or count gives up as if nothing more was found
+    void setCancellation(BooleanSupplier cancelled);
+
+    // Solves the board and writes the values into its empty cells
+    default boolean solve(ISudoku sudoku) {
+        SudokuGeometry geometry = getGeometry();
+        int[] grid = values(sudoku);
+        if (!solve(grid))
+            return false;
+        for (int i = 0; i < grid.length; i++) {
+            ICell cell = sudoku.getCell(geometry.x(i), geometry.y(i));
+            if (cell.getValue() == ICell.EMPTY)
+                cell.setValue(grid[i]);
+        }
+        return true;
+    }
+
+    default SolutionCount countSolutions(ISudoku sudoku, int limit) {
+        return countSolutions(values(sudoku), limit);
+    }
+
+    private int[] values(ISudoku sudoku) {
+        SudokuGeometry geometry = getGeometry();
+        int[] grid = new int[geometry.getCellCount()];
+        for (int i = 0; i < grid.length; i++)
+            grid[i] = sudoku.getCell(geometry.x(i), geometry.y(i)).getValue();
+        return grid;
+    }
+}
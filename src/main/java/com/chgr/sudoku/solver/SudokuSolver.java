@@ -0,0 +1,18 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ISudoku;
+
+import java.util.function.BooleanSupplier;
+
+// Headless solver entry point, free of any JavaFX dependency (see SolverTask for the UI adapter).
+// Instances can be reused for many puzzles but run one solve at a time.
+public interface SudokuSolver {
+
+    SolveResult solve(ISudoku sudoku);
+
+    // Optional, called on the solving thread
+    void setListener(SolverListener listener);
+
+    // Optional, polled while solving, once it returns true the solve stops with SolveResult.Status.CANCELLED
+    void setCancellation(BooleanSupplier cancelled);
+}
@@ -0,0 +1,11 @@
+package com.chgr.sudoku.solver;
+
+// Order in which LogicalSolver tries its techniques
+public enum TechniqueOrder {
+    // Fixed order from easiest to hardest, the first technique that applies is the one a human would use
+    GRADING,
+    // Difficulty tiers still go from easiest to hardest, within a tier the technique with the lowest measured
+    // time per finding goes first, so cheap or likely techniques run before expensive ones that rarely find anything.
+    // Steps can differ from grading order, and a puzzle may get stuck in one order and not the other.
+    ADAPTIVE
+}
@@ -1,18 +1,17 @@
 package com.chgr.sudoku.solver.techniques;
 
+import com.chgr.sudoku.models.CellSet;
 import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
 import com.chgr.sudoku.models.Pos;
+import com.chgr.sudoku.models.SudokuLayout;
 import com.chgr.sudoku.models.TechniqueAction;
+import com.chgr.sudoku.utils.CandidateUtils;
 import com.chgr.sudoku.utils.CellUtils;
 import javafx.scene.paint.Color;
-import lombok.AllArgsConstructor;
-import lombok.EqualsAndHashCode;
-import lombok.Getter;
 import org.apache.commons.math3.util.Pair;
 
 import java.util.*;
-import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -30,24 +29,19 @@ public class ChainTechnique {
 
     private record GroupCell(List<ICell> cells, List<Pair<ISudoku.GroupType, Integer>> allowedConnections){}
 
-    @AllArgsConstructor
-    @Getter
-    @EqualsAndHashCode
-    protected static class CellNumPair {
-        private ICell cell;
-        private int num;
-    }
-
     // https://www.sudokuwiki.org/Singles_Chains
     // Simple Coloring or Singles Chains
     public static Optional<TechniqueAction> simpleColoring(ISudoku sudoku) {
         for (int num = 1; num <= ISudoku.SUDOKU_SIZE; num++) {
+            // single digit chains only depend on the candidates of their digit
+            if (!sudoku.isDigitChanged(num))
+                continue;
             Set<ICell> emptyCells = sudoku.getEmptyCells();
             Map<ICell, Set<ICell>> linkMap = new HashMap<>();
 
             // Find chains for each number
             for (ICell cell : emptyCells) {
-                if (cell.getCandidates().contains(num)) {
+                if (cell.hasCandidate(num)) {
                     Set<ICell> links = findLinks(sudoku, cell, num);
                     if(!links.isEmpty())
                         linkMap.put(cell, links);
@@ -81,26 +75,26 @@ public class ChainTechnique {
                     }
                 }
 
-                Set<ICell> colorGroup0 = coloring.entrySet().stream().filter(e -> e.getValue() == 0).map(Map.Entry::getKey).collect(Collectors.toSet());
-                Set<ICell> colorGroup1 = coloring.entrySet().stream().filter(e -> e.getValue() == 1).map(Map.Entry::getKey).collect(Collectors.toSet());
+                CellSet colorGroup0 = CellSet.of(coloring.entrySet().stream().filter(e -> e.getValue() == 0).map(Map.Entry::getKey).toList());
+                CellSet colorGroup1 = CellSet.of(coloring.entrySet().stream().filter(e -> e.getValue() == 1).map(Map.Entry::getKey).toList());
                 List<TechniqueAction.CellColoring> techniqueCellColoring = new ArrayList<>();
                 techniqueCellColoring.add(
                         new TechniqueAction.CandidatesColoring(
-                                colorGroup0.stream().map(ICell::getPos).collect(Collectors.toSet()),
+                                colorGroup0.toCells(sudoku).stream().map(ICell::getPos).collect(Collectors.toSet()),
                                 Color.YELLOW, Set.of(num))
                 );
                 techniqueCellColoring.add(
                         new TechniqueAction.CandidatesColoring(
-                                colorGroup1.stream().map(ICell::getPos).collect(Collectors.toSet()),
+                                colorGroup1.toCells(sudoku).stream().map(ICell::getPos).collect(Collectors.toSet()),
                                 Color.GREEN, Set.of(num))
                 );
                 techniqueCellColoring.add(
                         new TechniqueAction.LineColoring(linkList, Color.BLUE, num, false)
                 );
-                Optional<TechniqueAction> techniqueAction = hasDuplicateInUnit(colorGroup0, colorGroup1, num, techniqueCellColoring, "Simple Coloring");
+                Optional<TechniqueAction> techniqueAction = hasDuplicateInUnit(sudoku, colorGroup0, colorGroup1, num, techniqueCellColoring, "Simple Coloring");
                 if (techniqueAction.isPresent())
                     return techniqueAction;
-                techniqueAction = eliminateFromOutsideNeighboringCells(emptyCells, num, colorGroup0, colorGroup1, coloring.keySet(), techniqueCellColoring, "Simple Coloring");
+                techniqueAction = eliminateFromOutsideNeighboringCells(sudoku, num, colorGroup0, colorGroup1, techniqueCellColoring, "Simple Coloring");
                 if (techniqueAction.isPresent())
                     return techniqueAction;
             }
@@ -112,233 +106,230 @@ public class ChainTechnique {
     // https://www.sudokuwiki.org/3D_Medusa
     // 3D Medusa
     public static Optional<TechniqueAction> medusa3D(ISudoku sudoku) {
-        Set<ICell> emptyCells = sudoku.getEmptyCells();
-        Map<CellNumPair, Set<CellNumPair>> linkMap = new HashMap<>();
-        for(ICell cell : emptyCells){
-            for(int num : cell.getCandidates()){
-                Set<ICell> links = findLinks(sudoku, cell, num);
-                if(!links.isEmpty()){
-                    linkMap.put(new CellNumPair(cell, num),
-                            links.stream().map(link -> new CellNumPair(link, num)).collect(Collectors.toSet()));
-                }
-                if(cell.getCandidates().size() == 2){
-                    int otherNum = cell.getCandidates().stream().filter(n -> n != num).findFirst().orElseThrow(() -> new RuntimeException("Expected two candidates in cell, but found only one"));
-                    linkMap.computeIfAbsent(new CellNumPair(cell, num), _ -> new HashSet<>()).add(new CellNumPair(cell, otherNum));
+        // Candidates are nodes (see SudokuLayout.node), linked by strong links of a digit in a unit and within bi-value cells
+        int[][] linkMap = new int[SudokuLayout.NODE_COUNT][];
+        for (int index = 0; index < SudokuLayout.CELL_COUNT; index++) {
+            ICell cell = sudoku.getCell(index);
+            if (cell.getValue() != ICell.EMPTY)
+                continue;
+            for (int mask = cell.getCandidateMask(); mask != 0; mask &= mask - 1) {
+                int num = CandidateUtils.first(mask);
+                int[] links = findLinkNodes(sudoku, index, num);
+                if (cell.getCandidateCount() == 2) {
+                    links = Arrays.copyOf(links, links.length + 1);
+                    links[links.length - 1] = SudokuLayout.node(index, CandidateUtils.first(cell.getCandidateMask() & ~CandidateUtils.bit(num)));
                 }
+                if (links.length > 0)
+                    linkMap[SudokuLayout.node(index, num)] = links;
             }
         }
 
-        List<Pair<Pair<Pos, Pos>, Integer>> linkList = new ArrayList<>();
-
-        // Color chains alternately
-        List<CellNumPair> keys = new ArrayList<>(linkMap.keySet());
-        while (!keys.isEmpty()) {
-            CellNumPair current = keys.getFirst();
-            keys.remove(current);
-            List<CellNumPair> openCells = new ArrayList<>();
-            openCells.add(current);
-            Map<CellNumPair, Integer> coloring = new HashMap<>();
-            coloring.put(current, 0);
-            while (!openCells.isEmpty()) {
-                CellNumPair cell = openCells.getFirst();
-                openCells.remove(cell);
-                for (CellNumPair link : linkMap.get(cell)) {
-                    if (!coloring.containsKey(link)) {
-                        coloring.put(link, 1 - coloring.get(cell));
-                        if(link.num == cell.num)
-                            linkList.add(Pair.create(Pair.create(cell.getCell().getPos(), link.getCell().getPos()), cell.getNum()));
-                        if (!openCells.contains(link))
-                            openCells.add(link);
-                        keys.remove(link);
-                    } else if (Objects.equals(coloring.get(link), coloring.get(cell))) {
+        // Color chains alternately, -1 is uncolored
+        int[] coloring = new int[SudokuLayout.NODE_COUNT];
+        Arrays.fill(coloring, -1);
+        boolean[] visited = new boolean[SudokuLayout.NODE_COUNT];
+        int[] chain = new int[SudokuLayout.NODE_COUNT];
+        for (int start = 0; start < SudokuLayout.NODE_COUNT; start++) {
+            if (linkMap[start] == null || visited[start])
+                continue;
+            List<Pair<Pair<Pos, Pos>, Integer>> linkList = new ArrayList<>();
+            int size = 0;
+            chain[size++] = start;
+            coloring[start] = 0;
+            visited[start] = true;
+            for (int head = 0; head < size; head++) {
+                int node = chain[head];
+                for (int link : linkMap[node]) {
+                    if (coloring[link] == -1) {
+                        coloring[link] = 1 - coloring[node];
+                        visited[link] = true;
+                        if (SudokuLayout.nodeDigit(link) == SudokuLayout.nodeDigit(node))
+                            linkList.add(Pair.create(Pair.create(Pos.of(SudokuLayout.nodeIndex(node)), Pos.of(SudokuLayout.nodeIndex(link))), SudokuLayout.nodeDigit(node)));
+                        chain[size++] = link;
+                    } else if (coloring[link] == coloring[node]) {
                         throw new RuntimeException("Two colors on same cell and number found");
                     }
                 }
             }
 
-            List<Integer> nums = coloring.keySet().stream().map(CellNumPair::getNum).distinct().toList();
-            List<TechniqueAction.CellColoring> techniqueCellColoring = new ArrayList<>();
-            techniqueCellColoring.addAll(
-                    coloring.entrySet().stream()
-                            .filter(e -> e.getValue() == 0)
-                            .map(entry -> new TechniqueAction.CandidatesColoring(Set.of(entry.getKey().getCell().getPos()), Color.YELLOW, Set.of(entry.getKey().getNum()))
-                            ).toList());
-            techniqueCellColoring.addAll(
-                    coloring.entrySet().stream()
-                            .filter(e -> e.getValue() == 1)
-                            .map(entry -> new TechniqueAction.CandidatesColoring(Set.of(entry.getKey().getCell().getPos()), Color.GREEN, Set.of(entry.getKey().getNum()))
-                            ).toList());
-            techniqueCellColoring.addAll(
-                    linkList.stream()
-                            .filter(pair -> coloring.keySet().stream().anyMatch(cellNumPair -> cellNumPair.getCell().getPos().equals(pair.getFirst().getFirst()) && cellNumPair.getNum() == pair.getSecond()))
-                            .map(pair -> new TechniqueAction.LineColoring(List.of(pair.getFirst()), Color.BLUE, pair.getSecond(), false)
-                            ).toList());
-            for (int num : nums) {
-                Set<ICell> colorGroup0 = coloring.entrySet().stream()
-                        .filter(e -> e.getValue() == 0)
-                        .map(Map.Entry::getKey).filter(pair -> pair.getNum() == num)
-                        .map(CellNumPair::getCell)
-                        .collect(Collectors.toSet());
-                Set<ICell> colorGroup1 = coloring.entrySet().stream()
-                        .filter(e -> e.getValue() == 1)
-                        .map(Map.Entry::getKey).filter(pair -> pair.getNum() == num)
-                        .map(CellNumPair::getCell)
-                        .collect(Collectors.toSet());
-                Set<ICell> group = coloring.keySet().stream()
-                        .filter(pair -> pair.getNum() == num)
-                        .map(CellNumPair::getCell)
-                        .collect(Collectors.toSet());
-                Optional<TechniqueAction> techniqueAction = hasDuplicateInUnit(colorGroup0, colorGroup1, num, techniqueCellColoring, "3D Medusa");
-                if(techniqueAction.isPresent())
-                    return techniqueAction;
-                techniqueAction = eliminateFromOutsideNeighboringCells(emptyCells, num, colorGroup0, colorGroup1, group, techniqueCellColoring, "3D Medusa");
-                if(techniqueAction.isPresent())
-                    return techniqueAction;
-            }
-            Set<ICell> cells = coloring.keySet().stream().map(CellNumPair::getCell).collect(Collectors.toSet());
-            Optional<TechniqueAction> techniqueAction = hasColorConflictInCell(coloring, cells, techniqueCellColoring);
-            if (techniqueAction.isPresent()) return techniqueAction;
-            techniqueAction = eliminateExtraCandidatesFromBicolorCells(coloring, cells, techniqueCellColoring);
-            if (techniqueAction.isPresent()) return techniqueAction;
-            techniqueAction = removeUncoloredDueToUnitAndCellConflict(coloring, cells, techniqueCellColoring);
-            if (techniqueAction.isPresent()) return techniqueAction;
-            techniqueAction = removeUncoloredDueToAllCandidatesSeeSameColor(sudoku, coloring, cells, techniqueCellColoring);
-            if (techniqueAction.isPresent()) return techniqueAction;
+            Optional<TechniqueAction> techniqueAction = checkMedusaChain(sudoku, coloring, chain, size, linkList);
+            for (int i = 0; i < size; i++)
+                coloring[chain[i]] = -1;
+            if (techniqueAction.isPresent())
+                return techniqueAction;
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> hasColorConflictInCell(Map<CellNumPair, Integer> coloring, Set<ICell> cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
+    private static Optional<TechniqueAction> checkMedusaChain(ISudoku sudoku, int[] coloring, int[] chain, int size, List<Pair<Pair<Pos, Pos>, Integer>> linkList) {
+        List<TechniqueAction.CellColoring> techniqueCellColoring = new ArrayList<>();
+        int nums = 0;
+        CellSet cells = CellSet.EMPTY;
+        for (int color = 0; color <= 1; color++) {
+            for (int i = 0; i < size; i++) {
+                int node = chain[i];
+                if (coloring[node] == color)
+                    techniqueCellColoring.add(new TechniqueAction.CandidatesColoring(Set.of(Pos.of(SudokuLayout.nodeIndex(node))), color == 0 ? Color.YELLOW : Color.GREEN, Set.of(SudokuLayout.nodeDigit(node))));
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            nums |= CandidateUtils.bit(SudokuLayout.nodeDigit(chain[i]));
+            cells = cells.with(SudokuLayout.nodeIndex(chain[i]));
+        }
+        for (Pair<Pair<Pos, Pos>, Integer> link : linkList)
+            techniqueCellColoring.add(new TechniqueAction.LineColoring(List.of(link.getFirst()), Color.BLUE, link.getSecond(), false));
+
+        for (; nums != 0; nums &= nums - 1) {
+            int num = CandidateUtils.first(nums);
+            CellSet colorGroup0 = getColorGroup(coloring, chain, size, 0, num);
+            CellSet colorGroup1 = getColorGroup(coloring, chain, size, 1, num);
+            Optional<TechniqueAction> techniqueAction = hasDuplicateInUnit(sudoku, colorGroup0, colorGroup1, num, techniqueCellColoring, "3D Medusa");
+            if(techniqueAction.isPresent())
+                return techniqueAction;
+            techniqueAction = eliminateFromOutsideNeighboringCells(sudoku, num, colorGroup0, colorGroup1, techniqueCellColoring, "3D Medusa");
+            if(techniqueAction.isPresent())
+                return techniqueAction;
+        }
+        Optional<TechniqueAction> techniqueAction = hasColorConflictInCell(sudoku, coloring, cells, techniqueCellColoring);
+        if (techniqueAction.isPresent()) return techniqueAction;
+        techniqueAction = eliminateExtraCandidatesFromBicolorCells(sudoku, coloring, cells, techniqueCellColoring);
+        if (techniqueAction.isPresent()) return techniqueAction;
+        techniqueAction = removeUncoloredDueToUnitAndCellConflict(sudoku, coloring, chain, size, cells, techniqueCellColoring);
+        if (techniqueAction.isPresent()) return techniqueAction;
+        return removeUncoloredDueToAllCandidatesSeeSameColor(sudoku, coloring, chain, size, cells, techniqueCellColoring);
+    }
+
+    // Nodes of the same digit strongly linked to the cell, the only other place for the digit in one of its units
+    private static int[] findLinkNodes(ISudoku sudoku, int index, int num) {
+        int[] links = new int[3];
+        int count = 0;
+        for (int i = 0; i < 3; i++) {
+            int unit = SudokuLayout.CELL_UNITS[index][i];
+            int positions = sudoku.getPositionMask(unit, num) & ~(1 << SudokuLayout.UNIT_POSITIONS[index][i]);
+            if (Integer.bitCount(positions) != 1)
+                continue;
+            int link = SudokuLayout.node(sudoku.getUnitIndices(unit)[Integer.numberOfTrailingZeros(positions)], num);
+            boolean duplicate = false;
+            for (int j = 0; j < count; j++)
+                duplicate |= links[j] == link;
+            if (!duplicate)
+                links[count++] = link;
+        }
+        return Arrays.copyOf(links, count);
+    }
+
+    private static CellSet getColorGroup(int[] coloring, int[] chain, int size, int color, int num) {
+        CellSet colorGroup = CellSet.EMPTY;
+        for (int i = 0; i < size; i++) {
+            if (coloring[chain[i]] == color && SudokuLayout.nodeDigit(chain[i]) == num)
+                colorGroup = colorGroup.with(SudokuLayout.nodeIndex(chain[i]));
+        }
+        return colorGroup;
+    }
+
+    // Digits of the cell whose node has the color
+    private static int getColorMask(int[] coloring, int index, int color) {
+        int mask = 0;
+        for (int num = 1; num <= ISudoku.SUDOKU_SIZE; num++) {
+            if (coloring[SudokuLayout.node(index, num)] == color)
+                mask |= CandidateUtils.bit(num);
+        }
+        return mask;
+    }
+
+    private static Optional<TechniqueAction> hasColorConflictInCell(ISudoku sudoku, int[] coloring, CellSet cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
         // Rule 1
         // Check for same color appearing twice or more in a cell
-        for(int i=0; i<= 1; i++) {
-            int finalI = i;
-            List<CellNumPair> color = coloring.entrySet().stream()
-                    .filter(e -> e.getValue() == finalI)
-                    .map(Map.Entry::getKey)
-                    .toList();
-            for(ICell cell : cells) {
-                List<CellNumPair> colorPerCell = color.stream().filter(pair -> pair.getCell() == cell).toList();
-                if(colorPerCell.size() > 1){
-                    techniqueCellColoring.addAll(
-                            colorPerCell.stream()
-                                    .collect(Collectors.groupingBy(CellNumPair::getNum))
-                                    .entrySet().stream()
-                                    .map(keyValue -> new TechniqueAction.CandidatesColoring(keyValue.getValue().stream().map(entry -> entry.cell.getPos()).collect(Collectors.toSet()), Color.RED, List.of(keyValue.getKey()))
-                                    ).toList());
-                    return Optional.of(TechniqueAction.builder()
+        for(int color = 0; color <= 1; color++) {
+            for (int index = cells.next(0); index >= 0; index = cells.next(index + 1)) {
+                int colorMask = getColorMask(coloring, index, color);
+                if(Integer.bitCount(colorMask) > 1){
+                    Pos pos = Pos.of(index);
+                    for (int mask = colorMask; mask != 0; mask &= mask - 1)
+                        techniqueCellColoring.add(new TechniqueAction.CandidatesColoring(Set.of(pos), Color.RED, List.of(CandidateUtils.first(mask))));
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("3D Medusa")
-                            .description("In cell " + cell.getPos() + " both " + colorPerCell.get(0).getNum() + " and " + colorPerCell.get(1).getNum() + " get the same color")
-                            .removeCandidatesMap(
-                                    colorPerCell.stream()
-                                            .collect(Collectors.groupingBy(CellNumPair::getCell))
-                                            .entrySet().stream()
-                                            .collect(Collectors.toMap(entry -> entry.getKey().getPos(), entry -> entry.getValue().stream().map(CellNumPair::getNum).collect(Collectors.toSet())))
-                            ).cellColorings(techniqueCellColoring).build());
+                            .description(() -> "In cell " + pos + " both " + CandidateUtils.first(colorMask) + " and " + CandidateUtils.first(colorMask & (colorMask - 1)) + " get the same color")
+                            .removeCandidatesMap(Map.of(pos, CandidateUtils.toSet(colorMask)))
+                            .colorings(() -> techniqueCellColoring).build());
                 }
             }
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> hasDuplicateInUnit(Collection<ICell> colorGroup0, Collection<ICell> colorGroup1, int num, List<TechniqueAction.CellColoring> techniqueCellColoring, String name) {
+    private static Optional<TechniqueAction> hasDuplicateInUnit(ISudoku sudoku, CellSet colorGroup0, CellSet colorGroup1, int num, List<TechniqueAction.CellColoring> techniqueCellColoring, String name) {
         // Rule 2
         // Check for color appearing twice in unit [row, column, square]
-        for (Collection<ICell> colorGroup : List.of(colorGroup0, colorGroup1)) {
-            Map<Integer, ICell> rowsSeen = new HashMap<>();
-            Map<Integer, ICell> colsSeen = new HashMap<>();
-            Map<Pair<Integer, Integer>, ICell> squaresSeen = new HashMap<>();
-            for (ICell cell : colorGroup) {
-                Pair<Integer, Integer> pair = new Pair<>(cell.getX() / 3, cell.getY() / 3);
-
-                ICell rowConflict = rowsSeen.get(cell.getY());
-                ICell colConflict = colsSeen.get(cell.getX());
-                ICell squareConflict = squaresSeen.get(pair);
-
-                if (rowConflict != null) {
-                    techniqueCellColoring.add(
-                            new TechniqueAction.CandidatesColoring(Set.of(rowConflict.getPos(), cell.getPos()), Color.RED, Set.of(num))
-                    );
-                    return Optional.of(TechniqueAction.builder()
-                            .name(name)
-                            .description("In row " + cell.getY() + " both " + rowConflict.getPos() + " and " + cell.getPos() + " get the same color")
-                            .removeCandidatesMap(Map.of(rowConflict.getPos(), Set.of(num), cell.getPos(), Set.of(num)))
-                            .cellColorings(techniqueCellColoring).build());
-                }
-                else if (colConflict != null){
-                    techniqueCellColoring.add(
-                            new TechniqueAction.CandidatesColoring(Set.of(colConflict.getPos(), cell.getPos()), Color.RED, Set.of(num))
-                    );
-                    return Optional.of(TechniqueAction.builder()
-                            .name(name)
-                            .description("In column " + cell.getX() + " both " + colConflict.getPos() + " and " + cell.getPos() + " get the same color")
-                            .removeCandidatesMap(Map.of(colConflict.getPos(), Set.of(num), cell.getPos(), Set.of(num)))
-                            .cellColorings(techniqueCellColoring).build());
-                }
-                else if (squareConflict != null) {
-                    techniqueCellColoring.add(
-                            new TechniqueAction.CandidatesColoring(Set.of(squareConflict.getPos(), cell.getPos()), Color.RED, Set.of(num))
-                    );
-                    return Optional.of(TechniqueAction.builder()
-                            .name(name)
-                            .description("In square " + pair + " both " + squareConflict.getPos() + " and " + cell.getPos() + " get the same color")
-                            .removeCandidatesMap(Map.of(squareConflict.getPos(), Set.of(num), cell.getPos(), Set.of(num)))
-                            .cellColorings(techniqueCellColoring).build());
-                }
-                rowsSeen.put(cell.getY(), cell);
-                colsSeen.put(cell.getX(), cell);
-                squaresSeen.put(pair, cell);
+        for (CellSet colorGroup : List.of(colorGroup0, colorGroup1)) {
+            for (int unit = 0; unit < SudokuLayout.UNIT_COUNT; unit++) {
+                CellSet conflict = colorGroup.intersect(SudokuLayout.UNIT_SETS[unit]);
+                if (conflict.size() < 2)
+                    continue;
+                int first = conflict.next(0);
+                ICell firstCell = sudoku.getCell(SudokuLayout.x(first), SudokuLayout.y(first));
+                int second = conflict.next(first + 1);
+                ICell cell = sudoku.getCell(SudokuLayout.x(second), SudokuLayout.y(second));
+                String unitName;
+                if (unit < SudokuLayout.COLUMN_OFFSET)
+                    unitName = "row " + cell.getY();
+                else if (unit < SudokuLayout.SQUARE_OFFSET)
+                    unitName = "column " + cell.getX();
+                else
+                    unitName = "square " + new Pair<>(cell.getX() / 3, cell.getY() / 3);
+                techniqueCellColoring.add(
+                        new TechniqueAction.CandidatesColoring(Set.of(firstCell.getPos(), cell.getPos()), Color.RED, Set.of(num))
+                );
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
+                        .name(name)
+                        .description(() -> "In " + unitName + " both " + firstCell.getPos() + " and " + cell.getPos() + " get the same color")
+                        .removeCandidatesMap(Map.of(firstCell.getPos(), Set.of(num), cell.getPos(), Set.of(num)))
+                        .colorings(() -> techniqueCellColoring).build());
             }
         }
         return Optional.empty();
     }
 
 
-    private static Optional<TechniqueAction> eliminateExtraCandidatesFromBicolorCells(Map<CellNumPair, Integer> coloring, Set<ICell> cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
+    private static Optional<TechniqueAction> eliminateExtraCandidatesFromBicolorCells(ISudoku sudoku, int[] coloring, CellSet cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
         // Rule 3
         // Check two colors in a cell with two candidates
-        for(ICell cell : cells){
-            CellNumPair color0 = coloring.entrySet().stream()
-                    .filter(e -> e.getValue() == 0)
-                    .map(Map.Entry::getKey)
-                    .filter(pair -> pair.getCell() == cell)
-                    .findFirst().orElse(null);
-            CellNumPair color1 = coloring.entrySet().stream()
-                    .filter(e -> e.getValue() == 1)
-                    .map(Map.Entry::getKey)
-                    .filter(pair -> pair.getCell() == cell)
-                    .findFirst().orElse(null);
-            if(color0 != null && color1 != null){
-                if(cell.getCandidates().size() > 2){
-                    Set<Integer> otherCandidates = cell.getCandidates().stream().filter(n -> n != color0.getNum() && n != color1.getNum()).collect(Collectors.toSet());
-                    techniqueCellColoring.add(
-                            new TechniqueAction.CandidatesColoring(Set.of(cell.getPos()), Color.RED, otherCandidates)
-                    );
-                    return Optional.of(TechniqueAction.builder()
-                            .name("3D Medusa")
-                            .description("Eliminate " + otherCandidates + " from " + cell.getPos() + " due to two colors in a cell with two candidates")
-                            .removeCandidatesMap(Map.of(cell.getPos(), otherCandidates))
-                            .cellColorings(techniqueCellColoring).build());
-                }
+        for (int index = cells.next(0); index >= 0; index = cells.next(index + 1)) {
+            ICell cell = sudoku.getCell(index);
+            int color0 = getColorMask(coloring, index, 0);
+            int color1 = getColorMask(coloring, index, 1);
+            if(color0 != 0 && color1 != 0 && cell.getCandidateCount() > 2){
+                int bicolor = Integer.lowestOneBit(color0) | Integer.lowestOneBit(color1);
+                Set<Integer> otherCandidates = CandidateUtils.toSet(cell.getCandidateMask() & ~bicolor);
+                techniqueCellColoring.add(
+                        new TechniqueAction.CandidatesColoring(Set.of(cell.getPos()), Color.RED, otherCandidates)
+                );
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
+                        .name("3D Medusa")
+                        .description(() -> "Eliminate " + otherCandidates + " from " + cell.getPos() + " due to two colors in a cell with two candidates")
+                        .removeCandidatesMap(Map.of(cell.getPos(), otherCandidates))
+                        .colorings(() -> techniqueCellColoring).build());
             }
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> eliminateFromOutsideNeighboringCells(Set<ICell> emptyCells, int num, Collection<ICell> colorGroup0, Collection<ICell> colorGroup1, Set<ICell> group, List<TechniqueAction.CellColoring> techniqueCellColoring, String name) {
+    private static Optional<TechniqueAction> eliminateFromOutsideNeighboringCells(ISudoku sudoku, int num, CellSet colorGroup0, CellSet colorGroup1, List<TechniqueAction.CellColoring> techniqueCellColoring, String name) {
         // Rule 4
         // Check for two colors neighbouring a non-chain cells
-        for (ICell cell : emptyCells) {
-            if (!group.contains(cell) && cell.getCandidates().contains(num) &&
-                    hasConnection(cell, colorGroup0) && hasConnection(cell, colorGroup1)) {
+        CellSet outsideCells = sudoku.getCandidatePlane(num).difference(colorGroup0).difference(colorGroup1);
+        for (int i = outsideCells.next(0); i >= 0; i = outsideCells.next(i + 1)) {
+            CellSet peers = SudokuLayout.PEER_SETS[i];
+            if (peers.intersects(colorGroup0) && peers.intersects(colorGroup1)) {
+                Pos pos = Pos.of(i);
                 techniqueCellColoring.add(
-                        new TechniqueAction.CandidatesColoring(Set.of(cell.getPos()), Color.RED, Set.of(num))
+                        new TechniqueAction.CandidatesColoring(Set.of(pos), Color.RED, Set.of(num))
                 );
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name(name)
-                        .description("Eliminate " + num + " from " + cell.getPos() + " due to two colors neighboring a non-chain cell")
-                        .removeCandidatesMap(Map.of(cell.getPos(), Set.of(num)))
-                        .cellColorings(techniqueCellColoring).build());
+                        .description(() -> "Eliminate " + num + " from " + pos + " due to two colors neighboring a non-chain cell")
+                        .removeCandidatesMap(Map.of(pos, Set.of(num)))
+                        .colorings(() -> techniqueCellColoring).build());
             }
         }
         return Optional.empty();
@@ -347,39 +338,34 @@ public class ChainTechnique {
     // Rule 5 is not tested cause of complexity of test propagation
     // Rule 5 is causing several cells to be to the 3d chain
     // and causes rule 4 to be triggered almost after every rule 5
-    private static Optional<TechniqueAction> removeUncoloredDueToUnitAndCellConflict(Map<CellNumPair, Integer> coloring, Set<ICell> cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
+    private static Optional<TechniqueAction> removeUncoloredDueToUnitAndCellConflict(ISudoku sudoku, int[] coloring, int[] chain, int size, CellSet cells, List<TechniqueAction.CellColoring> techniqueCellColoring) {
         // Rule 5
         // Check for uncolored candidate in a colored cell with a peer with the same candidate colored
 
-        for (ICell cell : cells) {
-            // Extract the colored candidates for the current cell
-            Map<CellNumPair, Integer> coloredCandidates = coloring.entrySet().stream()
-                    .filter(entry -> entry.getKey().getCell() == cell)
-                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (int index = cells.next(0); index >= 0; index = cells.next(index + 1)) {
+            ICell cell = sudoku.getCell(index);
+            int color0 = getColorMask(coloring, index, 0);
+            int color1 = getColorMask(coloring, index, 1);
 
-            // Extract numbers not present in the colored candidates for the current cell
-            Set<Integer> otherCandidates = cell.getCandidates().stream()
-                    .filter(n -> !coloredCandidates.keySet().stream().map(CellNumPair::getNum).collect(Collectors.toSet()).contains(n))
-                    .collect(Collectors.toSet());
+            // Candidates of the cell that are not colored
+            int otherCandidates = cell.getCandidateMask() & ~(color0 | color1);
 
-            int color = coloredCandidates.values().stream().findFirst().orElseThrow(() -> new RuntimeException("No color found for cell for a colored cell"));
+            int color = color0 != 0 ? 0 : 1;
 
             // Check if there's a connection between the current cell and other color group for each other candidate
-            for (Integer otherCandidate : otherCandidates) {
-                Set<ICell> otherColorGroup = coloring.entrySet().stream()
-                        .filter(entry -> entry.getValue() != color && entry.getKey().getNum() == otherCandidate)
-                        .map(entry -> entry.getKey().getCell())
-                        .collect(Collectors.toSet());
+            for (; otherCandidates != 0; otherCandidates &= otherCandidates - 1) {
+                int otherCandidate = CandidateUtils.first(otherCandidates);
+                CellSet otherColorGroup = getColorGroup(coloring, chain, size, 1 - color, otherCandidate);
 
-                if (hasConnection(cell, otherColorGroup)) {
+                if (SudokuLayout.PEER_SETS[index].intersects(otherColorGroup)) {
                     techniqueCellColoring.add(
                             new TechniqueAction.CandidatesColoring(Set.of(cell.getPos()), Color.RED, Set.of(otherCandidate))
                     );
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("3D Medusa")
-                            .description("Eliminate " + otherCandidate + " from " + cell.getPos() + " due to uncolored candidate in a colored cell with a peer with the same candidate colored")
+                            .description(() -> "Eliminate " + otherCandidate + " from " + cell.getPos() + " due to uncolored candidate in a colored cell with a peer with the same candidate colored")
                             .removeCandidatesMap(Map.of(cell.getPos(), Set.of(otherCandidate)))
-                            .cellColorings(techniqueCellColoring).build());
+                            .colorings(() -> techniqueCellColoring).build());
                 }
             }
         }
@@ -388,33 +374,36 @@ public class ChainTechnique {
 
     // Rule 6 is not tested cause of complexity of test propagation
     // Rule 6 is not triggering cause previous rules trigger first
-    private static Optional<TechniqueAction> removeUncoloredDueToAllCandidatesSeeSameColor(ISudoku sudoku, Map<CellNumPair, Integer> coloring, Set<ICell> cells, List<TechniqueAction.CellColoring> techniqueColoring) {
+    private static Optional<TechniqueAction> removeUncoloredDueToAllCandidatesSeeSameColor(ISudoku sudoku, int[] coloring, int[] chain, int size, CellSet cells, List<TechniqueAction.CellColoring> techniqueColoring) {
         // Rule 6
         // Check if uncolored cell has all candidates seeing the same color
-        Set<ICell> uncoloredCells = sudoku.getEmptyCells().stream().filter(cell -> !cells.contains(cell)).collect(Collectors.toSet());
-        for(ICell uncoloredCell : uncoloredCells) {
+        for (int index = 0; index < SudokuLayout.CELL_COUNT; index++) {
+            ICell uncoloredCell = sudoku.getCell(index);
+            if (uncoloredCell.getValue() != ICell.EMPTY || cells.contains(index))
+                continue;
+            CellSet peers = SudokuLayout.PEER_SETS[index];
             for (int color = 0; color <= 1; color++) {
-                int finalColor = color;
-                Set<CellNumPair> neighboringColorGroup = coloring.entrySet().stream()
-                        .filter(entry -> entry.getValue() == finalColor && CellUtils.isPeer(uncoloredCell, entry.getKey().getCell()))
-                        .map(Map.Entry::getKey)
-                        .collect(Collectors.toSet());
-                if (uncoloredCell.getCandidates().stream().allMatch(candidate ->
-                        neighboringColorGroup.stream().anyMatch(pair -> pair.getNum() == candidate)
-                )) {
-
-                    Map<Pos, Set<Integer>> candidatesToRemove = neighboringColorGroup.stream()
-                            .filter(toBeDeleted -> uncoloredCell.getCandidates().contains(toBeDeleted.getNum()))
-                            .collect(Collectors.groupingBy(pair -> pair.getCell().getPos(), Collectors.mapping(CellNumPair::getNum, Collectors.toSet())));
+                int seenDigits = 0;
+                for (int i = 0; i < size; i++) {
+                    if (coloring[chain[i]] == color && peers.contains(SudokuLayout.nodeIndex(chain[i])))
+                        seenDigits |= CandidateUtils.bit(SudokuLayout.nodeDigit(chain[i]));
+                }
+                if ((uncoloredCell.getCandidateMask() & ~seenDigits) == 0) {
+                    Map<Pos, Set<Integer>> candidatesToRemove = new HashMap<>();
+                    for (int i = 0; i < size; i++) {
+                        int node = chain[i];
+                        if (coloring[node] == color && peers.contains(SudokuLayout.nodeIndex(node)) && uncoloredCell.hasCandidate(SudokuLayout.nodeDigit(node)))
+                            candidatesToRemove.computeIfAbsent(Pos.of(SudokuLayout.nodeIndex(node)), _ -> new HashSet<>()).add(SudokuLayout.nodeDigit(node));
+                    }
                     techniqueColoring.addAll(
                             candidatesToRemove.entrySet().stream()
                                     .map(entry -> new TechniqueAction.CandidatesColoring(Set.of(entry.getKey()), Color.RED, entry.getValue())
                                     ).toList());
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("3D Medusa")
-                            .description("Eliminate " + candidatesToRemove.keySet() + " from " + uncoloredCell.getPos() + " due to all candidates seeing the same color")
+                            .description(() -> "Eliminate " + candidatesToRemove.keySet() + " from " + uncoloredCell.getPos() + " due to all candidates seeing the same color")
                             .removeCandidatesMap(candidatesToRemove)
-                            .cellColorings(techniqueColoring).build());
+                            .colorings(() -> techniqueColoring).build());
                 }
             }
         }
@@ -427,6 +416,8 @@ public class ChainTechnique {
     // X-Cycles
     public static Optional<TechniqueAction> xCycle(ISudoku sudoku) {
         for(int num =1; num <= ISudoku.SUDOKU_SIZE; num ++){
+            if (!sudoku.isDigitChanged(num))
+                continue;
             Set<Pair<ICell, ICell>> strongLinks = generateStrongLinks(sudoku, num);
             for(Pair<ICell, ICell> strongLink: strongLinks){
                 List<Link> cycle = new ArrayList<>();
@@ -493,7 +484,7 @@ public class ChainTechnique {
             visited.remove(possibleLink.end);
         }
         Set<ICell> commonPeers = getCommonPeers(sudoku, List.of(cycle.getFirst().start, current));
-        commonPeers = commonPeers.stream().filter(c -> c.getCandidates().contains(num)).collect(Collectors.toSet());
+        commonPeers = commonPeers.stream().filter(c -> c.hasCandidate(num)).collect(Collectors.toSet());
         if(!commonPeers.isEmpty()){
             ICell commonPeer = commonPeers.iterator().next();
             if(strongLinks.stream().map(l-> List.of(l.getFirst(), l.getSecond())).anyMatch(l ->
@@ -511,15 +502,15 @@ public class ChainTechnique {
     private static Set<Pair<ICell, ICell>> generateStrongLinks(ISudoku sudoku, int num) {
         Set<Pair<ICell, ICell>> strongLinks = new HashSet<>();
         for(int i=0; i<ISudoku.SUDOKU_SIZE;i++){
-            List<ICell> row = Arrays.stream(sudoku.getRow(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> row = Arrays.stream(sudoku.getRow(i)).filter(c -> c.hasCandidate(num)).toList();
             if(row.size() == 2){
                 strongLinks.add(Pair.create(row.getFirst(), row.getLast()));
             }
-            List<ICell> col = Arrays.stream(sudoku.getColumn(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> col = Arrays.stream(sudoku.getColumn(i)).filter(c -> c.hasCandidate(num)).toList();
             if(col.size() == 2){
                 strongLinks.add(Pair.create(col.getFirst(), col.getLast()));
             }
-            List<ICell> square = Arrays.stream(sudoku.getSquare(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> square = Arrays.stream(sudoku.getSquare(i)).filter(c -> c.hasCandidate(num)).toList();
             if(square.size() == 2){
                 strongLinks.add(Pair.create(square.getFirst(), square.getLast()));
             }
@@ -537,11 +528,11 @@ public class ChainTechnique {
         if(startLink.type == endLink.type){
             // Discontinuous cycle
             if(startLink.type == LinkType.STRONG){
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("X-Cycle")
-                        .description("Cell " + startLink.start.getPos() + " has to be " + num)
+                        .description(() -> "Cell " + startLink.start.getPos() + " has to be " + num)
                         .setValueMap(Map.of(startLink.start.getPos(), num))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.BLUE, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -550,11 +541,11 @@ public class ChainTechnique {
                         )).build());
             }
             else {
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("X-Cycle")
-                        .description("Eliminate " + num + " from " + startLink.start.getPos())
+                        .description(() -> "Eliminate " + num + " from " + startLink.start.getPos())
                         .removeCandidatesMap(Map.of(startLink.start.getPos(), Set.of(num)))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.GREEN, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -569,22 +560,22 @@ public class ChainTechnique {
             List<Pair<Pos, Pos>> groupColoring = new ArrayList<>();
             for (Link link : cycle.stream().filter(l -> l.type == LinkType.WEAK).toList()) {
                 Pair<List<ICell>, ISudoku.GroupType> result = findCommon(sudoku, link.start, link.end);
-                List<ICell> common = result.getFirst().stream().filter(c -> c.getCandidates().contains(num)).toList();
+                List<ICell> common = result.getFirst().stream().filter(c -> c.hasCandidate(num)).toList();
                 if(!common.isEmpty()){
                     affectedCells.addAll(common);
                     groupColoring.add(switch (result.getSecond()) {
-                        case ROW -> Pair.create(new Pos(0, link.start.getPos().y()), new Pos(8, link.start.getPos().y()));
-                        case COLUMN -> Pair.create(new Pos(link.start.getPos().x(), 0), new Pos(link.start.getPos().x(), 8));
-                        case SQUARE -> Pair.create(new Pos((link.start.getPos().x() / 3) * 3, (link.start.getPos().y() / 3) * 3), new Pos((link.start.getPos().x() / 3) * 3 + 2, (link.start.getPos().y() / 3) * 3 + 2));
+                        case ROW -> Pair.create(Pos.of(0, link.start.getPos().y()), Pos.of(8, link.start.getPos().y()));
+                        case COLUMN -> Pair.create(Pos.of(link.start.getPos().x(), 0), Pos.of(link.start.getPos().x(), 8));
+                        case SQUARE -> Pair.create(Pos.of((link.start.getPos().x() / 3) * 3, (link.start.getPos().y() / 3) * 3), Pos.of((link.start.getPos().x() / 3) * 3 + 2, (link.start.getPos().y() / 3) * 3 + 2));
                     });
                 }
             }
             if(!affectedCells.isEmpty())
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("X-Cycle")
-                        .description("Eliminate " + num + " from common peers")
+                        .description(() -> "Eliminate " + num + " from common peers")
                         .removeCandidatesMap(affectedCells.stream().collect(Collectors.toMap(ICell::getPos, _ -> Set.of(num))))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.GREEN, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -601,7 +592,7 @@ public class ChainTechnique {
     // This technique is not tested cause of complexity of test
     // XY chains can be a bit tricky and one may cause another to be created or destroyed
     public static Optional<TechniqueAction> xyChain(ISudoku sudoku) {
-        for(ICell cell : sudoku.getEmptyCells().stream().filter(c -> c.getCandidates().size() == 2).toList()){
+        for(ICell cell : sudoku.getEmptyCells().stream().filter(c -> c.getCandidateCount() == 2).toList()){
             for (int candidate: cell.getCandidates()){
                 int otherCandidate = cell.getCandidates().stream()
                         .filter(c -> c != candidate)
@@ -633,9 +624,9 @@ public class ChainTechnique {
         }
         ICell start = chain.getFirst();
         ICell end = chain.getLast();
-        Set<ICell> commonPeers = CellUtils.getPeers(sudoku, start);
-        commonPeers.retainAll(CellUtils.getPeers(sudoku, end));
-        commonPeers = commonPeers.stream().filter(c -> c.getCandidates().contains(otherCandidate)).collect(Collectors.toSet());
+        Set<ICell> commonPeers = CellUtils.getCommonPeers(List.of(start, end))
+                .intersect(sudoku.getCandidatePlane(otherCandidate))
+                .toCells(sudoku);
         if(!commonPeers.isEmpty()){
             List<TechniqueAction.CellColoring> coloringList = weakLinks.stream().map(link -> new TechniqueAction.LineColoring(List.of(link.getSecond()), Color.BLUE, link.getFirst(), true)).collect(Collectors.toList());
             coloringList.addAll(weakLinks.stream().map(link -> new TechniqueAction.CandidatesColoring(Set.of(link.getSecond().getFirst()), Color.BLUE, Set.of(link.getFirst()))).toList());
@@ -644,11 +635,11 @@ public class ChainTechnique {
                     new TechniqueAction.CandidatesColoring(Set.of(start.getPos()), Color.YELLOW, Set.of(otherCandidate)),
                     new TechniqueAction.CandidatesColoring(Set.of(end.getPos()), Color.BLUE, Set.of(otherCandidate)),
                     new TechniqueAction.CandidatesColoring(commonPeers.stream().map(ICell::getPos).collect(Collectors.toSet()), Color.RED, Set.of(otherCandidate))));
-            return Optional.of(TechniqueAction.builder()
+            return Optional.of(TechniqueAction.builder().explaining(sudoku)
                     .name("XY-Chain")
-                    .description("Eliminate " + otherCandidate + " from common peers of " + start.getPos() + " and " + end.getPos())
+                    .description(() -> "Eliminate " + otherCandidate + " from common peers of " + start.getPos() + " and " + end.getPos())
                     .removeCandidatesMap(commonPeers.stream().collect(Collectors.toMap(ICell::getPos, _ -> Set.of(otherCandidate))))
-                    .cellColorings(coloringList).build());
+                    .colorings(() -> coloringList).build());
         }
         return Optional.empty();
     }
@@ -664,8 +655,8 @@ public class ChainTechnique {
         if(currentCandidate == otherCandidate)
             allChains.add(new ArrayList<>(chain));
 
-        List<ICell> peers = CellUtils.getPeers(sudoku, cell).stream()
-                .filter(c -> c.getCandidates().contains(currentCandidate) && c.getCandidates().size() == 2)
+        List<ICell> peers = CellSet.peersOf(cell).intersect(sudoku.getCandidatePlane(currentCandidate)).toCells(sudoku).stream()
+                .filter(c -> c.getCandidateCount() == 2)
                 .toList();
 
         for(ICell peer : peers){
@@ -692,10 +683,10 @@ public class ChainTechnique {
             for (Pos pos4 : nonEmptyPosSet) {
                 if (pos1.x() / 3 == pos4.x() / 3 || pos1.y() / 3 == pos4.y() / 3)
                     continue;
-                Pos pos2 = new Pos(pos4.x(), pos1.y());
+                Pos pos2 = Pos.of(pos4.x(), pos1.y());
                 if (!nonEmptyPosSet.contains(pos2))
                     continue;
-                Pos pos3 = new Pos(pos1.x(), pos4.y());
+                Pos pos3 = Pos.of(pos1.x(), pos4.y());
                 if (!nonEmptyPosSet.contains(pos3))
                     continue;
 
@@ -829,11 +820,11 @@ public class ChainTechnique {
         candidatesToRemove.forEach((pos, candidates) -> colorings.add(new TechniqueAction.CandidatesColoring(Set.of(pos), Color.RED, candidates)));
         Stream.of(pos1, pos2, pos3, pos4).forEach(pos -> colorings.add(new TechniqueAction.GroupColoring(List.of(Pair.create(pos, pos)), Color.CYAN)));
 
-        return Optional.of(TechniqueAction.builder()
+        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                 .name("SK-Loop")
-                .description("Eliminate candidates from SK-Loop formed by " + pos1 + ", " + pos2 + ", " + pos3 + ", " + pos4)
+                .description(() -> "Eliminate candidates from SK-Loop formed by " + pos1 + ", " + pos2 + ", " + pos3 + ", " + pos4)
                 .removeCandidatesMap(candidatesToRemove)
-                .cellColorings(colorings)
+                .colorings(() -> colorings)
                 .build());
     }
 
@@ -878,6 +869,8 @@ public class ChainTechnique {
     // Grouped X-Cycles
     public static Optional<TechniqueAction> groupedXCycle(ISudoku sudoku) {
         for(int num = 1; num <= ISudoku.SUDOKU_SIZE; num++) {
+            if (!sudoku.isDigitChanged(num))
+                continue;
             Set<Pair<GroupCell, GroupCell>> strongLinks = generateGroupedStrongLinks(sudoku, num);
             for(Pair<GroupCell, GroupCell> strongLink: strongLinks){
                 List<GroupLink> cycle = new ArrayList<>();
@@ -935,12 +928,12 @@ public class ChainTechnique {
         if(startLink.type == endLink.type){
             // Disconnect cycle
             if(startLink.type == LinkType.STRONG) {
-                List<ICell> peers = getCommonPeers(sudoku, startLink.start.cells()).stream().filter(c -> c.getCandidates().contains(num)).toList();
-                return Optional.of(TechniqueAction.builder()
+                List<ICell> peers = getCommonPeers(sudoku, startLink.start.cells()).stream().filter(c -> c.hasCandidate(num)).toList();
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Grouped X-Cycle")
-                        .description("One of the cells " + startLink.start.cells().getFirst().getPos() + " has to be " + num)
+                        .description(() -> "One of the cells " + startLink.start.cells().getFirst().getPos() + " has to be " + num)
                         .removeCandidatesMap(peers.stream().collect(Collectors.toMap(ICell::getPos, _ -> Set.of(num))))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.BLUE, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -949,11 +942,11 @@ public class ChainTechnique {
                         )).build());
             }
             else {
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Grouped X-Cycle")
-                        .description("Eliminate " + num + " from " + startLink.start.cells().stream().map(ICell::getPos))
+                        .description(() -> "Eliminate " + num + " from " + startLink.start.cells().stream().map(ICell::getPos).toList())
                         .removeCandidatesMap(startLink.start.cells().stream().collect(Collectors.toMap(ICell::getPos, _ -> Set.of(num))))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.GREEN, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -968,22 +961,22 @@ public class ChainTechnique {
             List<Pair<Pos, Pos>> groupColoring = new ArrayList<>();
             for (GroupLink link : cycle.stream().filter(l -> l.type == LinkType.WEAK).toList()) {
                 Pair<List<ICell>, ISudoku.GroupType> result = findCommon(sudoku, link.start, link.end);
-                List<ICell> common = result.getFirst().stream().filter(c -> c.getCandidates().contains(num)).toList();
+                List<ICell> common = result.getFirst().stream().filter(c -> c.hasCandidate(num)).toList();
                 if(!common.isEmpty()){
                     affectedCells.addAll(common);
                     groupColoring.add(switch (result.getSecond()) {
-                        case ROW -> Pair.create(new Pos(0, link.start.cells().getFirst().getY()), new Pos(8, link.start.cells().getFirst().getY()));
-                        case COLUMN -> Pair.create(new Pos(link.start.cells().getFirst().getX(), 0), new Pos(link.start.cells().getFirst().getX(), 8));
-                        case SQUARE -> Pair.create(new Pos((link.start.cells().getFirst().getX() / 3) * 3, (link.start.cells().getFirst().getY() / 3) * 3), new Pos((link.start.cells().getFirst().getX() / 3) * 3 + 2, (link.start.cells().getFirst().getY() / 3) * 3 + 2));
+                        case ROW -> Pair.create(Pos.of(0, link.start.cells().getFirst().getY()), Pos.of(8, link.start.cells().getFirst().getY()));
+                        case COLUMN -> Pair.create(Pos.of(link.start.cells().getFirst().getX(), 0), Pos.of(link.start.cells().getFirst().getX(), 8));
+                        case SQUARE -> Pair.create(Pos.of((link.start.cells().getFirst().getX() / 3) * 3, (link.start.cells().getFirst().getY() / 3) * 3), Pos.of((link.start.cells().getFirst().getX() / 3) * 3 + 2, (link.start.cells().getFirst().getY() / 3) * 3 + 2));
                     });
                 }
             }
             if(!affectedCells.isEmpty())
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Grouped X-Cycle")
-                        .description("Eliminate " + num + " from common peers")
+                        .description(() -> "Eliminate " + num + " from common peers")
                         .removeCandidatesMap(affectedCells.stream().collect(Collectors.toMap(ICell::getPos, _ -> Set.of(num))))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(col1, Color.YELLOW, Set.of(num)),
                                 new TechniqueAction.CandidatesColoring(col2, Color.GREEN, Set.of(num)),
                                 new TechniqueAction.LineColoring(weakLinks, Color.BLUE, num, true),
@@ -1043,7 +1036,7 @@ public class ChainTechnique {
             cycle.removeLast();
         }
         Set<ICell> commonPeers = getCommonPeers(sudoku, cycle.getFirst().start, current);
-        commonPeers = commonPeers.stream().filter(c -> c.getCandidates().contains(num)).collect(Collectors.toSet());
+        commonPeers = commonPeers.stream().filter(c -> c.hasCandidate(num)).collect(Collectors.toSet());
         if(!commonPeers.isEmpty()){
             ICell commonPeer = commonPeers.iterator().next();
             if(strongLinks.stream().map(l-> List.of(l.getFirst().cells(), l.getSecond().cells())).anyMatch(l ->
@@ -1067,7 +1060,7 @@ public class ChainTechnique {
     private static Set<Pair<GroupCell, GroupCell>> generateGroupedStrongLinks(ISudoku sudoku, int num) {
         Set<Pair<GroupCell, GroupCell>> strongLinks = new HashSet<>();
         for(int i=0; i<ISudoku.SUDOKU_SIZE;i++){
-            List<ICell> row = Arrays.stream(sudoku.getRow(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> row = Arrays.stream(sudoku.getRow(i)).filter(c -> c.hasCandidate(num)).toList();
             if(row.size() == 2){
                 strongLinks.add(Pair.create(
                         new GroupCell(
@@ -1104,7 +1097,7 @@ public class ChainTechnique {
                     ));
                 }
             }
-            List<ICell> col = Arrays.stream(sudoku.getColumn(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> col = Arrays.stream(sudoku.getColumn(i)).filter(c -> c.hasCandidate(num)).toList();
             if(col.size() == 2){
                 strongLinks.add(Pair.create(
                         new GroupCell(
@@ -1141,7 +1134,7 @@ public class ChainTechnique {
                     ));
                 }
             }
-            List<ICell> square = Arrays.stream(sudoku.getSquare(i)).filter(c -> c.getCandidates().contains(num)).toList();
+            List<ICell> square = Arrays.stream(sudoku.getSquare(i)).filter(c -> c.hasCandidate(num)).toList();
             if(square.size() == 2){
                 strongLinks.add(Pair.create(
                         new GroupCell(
@@ -1292,49 +1285,34 @@ public class ChainTechnique {
 
     private static Set<ICell> findLinks(ISudoku sudoku, ICell cell, int num) {
         Set<ICell> links = new HashSet<>();
-        Set<ICell> column = (Arrays.stream(sudoku.getColumn(cell.getX())).filter(c -> c.getCandidates().contains(num) && !cell.equals(c)).collect(Collectors.toSet()));
+        Set<ICell> column = (Arrays.stream(sudoku.getColumn(cell.getX())).filter(c -> c.hasCandidate(num) && !cell.equals(c)).collect(Collectors.toSet()));
         if(column.size() == 1){
             links.addAll(column);
         }
-        Set<ICell> row = Arrays.stream(sudoku.getRow(cell.getY())).filter(c -> c.getCandidates().contains(num) && !cell.equals(c)).collect(Collectors.toSet());
+        Set<ICell> row = Arrays.stream(sudoku.getRow(cell.getY())).filter(c -> c.hasCandidate(num) && !cell.equals(c)).collect(Collectors.toSet());
         if(row.size() == 1){
             links.addAll(row);
         }
-        Set<ICell> square = Arrays.stream(sudoku.getSquare(cell.getX() / 3 + cell.getY() / 3 * 3)).filter(c -> c.getCandidates().contains(num) && !cell.equals(c)).collect(Collectors.toSet());
+        Set<ICell> square = Arrays.stream(sudoku.getSquare(cell.getX() / 3 + cell.getY() / 3 * 3)).filter(c -> c.hasCandidate(num) && !cell.equals(c)).collect(Collectors.toSet());
         if(square.size() == 1){
             links.addAll(square);
         }
         return links;
     }
 
-    private static boolean hasConnection(ICell cell, Collection<ICell> chain) {
-        return chain.stream().anyMatch(c -> CellUtils.isPeer(cell, c));
-    }
-
     private static Set<ICell> getCommonPeers(ISudoku sudoku, List<ICell> cells) {
-        return cells.stream()
-                .flatMap(c -> CellUtils.getPeers(sudoku, c).stream())
-                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()))
-                .entrySet().stream()
-                .filter(e -> e.getValue() == cells.size())
-                .map(Map.Entry::getKey)
-                .collect(Collectors.toSet());
+        return CellUtils.getCommonPeers(cells).toCells(sudoku);
     }
 
 
     private static Set<ICell> getCommonPeers(ISudoku sudoku, GroupCell group1, GroupCell group2) {
-        Set<ICell> commonPeers = new HashSet<>();
+        CellSet commonPeers = CellSet.EMPTY;
         for(Pair<ISudoku.GroupType, Integer> connection1: group1.allowedConnections()){
             for(Pair<ISudoku.GroupType, Integer> connection2: group2.allowedConnections()){
-                Set<ICell> connectionIntersection = Arrays.stream(sudoku.getCells(connection1.getFirst(), connection1.getSecond())).collect(Collectors.toSet());
-                connectionIntersection.retainAll(Arrays.stream(sudoku.getCells(connection2.getFirst(), connection2.getSecond())).collect(Collectors.toSet()));
-                if(!connectionIntersection.isEmpty()){
-                    commonPeers.addAll(connectionIntersection);
-                }
+                commonPeers = commonPeers.union(SudokuLayout.unitSet(connection1.getFirst(), connection1.getSecond())
+                        .intersect(SudokuLayout.unitSet(connection2.getFirst(), connection2.getSecond())));
             }
         }
-        group1.cells().forEach(commonPeers::remove);
-        group2.cells().forEach(commonPeers::remove);
-        return commonPeers;
+        return commonPeers.difference(CellSet.of(group1.cells())).difference(CellSet.of(group2.cells())).toCells(sudoku);
     }
 }
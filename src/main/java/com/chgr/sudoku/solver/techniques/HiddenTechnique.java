@@ -3,7 +3,9 @@ package com.chgr.sudoku.solver.techniques;
 import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
 import com.chgr.sudoku.models.Pos;
+import com.chgr.sudoku.models.SudokuGeometry;
 import com.chgr.sudoku.models.TechniqueAction;
+import com.chgr.sudoku.utils.CandidateUtils;
 import javafx.scene.paint.Color;
 import org.apache.commons.math3.util.CombinatoricsUtils;
 import org.apache.commons.math3.util.Pair;
@@ -17,58 +19,62 @@ public class HiddenTechnique {
     // https://www.sudokuwiki.org/Getting_Started
     // Sections: Last Remaining Cell in a Box & Last Remaining Cell in a Row (or Column)
     public static Optional<TechniqueAction> hiddenSingle(ISudoku sudoku){
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
-            TechniqueAction techniqueAction = checkHiddenSingle(sudoku, i, ISudoku.GroupType.ROW);
-            if(techniqueAction != null){
-                return Optional.of(techniqueAction);
-            }
-            techniqueAction = checkHiddenSingle(sudoku, i, ISudoku.GroupType.COLUMN);
-            if(techniqueAction != null){
-                return Optional.of(techniqueAction);
-            }
-            techniqueAction = checkHiddenSingle(sudoku, i, ISudoku.GroupType.SQUARE);
-            if(techniqueAction != null){
-                return Optional.of(techniqueAction);
+        return hiddenSingles(sudoku, false).stream().findFirst();
+    }
+
+    // Every hidden single on the board, for solving in batches
+    public static List<TechniqueAction> hiddenSingles(ISudoku sudoku) {
+        return hiddenSingles(sudoku, true);
+    }
+
+    private static List<TechniqueAction> hiddenSingles(ISudoku sudoku, boolean all) {
+        List<TechniqueAction> actions = new ArrayList<>();
+        // a cell can be the hidden single of its row, column and square at the same time
+        Set<Integer> placed = new HashSet<>();
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
+            for (ISudoku.GroupType groupType : ISudoku.GroupType.values()) {
+                if (checkHiddenSingles(sudoku, i, groupType, placed, actions, all))
+                    return actions;
             }
         }
-        return Optional.empty();
+        return actions;
     }
 
-    private static TechniqueAction checkHiddenSingle(ISudoku sudoku, int i, ISudoku.GroupType groupType) {
+    // True once the first single is found and only that one is wanted
+    private static boolean checkHiddenSingles(ISudoku sudoku, int i, ISudoku.GroupType groupType, Set<Integer> placed, List<TechniqueAction> actions, boolean all) {
         //foreach digit check if only one cell in the provided group can have that digit as its value
-        ICell[] group = switch (groupType) {
-            case ROW -> sudoku.getRow(i);
-            case COLUMN -> sudoku.getColumn(i);
-            case SQUARE -> sudoku.getSquare(i);
-        };
-        for(int digit : ICell.DIGITS){
-            List<ICell> cellsWithDigit = Arrays.stream(group).filter(c -> c.getCandidates().contains(digit)).toList();
-            if(cellsWithDigit.size() == 1){
-                ICell cell = cellsWithDigit.getFirst();
+        int unit = sudoku.getGeometry().unit(groupType, i);
+        if (!sudoku.isUnitChanged(unit))
+            return false;
+        for(int digit = 1; digit <= sudoku.getGeometry().getSize(); digit++){
+            int positions = sudoku.getPositionMask(unit, digit);
+            if(Integer.bitCount(positions) == 1){
+                int index = sudoku.getUnitIndices(unit)[Integer.numberOfTrailingZeros(positions)];
+                if (!placed.add(index))
+                    continue;
+                ICell cell = sudoku.getCell(index);
+                int value = digit;
 
-                return TechniqueAction.builder()
+                actions.add(TechniqueAction.builder().explaining(sudoku)
                         .name("Hidden Single")
-                        .setValueMap(Map.of(cell.getPos(), digit))
-                        .cellColorings(List.of(
-                                new TechniqueAction.CandidatesColoring(List.of(cell.getPos()), Color.GREEN, List.of(digit)),
-                                new TechniqueAction.GroupColoring(List.of(
-                                        switch (groupType) {
-                                            case ROW -> Pair.create(new Pos(0, i), new Pos(8, i));
-                                            case COLUMN -> Pair.create(new Pos(i, 0), new Pos(i, 8));
-                                            case SQUARE -> Pair.create(new Pos(i%3*3, i/3*3), new Pos(i%3*3+2, i/3*3+2));
-                                        }),
+                        .setValueMap(Map.of(cell.getPos(), value))
+                        .colorings(() -> List.of(
+                                new TechniqueAction.CandidatesColoring(List.of(cell.getPos()), Color.GREEN, List.of(value)),
+                                new TechniqueAction.GroupColoring(List.of(groupBounds(sudoku.getGeometry(), groupType, i)),
                                         Color.YELLOW)
                                 ))
-                        .build();
+                        .build());
+                if (!all)
+                    return true;
             }
         }
-        return null;
+        return false;
     }
 
     // https://www.sudokuwiki.org/Hidden_Candidates#HP
     // Section: Hidden Pairs
     public static Optional<TechniqueAction> hiddenPair(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkHiddenTuple(sudoku, 2, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -85,7 +91,7 @@ public class HiddenTechnique {
     // https://www.sudokuwiki.org/Hidden_Candidates#HT
     // Section: Hidden Triples
     public static Optional<TechniqueAction> hiddenTriple(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkHiddenTuple(sudoku, 3, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -102,7 +108,7 @@ public class HiddenTechnique {
     // https://www.sudokuwiki.org/Hidden_Candidates#HQ
     // Section: Hidden Quads
     public static Optional<TechniqueAction> hiddenQuad(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkHiddenTuple(sudoku, 4, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -117,44 +123,43 @@ public class HiddenTechnique {
     }
 
     private static TechniqueAction checkHiddenTuple(ISudoku sudoku, int num, int i, ISudoku.GroupType groupType) {
-        ICell[] group = switch (groupType) {
-            case ROW -> sudoku.getRow(i);
-            case COLUMN -> sudoku.getColumn(i);
-            case SQUARE -> sudoku.getSquare(i);
-        };
-        Set<Integer> usedDigits = Arrays.stream(group)
-                .map(ICell::getValue)
-                .filter(value -> value != ICell.EMPTY)
-                .collect(Collectors.toSet());
-        List<Integer> availableDigits = ICell.DIGITS.stream()
-                .filter(d -> !usedDigits.contains(d))
-                .toList();
-        if(availableDigits.size() < num)
+        int unit = sudoku.getGeometry().unit(groupType, i);
+        if (!sudoku.isUnitChanged(unit))
             return null;
-        int[] indices = IntStream.range(0, availableDigits.size()).toArray();
-        Iterator<int[]> combinationsIterator = CombinatoricsUtils.combinationsIterator(indices.length, num);
+        int availableMask = sudoku.getGeometry().getAllCandidates() & ~sudoku.getUsedMask(unit);
+        if(Integer.bitCount(availableMask) < num)
+            return null;
+        int[] availableDigits = new int[Integer.bitCount(availableMask)];
+        for (int k = 0; availableMask != 0; availableMask &= availableMask - 1)
+            availableDigits[k++] = CandidateUtils.first(availableMask);
+        Iterator<int[]> combinationsIterator = CombinatoricsUtils.combinationsIterator(availableDigits.length, num);
 
         while (combinationsIterator.hasNext()){
             int[] combinationIndices = combinationsIterator.next();
-            Set<Integer> combination = Arrays.stream(combinationIndices)
-                    .mapToObj(availableDigits::get)
-                    .collect(Collectors.toSet());
-            Set<ICell> cells = Arrays.stream(group)
-                    .filter(cell -> cell.getCandidates().stream().anyMatch(combination::contains))
-                    .collect(Collectors.toSet());
-
-            if(cells.size() != num){
+            int combinationMask = 0;
+            int positions = 0;
+            for (int index : combinationIndices) {
+                combinationMask |= CandidateUtils.bit(availableDigits[index]);
+                positions |= sudoku.getPositionMask(unit, availableDigits[index]);
+            }
+
+            if(Integer.bitCount(positions) != num){
                 continue;
             }
 
-            Set<Integer> candidates = cells.stream()
-                    .flatMap(cell -> cell.getCandidates().stream())
-                    .collect(Collectors.toSet());
+            int[] group = sudoku.getUnitIndices(unit);
+            List<ICell> cells = new ArrayList<>();
+            int candidatesMask = 0;
+            for (; positions != 0; positions &= positions - 1) {
+                ICell cell = sudoku.getCell(group[Integer.numberOfTrailingZeros(positions)]);
+                cells.add(cell);
+                candidatesMask |= cell.getCandidateMask();
+            }
 
-            if(!candidates.equals(combination)){
-                Set<Integer> candidatesToRemove = candidates.stream()
-                        .filter(c -> !combination.contains(c))
-                        .collect(Collectors.toSet());
+            if(candidatesMask != combinationMask){
+                Set<Integer> combination = CandidateUtils.toSet(combinationMask);
+                Set<Integer> candidates = CandidateUtils.toSet(candidatesMask);
+                Set<Integer> candidatesToRemove = CandidateUtils.toSet(candidatesMask & ~combinationMask);
 
                 if(!candidatesToRemove.isEmpty()) {
                     String type = switch (num) {
@@ -163,19 +168,14 @@ public class HiddenTechnique {
                         case 4 -> "Quad";
                         default -> "Tuple";
                     };
-                    return TechniqueAction.builder()
+                    return TechniqueAction.builder().explaining(sudoku)
                             .name("Hidden " + type)
-                            .description("Cells " + cells.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", ")) + " form a hidden " + type + " in" + groupType.name() + " for the candidates " + candidates.stream().map(String::valueOf).collect(Collectors.joining(", ")))
+                            .description(() -> "Cells " + cells.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", ")) + " form a hidden " + type + " in" + groupType.name() + " for the candidates " + candidates.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                             .removeCandidatesMap(cells.stream().collect(Collectors.toMap(ICell::getPos, _ -> candidatesToRemove)))
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(cells.stream().map(ICell::getPos).toList(), Color.GREEN, combination),
                                     new TechniqueAction.CandidatesColoring(cells.stream().map(ICell::getPos).toList(), Color.RED, candidatesToRemove),
-                                    new TechniqueAction.GroupColoring(List.of(
-                                            switch (groupType) {
-                                                case ROW -> Pair.create(new Pos(0, i), new Pos(8, i));
-                                                case COLUMN -> Pair.create(new Pos(i, 0), new Pos(i, 8));
-                                                case SQUARE -> Pair.create(new Pos(i%3*3, i/3*3), new Pos(i%3*3+2, i/3*3+2));
-                                            }),
+                                    new TechniqueAction.GroupColoring(List.of(groupBounds(sudoku.getGeometry(), groupType, i)),
                                             Color.YELLOW)
                             ))
                             .build();
@@ -184,4 +184,15 @@ public class HiddenTechnique {
         }
         return null;
     }
+
+    // Top left and bottom right cell of the group
+    private static Pair<Pos, Pos> groupBounds(SudokuGeometry geometry, ISudoku.GroupType groupType, int i) {
+        int last = geometry.getSize() - 1;
+        int box = geometry.getBoxSize();
+        return switch (groupType) {
+            case ROW -> Pair.create(Pos.of(0, i), Pos.of(last, i));
+            case COLUMN -> Pair.create(Pos.of(i, 0), Pos.of(i, last));
+            case SQUARE -> Pair.create(Pos.of(i%box*box, i/box*box), Pos.of(i%box*box+box-1, i/box*box+box-1));
+        };
+    }
 }
@@ -1,6 +1,7 @@
 package com.chgr.sudoku.solver.techniques;
 
 import com.chgr.sudoku.models.*;
+import com.chgr.sudoku.utils.CandidateUtils;
 import com.chgr.sudoku.utils.CellUtils;
 import javafx.scene.paint.Color;
 import org.apache.commons.math3.util.Combinations;
@@ -14,130 +15,143 @@ import java.util.stream.Stream;
 
 public class IntersectionTechnique {
 
+    // Positions of a row and a column of a square within the square's position mask
+    private static final int SQUARE_ROW = 0b001001001;
+    private static final int SQUARE_COLUMN = 0b000000111;
+
     // https://www.sudokuwiki.org/Intersection_Removal#IR
     // Section: Pointing Pairs, Pointing Triples
     public static Optional<TechniqueAction> pointingTuple(ISudoku sudoku) {
+        return pointingTuples(sudoku, false).stream().findFirst();
+    }
 
-        for (int squareIndex = 0; squareIndex < ISudoku.SUDOKU_SIZE; squareIndex++) {
-            ICell[] square = sudoku.getSquare(squareIndex);
-            List<Set<Integer>> squareRowCandidates = new ArrayList<>();
-            List<Set<Integer>> squareColumnCandidates = new ArrayList<>();
+    // Every pointing tuple on the board, for solving in batches
+    public static List<TechniqueAction> pointingTuples(ISudoku sudoku) {
+        return pointingTuples(sudoku, true);
+    }
 
+    private static List<TechniqueAction> pointingTuples(ISudoku sudoku, boolean all) {
+        List<TechniqueAction> actions = new ArrayList<>();
+        for (int squareIndex = 0; squareIndex < ISudoku.SUDOKU_SIZE; squareIndex++) {
+            int unit = SudokuLayout.SQUARE_OFFSET + squareIndex;
             for (int rowIndex = 0; rowIndex < ISudoku.SQUARE_SIZE; rowIndex++) {
-                squareRowCandidates.add(getCandidateSetByY(square, rowIndex));
-                squareColumnCandidates.add(getCandidateSetByX(square, rowIndex));
+                TechniqueAction techniqueAction = processCandidates(sudoku, unit, squareIndex, SQUARE_ROW << rowIndex, true, rowIndex);
+                if (techniqueAction != null) {
+                    actions.add(techniqueAction);
+                    if (!all)
+                        return actions;
+                }
+            }
+            for (int columnIndex = 0; columnIndex < ISudoku.SQUARE_SIZE; columnIndex++) {
+                TechniqueAction techniqueAction = processCandidates(sudoku, unit, squareIndex, SQUARE_COLUMN << columnIndex * 3, false, columnIndex);
+                if (techniqueAction != null) {
+                    actions.add(techniqueAction);
+                    if (!all)
+                        return actions;
+                }
             }
-            TechniqueAction techniqueAction = processCandidates(sudoku, square, squareIndex, squareRowCandidates, true);
-            if (techniqueAction != null)
-                return Optional.of(techniqueAction);
-            techniqueAction = processCandidates(sudoku, square, squareIndex, squareColumnCandidates, false);
-            if (techniqueAction != null)
-                return Optional.of(techniqueAction);
         }
-
-        return Optional.empty();
+        return actions;
     }
 
-    private static Set<Integer> getCandidateSetByY(ICell[] square, int finalRowIndex) {
-        return Arrays.stream(square)
-                .filter(cell -> cell.getY() % 3 == finalRowIndex)
-                .flatMap(cell -> cell.getCandidates().stream())
-                .collect(Collectors.toSet());
+    private static TechniqueAction processCandidates(ISudoku sudoku, int unit, int squareIndex, int section, boolean isRow, int offset) {
+        int distinctCandidates = getDistinctCandidates(sudoku, unit, section);
+        if (distinctCandidates == 0)
+            return null;
+        return removeCandidatesFromCells(sudoku, sudoku.getUnitIndices(unit), squareIndex, distinctCandidates, isRow, offset);
     }
 
-    private static Set<Integer> getCandidateSetByX(ICell[] square, int finalRowIndex) {
-        return Arrays.stream(square)
-                .filter(cell -> cell.getX() % 3 == finalRowIndex)
-                .flatMap(cell -> cell.getCandidates().stream())
-                .collect(Collectors.toSet());
-    }
-
-    private static TechniqueAction processCandidates(ISudoku sudoku, ICell[] square, int squareIndex, List<Set<Integer>> squareCandidates, boolean isRow) {
-        for (int candidateIndex = 0; candidateIndex < squareCandidates.size(); candidateIndex++) {
-            Set<Integer> currentCandidateSet = squareCandidates.get(candidateIndex);
-            Set<Integer> distinctCandidates = getDistinctCandidates(currentCandidateSet, squareCandidates);
-
-            if (!distinctCandidates.isEmpty()){
-                TechniqueAction techniqueAction = removeCandidatesFromCells(sudoku, square, squareIndex, distinctCandidates, isRow, candidateIndex);
-                if(techniqueAction != null)
-                    return techniqueAction;
-            }
+    // Digits whose remaining positions in the unit all lie inside the section
+    private static int getDistinctCandidates(ISudoku sudoku, int unit, int section) {
+        int distinctCandidates = 0;
+        for (int digit = 1; digit <= ISudoku.SUDOKU_SIZE; digit++) {
+            int positions = sudoku.getPositionMask(unit, digit);
+            if (positions != 0 && (positions & ~section) == 0)
+                distinctCandidates |= CandidateUtils.bit(digit);
         }
-
-        return null;
+        return distinctCandidates;
     }
 
-    private static TechniqueAction removeCandidatesFromCells(ISudoku sudoku, ICell[] square, int squareIndex, Set<Integer> distinctCandidates, boolean isRow, int offset) {
-        int tupleAxis = (isRow ? square[0].getY() : square[0].getX()) + offset;
-        ICell[] cells = isRow ? sudoku.getRow(tupleAxis) : sudoku.getColumn(tupleAxis);
-        int startAxis = isRow ? square[0].getX() : square[0].getY();
-        int endAxis = isRow ? square[8].getX() : square[8].getY();
-        List<ICell> affectedCells = Arrays.stream(cells)
-                .filter(cell -> (isRow?
-                        cell.getX() < startAxis || cell.getX() > endAxis:
-                        cell.getY() < startAxis || cell.getY() > endAxis)
-                ).collect(Collectors.toList());
-
-        Set<Integer> candidatesToBeRemoved = distinctCandidates.stream().filter(candidate -> affectedCells.stream().anyMatch(cell -> cell.getCandidates().contains(candidate))).collect(Collectors.toSet());
-
-        affectedCells.removeIf(cell -> cell.getCandidates().stream().noneMatch(candidatesToBeRemoved::contains));
-
-        List<Pos> pointingCells = Arrays.stream(square)
-                .filter(cell -> cell.getCandidates().stream().anyMatch(candidatesToBeRemoved::contains))
-                .map(ICell::getPos).toList();
+    private static TechniqueAction removeCandidatesFromCells(ISudoku sudoku, int[] square, int squareIndex, int distinctCandidates, boolean isRow, int offset) {
+        int first = square[0];
+        int tupleAxis = (isRow ? SudokuLayout.y(first) : SudokuLayout.x(first)) + offset;
+        int[] line = sudoku.getUnitIndices(isRow ? SudokuLayout.ROW_OFFSET + tupleAxis : SudokuLayout.COLUMN_OFFSET + tupleAxis);
+        int startAxis = isRow ? SudokuLayout.x(first) : SudokuLayout.y(first);
+
+        // Cells of the line outside the square, which are positions startAxis to startAxis + 2 of the line
+        int removeMask = 0;
+        for (int k = 0; k < line.length; k++) {
+            if (k < startAxis || k > startAxis + 2)
+                removeMask |= sudoku.getCell(line[k]).getCandidateMask() & distinctCandidates;
+        }
+        if (removeMask == 0)
+            return null;
+
+        List<ICell> affectedCells = new ArrayList<>();
+        for (int k = 0; k < line.length; k++) {
+            ICell cell = sudoku.getCell(line[k]);
+            if ((k < startAxis || k > startAxis + 2) && (cell.getCandidateMask() & removeMask) != 0)
+                affectedCells.add(cell);
+        }
+        List<Pos> pointingCells = new ArrayList<>();
+        for (int index : square) {
+            ICell cell = sudoku.getCell(index);
+            if ((cell.getCandidateMask() & removeMask) != 0)
+                pointingCells.add(cell.getPos());
+        }
+        Set<Integer> candidatesToBeRemoved = CandidateUtils.toSet(removeMask);
+        Set<Integer> distinct = CandidateUtils.toSet(distinctCandidates);
 
-        return affectedCells.isEmpty() ? null : TechniqueAction.builder()
+        return TechniqueAction.builder().explaining(sudoku)
                 .name("Pointing tuple")
-                .description("Cells " + pointingCells.stream().map(Pos::toString).collect(Collectors.joining(", ")) + " are the only cells in square " + squareIndex + " which have the candidate"+(candidatesToBeRemoved.size()==1?"":"s") + distinctCandidates.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " this creates a pointing tuple in " + (isRow ? "row " : "column ") + tupleAxis + " for the candidates " + distinctCandidates.stream().map(String::valueOf).collect(Collectors.joining(", ")))
+                .description(() -> "Cells " + pointingCells.stream().map(Pos::toString).collect(Collectors.joining(", ")) + " are the only cells in square " + squareIndex + " which have the candidate"+(candidatesToBeRemoved.size()==1?"":"s") + distinct.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " this creates a pointing tuple in " + (isRow ? "row " : "column ") + tupleAxis + " for the candidates " + distinct.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                 .removeCandidatesMap(affectedCells.stream().map(ICell::getPos).collect(Collectors.toMap(pos -> pos, _ -> candidatesToBeRemoved)))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(affectedCells.stream().map(ICell::getPos).toList(), Color.RED, candidatesToBeRemoved),
                         new TechniqueAction.CandidatesColoring(pointingCells, Color.GREEN, candidatesToBeRemoved),
                         new TechniqueAction.GroupColoring(List.of(Pair.create(
-                                new Pos(square[0].getX()/3*3, square[0].getY()/3*3),
-                                new Pos(square[0].getX()/3*3+2, square[0].getY()/3*3+2)
+                                Pos.of(SudokuLayout.x(first)/3*3, SudokuLayout.y(first)/3*3),
+                                Pos.of(SudokuLayout.x(first)/3*3+2, SudokuLayout.y(first)/3*3+2)
                         )), Color.YELLOW)
                         ))
                 .build();
     }
 
 
-    private static Set<Integer> getDistinctCandidates(Set<Integer> currentCandidateSet, List<Set<Integer>> groupCandidates) {
-        return currentCandidateSet.stream()
-                .filter(candidate -> groupCandidates.stream()
-                        .filter(set -> set != currentCandidateSet)
-                        .noneMatch(set -> set.contains(candidate)))
-                .collect(Collectors.toSet());
-    }
 
     // https://www.sudokuwiki.org/Intersection_Removal#IR
     // Section: Box Line Reduction
     public static Optional<TechniqueAction> boxLineReduction(ISudoku sudoku) {
+        return boxLineReductions(sudoku, false).stream().findFirst();
+    }
+
+    // Box line reductions of every row and column, for solving in batches
+    public static List<TechniqueAction> boxLineReductions(ISudoku sudoku) {
+        return boxLineReductions(sudoku, true);
+    }
+
+    private static List<TechniqueAction> boxLineReductions(ISudoku sudoku, boolean all) {
+        List<TechniqueAction> actions = new ArrayList<>();
         for (int i = 0; i < Sudoku.SUDOKU_SIZE; i++) {
-            TechniqueAction techniqueAction = checkBoxLineReduction(sudoku, i, true);
-            if (techniqueAction != null)
-                return Optional.of(techniqueAction);
-            techniqueAction = checkBoxLineReduction(sudoku, i, false);
-            if (techniqueAction != null)
-                return Optional.of(techniqueAction);
+            for (boolean isRow : new boolean[]{true, false}) {
+                TechniqueAction techniqueAction = checkBoxLineReduction(sudoku, i, isRow);
+                if (techniqueAction != null) {
+                    actions.add(techniqueAction);
+                    if (!all)
+                        return actions;
+                }
+            }
         }
-        return Optional.empty();
+        return actions;
     }
 
     private static TechniqueAction checkBoxLineReduction(ISudoku sudoku, int index, boolean isRow) {
-        ICell[] group = isRow ? sudoku.getRow(index) : sudoku.getColumn(index);
-        List<Set<Integer>> groupSectionCandidates = new ArrayList<>();
-        for (int i = 0; i < 3; i++) {
-            int finalI = i;
-            groupSectionCandidates.add(IntStream.range(0, 3).mapToObj(num -> group[num + finalI * 3])
-                    .flatMap(cell -> cell.getCandidates().stream())
-                    .collect(Collectors.toSet()));
-        }
+        int unit = (isRow ? SudokuLayout.ROW_OFFSET : SudokuLayout.COLUMN_OFFSET) + index;
+        // A line's positions are its x (row) or y (column) coordinates, so square i covers bits 3i to 3i + 2
         for (int i = 0; i < 3; i++) {
-            Set<Integer> currentCandidateSet = groupSectionCandidates.get(i);
-            Set<Integer> distinctCandidates = getDistinctCandidates(currentCandidateSet, groupSectionCandidates);
-            if (!distinctCandidates.isEmpty()) {
-                TechniqueAction techniqueAction = removeCandidatesFromSquare(sudoku, group, distinctCandidates, isRow, i);
+            int distinctCandidates = getDistinctCandidates(sudoku, unit, SQUARE_COLUMN << i * 3);
+            if (distinctCandidates != 0) {
+                TechniqueAction techniqueAction = removeCandidatesFromSquare(sudoku, sudoku.getUnitIndices(unit), distinctCandidates, isRow, i);
                 if (techniqueAction != null)
                     return techniqueAction;
             }
@@ -145,32 +159,42 @@ public class IntersectionTechnique {
         return null;
     }
 
-    private static TechniqueAction removeCandidatesFromSquare(ISudoku sudoku, ICell[] group, Set<Integer> distinctCandidates, boolean isRow, int i) {
-        ICell firstCell = group[i * 3];
-        int index = firstCell.getY() / 3 * 3 + firstCell.getX() / 3;
-        ICell[] cells = sudoku.getSquare(index);
-        int limit = isRow ? firstCell.getY() : firstCell.getX();
-        List<ICell> affectedCells = Arrays.stream(cells)
-                .filter(cell -> isRow ?
-                        cell.getY() != limit :
-                        cell.getX() != limit
-                ).collect(Collectors.toList());
-        Set<Integer> candidatesToBeRemoved = distinctCandidates.stream().filter(candidate -> affectedCells.stream().anyMatch(cell -> cell.getCandidates().contains(candidate))).collect(Collectors.toSet());
-
-        affectedCells.removeIf(cell -> cell.getCandidates().stream().noneMatch(candidatesToBeRemoved::contains));
+    private static TechniqueAction removeCandidatesFromSquare(ISudoku sudoku, int[] group, int distinctCandidates, boolean isRow, int i) {
+        int first = group[i * 3];
+        int x = SudokuLayout.x(first);
+        int y = SudokuLayout.y(first);
+        int index = SudokuLayout.square(x, y);
+        int[] cells = sudoku.getUnitIndices(SudokuLayout.SQUARE_OFFSET + index);
+        int limit = isRow ? y : x;
+
+        int removeMask = 0;
+        for (int cellIndex : cells) {
+            if ((isRow ? SudokuLayout.y(cellIndex) : SudokuLayout.x(cellIndex)) != limit)
+                removeMask |= sudoku.getCell(cellIndex).getCandidateMask() & distinctCandidates;
+        }
+        if (removeMask == 0)
+            return null;
+
+        List<ICell> affectedCells = new ArrayList<>();
+        for (int cellIndex : cells) {
+            ICell cell = sudoku.getCell(cellIndex);
+            if ((isRow ? cell.getY() : cell.getX()) != limit && (cell.getCandidateMask() & removeMask) != 0)
+                affectedCells.add(cell);
+        }
+        Set<Integer> candidatesToBeRemoved = CandidateUtils.toSet(removeMask);
 
-        List<Pos> pointingCells = IntStream.range(0, 3).mapToObj(num -> group[num + i * 3].getPos()).toList();
+        List<Pos> pointingCells = IntStream.range(0, 3).mapToObj(num -> sudoku.getCell(group[num + i * 3]).getPos()).toList();
 
-        return affectedCells.isEmpty() ? null : TechniqueAction.builder()
+        return TechniqueAction.builder().explaining(sudoku)
                 .name("Box line reduction")
-                .description("Cells " + pointingCells.stream().map(Pos::toString).collect(Collectors.joining(", ")) + " are the only cells in " + (isRow ? "row " : "column ") + (isRow ? firstCell.getY() : firstCell.getX()) + " which have the candidate" + (candidatesToBeRemoved.size() == 1 ? "" : "s") + candidatesToBeRemoved.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " this creates a box line reduction in square " + index + " for the candidates " + candidatesToBeRemoved.stream().map(String::valueOf).collect(Collectors.joining(", ")))
+                .description(() -> "Cells " + pointingCells.stream().map(Pos::toString).collect(Collectors.joining(", ")) + " are the only cells in " + (isRow ? "row " : "column ") + limit + " which have the candidate" + (candidatesToBeRemoved.size() == 1 ? "" : "s") + candidatesToBeRemoved.stream().map(String::valueOf).collect(Collectors.joining(", ")) + " this creates a box line reduction in square " + index + " for the candidates " + candidatesToBeRemoved.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                 .removeCandidatesMap(affectedCells.stream().map(ICell::getPos).collect(Collectors.toMap(pos -> pos, _ -> candidatesToBeRemoved)))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(affectedCells.stream().map(ICell::getPos).toList(), Color.RED, candidatesToBeRemoved),
                         new TechniqueAction.CandidatesColoring(pointingCells, Color.GREEN, candidatesToBeRemoved),
                         new TechniqueAction.GroupColoring(List.of(isRow ?
-                                        Pair.create(new Pos(0, firstCell.getY()), new Pos(8, firstCell.getY())) :
-                                        Pair.create(new Pos(firstCell.getX(), 0), new Pos(firstCell.getX(), 8)))
+                                        Pair.create(Pos.of(0, y), Pos.of(8, y)) :
+                                        Pair.create(Pos.of(x, 0), Pos.of(x, 8)))
                                 , Color.YELLOW)
                 ))
                 .build();
@@ -181,11 +205,11 @@ public class IntersectionTechnique {
     // Did not implement Quadruple Firework as it is a very rare case and implementing wouldn't be worth it since other techniques can be used to substitute it
     public static Optional<TechniqueAction> firework(ISudoku sudoku) {
         List<ICell> possibleCells = sudoku.getEmptyCells().stream()
-                .filter(cell -> cell.getCandidates().size() >= 3)
+                .filter(cell -> cell.getCandidateCount() >= 3)
                 .toList();
         for (ICell cell : possibleCells){
             List<Integer> candidates = cell.getCandidates().stream().sorted().toList();
-            Combinations combinations = new Combinations(cell.getCandidates().size(), 3);
+            Combinations combinations = new Combinations(cell.getCandidateCount(), 3);
             for(int[] combination : combinations){
                 Set<Integer> combinationCandidates = Arrays.stream(combination).mapToObj(candidates::get).collect(Collectors.toSet());
                 List<ICell> rowCells = Arrays.stream(sudoku.getRow(cell.getY())).filter(c -> c.getX()/3 != cell.getX()/3).toList();
@@ -208,23 +232,23 @@ public class IntersectionTechnique {
                 colorings.add(new TechniqueAction.CandidatesColoring(List.of(cell.getPos(), matchingRowCells.getFirst().getPos(), matchingColumnCells.getFirst().getPos()), Color.GREEN, combinationCandidates));
                 colorings.add(new TechniqueAction.GroupColoring(
                         getConsecutiveRanges(rowCells.stream().map(ICell::getX).filter(x -> x != matchingRowCells.getFirst().getX()).toList())
-                                .stream().map(pair -> Pair.create(new Pos(pair.getFirst(), cell.getY()), new Pos(pair.getSecond(), cell.getY()))).toList()
+                                .stream().map(pair -> Pair.create(Pos.of(pair.getFirst(), cell.getY()), Pos.of(pair.getSecond(), cell.getY()))).toList()
                         , Color.BLUE));
                 colorings.add(new TechniqueAction.GroupColoring(
                         getConsecutiveRanges(columnCells.stream().map(ICell::getY).filter(y -> y != matchingColumnCells.getFirst().getY()).toList())
-                                .stream().map(pair -> Pair.create(new Pos(cell.getX(), pair.getFirst()), new Pos(cell.getX(), pair.getSecond()))).toList()
+                                .stream().map(pair -> Pair.create(Pos.of(cell.getX(), pair.getFirst()), Pos.of(cell.getX(), pair.getSecond()))).toList()
                         , Color.BLUE));
 
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Firework")
-                        .description(MessageFormat.format("Cells {0} and {1} are the only cells in their respective row and column outside square {2} which have the candidates {3}, this creates a firework with cell {4} which is the intersection of the row and column, the cells {0}, {1} and {4} will need to the candidates {3} and the the other candidates are eliminated",
+                        .description(() -> MessageFormat.format("Cells {0} and {1} are the only cells in their respective row and column outside square {2} which have the candidates {3}, this creates a firework with cell {4} which is the intersection of the row and column, the cells {0}, {1} and {4} will need to the candidates {3} and the the other candidates are eliminated",
                                 matchingRowCells.getFirst().getPos(), matchingColumnCells.getFirst().getPos(),
                                 cell.getX()/3 + cell.getY()/3*3,
                                 combinationCandidates.stream().map(String::valueOf).collect(Collectors.joining(", ")),
                                 cell.getPos()
                                 ))
                         .removeCandidatesMap(otherCandidateMap)
-                        .cellColorings(colorings).build());
+                        .colorings(() -> colorings).build());
             }
         }
         return Optional.empty();
@@ -255,11 +279,11 @@ public class IntersectionTechnique {
     public static Optional<TechniqueAction> alignedPairExclusion(ISudoku sudoku) {
         Set<ICell> emptyCells = sudoku.getEmptyCells();
         for (ICell cell : emptyCells) {
-            Set<ICell> cellPeers = CellUtils.getPeers(sudoku, cell);
             for (ICell otherCell : emptyCells) {
                 if (cell == otherCell)
                     continue;
-                Set<ICell> commonPeers = CellUtils.getPeers(sudoku, otherCell).stream().filter(cellPeers::contains).filter(c -> c.getValue() == ICell.EMPTY).collect(Collectors.toSet());
+                Set<ICell> commonPeers = CellUtils.getCommonPeers(List.of(cell, otherCell)).toCells(sudoku);
+                commonPeers.removeIf(c -> c.getValue() != ICell.EMPTY);
                 Set<Set<Integer>> restrictedCandidates = getRestrictedCandidates(commonPeers);
                 List<Pair<Integer, Integer>> pairs = cell.getCandidates().stream()
                         .flatMap(candidate -> otherCell.getCandidates().stream().map(otherCandidate -> Pair.create(candidate, otherCandidate)))
@@ -275,27 +299,27 @@ public class IntersectionTechnique {
                         .filter(candidate -> pairs.stream().noneMatch(pair -> pair.getFirst().equals(candidate)))
                         .toList();
                 if (!candidatesToRemoveFromCell.isEmpty())
-                    return buildAlignedPairExclusionAction(cell, otherCell, commonPeers, candidatesToRemoveFromCell);
+                    return buildAlignedPairExclusionAction(sudoku, cell, otherCell, commonPeers, candidatesToRemoveFromCell);
                 List<Integer> candidatesToRemoveFromOtherCell = otherCell.getCandidates().stream()
                         .filter(candidate -> pairs.stream().noneMatch(pair -> pair.getSecond().equals(candidate)))
                         .toList();
                 if (!candidatesToRemoveFromOtherCell.isEmpty())
-                    return buildAlignedPairExclusionAction(otherCell, cell, commonPeers, candidatesToRemoveFromOtherCell);
+                    return buildAlignedPairExclusionAction(sudoku, otherCell, cell, commonPeers, candidatesToRemoveFromOtherCell);
             }
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> buildAlignedPairExclusionAction(ICell mainCell, ICell otherCell, Set<ICell> commonPeers, List<Integer> candidatesToRemove) {
-        return Optional.of(TechniqueAction.builder()
+    private static Optional<TechniqueAction> buildAlignedPairExclusionAction(ISudoku sudoku, ICell mainCell, ICell otherCell, Set<ICell> commonPeers, List<Integer> candidatesToRemove) {
+        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                 .name("Aligned pair exclusion")
-                .description(MessageFormat.format("Cells {0} and {1} have the candidates {2} and {3} respectively, they share the peers {4} and the candidates {5} cannot be the value for cell {0} cause all combinations with cell {1} will cause a peer cell to have no value",
+                .description(() -> MessageFormat.format("Cells {0} and {1} have the candidates {2} and {3} respectively, they share the peers {4} and the candidates {5} cannot be the value for cell {0} cause all combinations with cell {1} will cause a peer cell to have no value",
                         mainCell.getPos(), otherCell.getPos(),
                         mainCell.getCandidates(), otherCell.getCandidates(),
-                        commonPeers.stream().map(ICell::getPos),
+                        commonPeers.stream().map(ICell::getPos).toList(),
                         candidatesToRemove))
                 .removeCandidatesMap(Map.of(mainCell.getPos(), new HashSet<>(candidatesToRemove)))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(List.of(mainCell.getPos()), Color.RED, candidatesToRemove),
                         new TechniqueAction.GroupColoring(commonPeers.stream().map(ICell::getPos).map(pos -> Pair.create(pos, pos)).toList(), Color.YELLOW),
                         new TechniqueAction.GroupColoring(List.of(Pair.create(mainCell.getPos(), mainCell.getPos()), Pair.create(otherCell.getPos(), otherCell.getPos())), Color.GREY)
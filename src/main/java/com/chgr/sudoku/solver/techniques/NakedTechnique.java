@@ -4,6 +4,7 @@ import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
 import com.chgr.sudoku.models.Pos;
 import com.chgr.sudoku.models.TechniqueAction;
+import com.chgr.sudoku.utils.CandidateUtils;
 import javafx.scene.paint.Color;
 import org.apache.commons.math3.util.CombinatoricsUtils;
 
@@ -15,28 +16,40 @@ public class NakedTechnique {
     // https://www.sudokuwiki.org/Getting_Started
     // Section: The Last Possible Number
     public static Optional<TechniqueAction> nakedSingle(ISudoku sudoku) {
-        Optional<ICell> oCell = Arrays.stream(sudoku.getAllCells()).filter(c -> c.getCandidates().size() == 1).findFirst();
-        if (oCell.isPresent()) {
-            ICell cell = oCell.get();
-            int value = cell.getCandidates().stream().findFirst().orElseThrow();
-            return Optional.of(
-                    TechniqueAction.builder()
+        return nakedSingles(sudoku, false).stream().findFirst();
+    }
+
+    // Every naked single on the board, for solving in batches
+    public static List<TechniqueAction> nakedSingles(ISudoku sudoku) {
+        return nakedSingles(sudoku, true);
+    }
+
+    private static List<TechniqueAction> nakedSingles(ISudoku sudoku, boolean all) {
+        List<TechniqueAction> actions = new ArrayList<>();
+        for (ICell cell : sudoku.getAllCells()) {
+            if (cell.getCandidateCount() != 1 || !sudoku.isCellChanged(sudoku.getGeometry().index(cell.getX(), cell.getY())))
+                continue;
+            int value = CandidateUtils.first(cell.getCandidateMask());
+            actions.add(
+                    TechniqueAction.builder().explaining(sudoku)
                             .name("Naked Single")
-                            .description("Value " + cell.getValue() + " is the only available candidate at cell (" + cell.getX() + "," + cell.getY() + ")" )
+                            .description(() -> "Value " + value + " is the only available candidate at cell (" + cell.getX() + "," + cell.getY() + ")" )
                             .setValueMap(Map.of(cell.getPos(), value))
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(List.of(cell.getPos()), Color.GREEN, List.of(value))
                             ))
                             .build()
             );
+            if (!all)
+                break;
         }
-        return Optional.empty();
+        return actions;
     }
 
     // https://www.sudokuwiki.org/Naked_Candidates#NP
     // Section: Naked Pairs
     public static Optional<TechniqueAction> nakedPair(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkNakedTuple(sudoku, 2, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -53,7 +66,7 @@ public class NakedTechnique {
     // https://www.sudokuwiki.org/Naked_Candidates#NP
     // Section: Naked Triples
     public static Optional<TechniqueAction> nakedTriple(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkNakedTuple(sudoku, 3, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -70,7 +83,7 @@ public class NakedTechnique {
     // https://www.sudokuwiki.org/Naked_Candidates#NP
     // Section: Naked Quads
     public static Optional<TechniqueAction> nakedQuad(ISudoku sudoku) {
-        for(int i=0;i<ISudoku.SUDOKU_SIZE; i++){
+        for(int i=0;i<sudoku.getGeometry().getSize(); i++){
             TechniqueAction techniqueAction = checkNakedTuple(sudoku, 4, i, ISudoku.GroupType.ROW);
             if(techniqueAction != null)
                 return Optional.of(techniqueAction);
@@ -85,19 +98,28 @@ public class NakedTechnique {
     }
 
     private static TechniqueAction checkNakedTuple(ISudoku sudoku, int num, int i, ISudoku.GroupType groupType) {
-        ICell[] group = switch (groupType) {
-            case ROW -> sudoku.getRow(i);
-            case COLUMN -> sudoku.getColumn(i);
-            case SQUARE -> sudoku.getSquare(i);
-        };
-        List<ICell> emptyCells = Arrays.stream(group)
-                .filter(c -> c.getValue() == ICell.EMPTY)
-                .toList();
-        List<ICell> cellsWithNumCandidates = emptyCells.stream()
-                .filter(c -> c.getCandidates().size() <= num)
-                .toList();
-
-        if(cellsWithNumCandidates.size() < num) return null;
+        int unitNumber = sudoku.getGeometry().unit(groupType, i);
+        if (!sudoku.isUnitChanged(unitNumber))
+            return null;
+        int[] unit = sudoku.getUnitIndices(unitNumber);
+        int smallCount = 0;
+        for (int index : unit) {
+            ICell cell = sudoku.getCell(index);
+            if (cell.getValue() == ICell.EMPTY && cell.getCandidateCount() <= num)
+                smallCount++;
+        }
+        if(smallCount < num) return null;
+
+        List<ICell> emptyCells = new ArrayList<>();
+        List<ICell> cellsWithNumCandidates = new ArrayList<>();
+        for (int index : unit) {
+            ICell cell = sudoku.getCell(index);
+            if (cell.getValue() != ICell.EMPTY)
+                continue;
+            emptyCells.add(cell);
+            if (cell.getCandidateCount() <= num)
+                cellsWithNumCandidates.add(cell);
+        }
 
         // Generate all combinations of 'num' empty cells.
         List<Integer> indices = IntStream.range(0, cellsWithNumCandidates.size()).boxed().toList();
@@ -113,12 +135,12 @@ public class NakedTechnique {
                     .toList();
 
             // Collect all the candidates of the cells in this combination.
-            Set<Integer> combinedCandidates = combination.stream()
-                    .flatMap(cell -> cell.getCandidates().stream())
-                    .collect(Collectors.toSet());
+            int combinedMask = 0;
+            for (ICell cell : combination)
+                combinedMask |= cell.getCandidateMask();
 
             // If the number of combined candidates is not equal to 'num', this is not a naked tuple.
-            if (combinedCandidates.size() != num) continue;
+            if (Integer.bitCount(combinedMask) != num) continue;
 
             // Check if this combination is a subset of another larger combination.
             boolean isSubsetOfAnother = false;
@@ -136,22 +158,24 @@ public class NakedTechnique {
             if (isSubsetOfAnother) continue;
 
             // For each cell in the group that is not part of the combination, remove the combined candidates.
+            int finalCombinedMask = combinedMask;
             List<ICell> affectedCells = emptyCells.stream()
-                    .filter(c -> !combination.contains(c) && c.getCandidates().stream().anyMatch(combinedCandidates::contains))
+                    .filter(c -> !combination.contains(c) && (c.getCandidateMask() & finalCombinedMask) != 0)
                     .toList();
 
             if (!affectedCells.isEmpty()) {
+                Set<Integer> combinedCandidates = CandidateUtils.toSet(combinedMask);
                 String type = switch (num) {
                     case 2 -> "Pair";
                     case 3 -> "Triple";
                     case 4 -> "Quad";
                     default -> "Tuple";
                 };
-                return TechniqueAction.builder()
+                return TechniqueAction.builder().explaining(sudoku)
                         .name("Naked " + type)
-                        .description("Cells " + combination.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", ")) + " form a naked " + type + " in" + groupType.name() + " for the candidates " + combinedCandidates.stream().map(String::valueOf).collect(Collectors.joining(", ")))
+                        .description(() -> "Cells " + combination.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", ")) + " form a naked " + type + " in" + groupType.name() + " for the candidates " + combinedCandidates.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                         .removeCandidatesMap(affectedCells.stream().collect(Collectors.toMap(ICell::getPos, _ -> combinedCandidates)))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(combination.stream().map(ICell::getPos).toList(), Color.GREEN, combinedCandidates),
                                 new TechniqueAction.CandidatesColoring(affectedCells.stream().map(ICell::getPos).toList(), Color.RED, combinedCandidates)
                         ))
@@ -13,7 +13,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import static com.chgr.sudoku.utils.CellUtils.getPeers;
+import static com.chgr.sudoku.utils.CellUtils.getCommonPeers;
 import static com.chgr.sudoku.utils.CellUtils.isPeer;
 
 public class RectangleTechnique {
@@ -22,7 +22,7 @@ public class RectangleTechnique {
     // Unique Rectangles
     public static Optional<TechniqueAction> uniqueRectangle(ISudoku sudoku) {
         Map<Set<Integer>, List<ICell>> biValueMap = sudoku.getEmptyCells().stream()
-                .filter(c -> c.getCandidates().size() == 2)
+                .filter(c -> c.getCandidateCount() == 2)
                 .collect(Collectors.groupingBy(ICell::getCandidates));
         for(Set<Integer> candidates : biValueMap.keySet()) {
             List<ICell> cells = biValueMap.get(candidates);
@@ -82,34 +82,33 @@ public class RectangleTechnique {
         Set<Integer> extraCandidates = extractExtraCandidates(cell1.getCandidates(), cell3, cell4);
         //Type 2C
         if(extraCandidates.size() == 1){
-            Set<ICell> commonPeers = getPeers(sudoku, cell3);
-            commonPeers.retainAll(getPeers(sudoku, cell4));
+            Set<ICell> commonPeers = getCommonPeers(List.of(cell3, cell4)).toCells(sudoku);
             Map<Pos, Set<Integer>> removeCandidatesMap = commonPeers.stream().map(cell -> Map.entry(cell.getPos(), cell.getCandidates().stream().filter(extraCandidates::contains).collect(Collectors.toSet())))
                     .filter(entry -> !entry.getValue().isEmpty())
                     .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
-            return Optional.of(TechniqueAction.builder()
+            return Optional.of(TechniqueAction.builder().explaining(sudoku)
                     .name("Unique Rectangle")
-                    .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so value {2} cannot appear in the cells {6} since they see both {0} and {1}",
+                    .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so value {2} cannot appear in the cells {6} since they see both {0} and {1}",
                             cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), removeCandidatesMap.keySet()))
                     .removeCandidatesMap(removeCandidatesMap)
-                    .cellColorings(List.of(
+                    .colorings(() -> List.of(
                             new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
                             new TechniqueAction.CandidatesColoring(removeCandidatesMap.keySet(), Color.RED, extraCandidates)
                     )).build());
         }
         //Type 5
         for(int candidate : cell1.getCandidates()){
-            if(Arrays.stream(sudoku.getRow(cell1.getY())).filter(c -> c.getCandidates().contains(candidate)).count() == 2 &&
-                    Arrays.stream(sudoku.getColumn(cell1.getX())).filter(c -> c.getCandidates().contains(candidate)).count() == 2 &&
-                    Arrays.stream(sudoku.getRow(cell2.getY())).filter(c -> c.getCandidates().contains(candidate)).count() == 2 &&
-                    Arrays.stream(sudoku.getColumn(cell2.getX())).filter(c -> c.getCandidates().contains(candidate)).count() == 2){
+            if(Arrays.stream(sudoku.getRow(cell1.getY())).filter(c -> c.hasCandidate(candidate)).count() == 2 &&
+                    Arrays.stream(sudoku.getColumn(cell1.getX())).filter(c -> c.hasCandidate(candidate)).count() == 2 &&
+                    Arrays.stream(sudoku.getRow(cell2.getY())).filter(c -> c.hasCandidate(candidate)).count() == 2 &&
+                    Arrays.stream(sudoku.getColumn(cell2.getX())).filter(c -> c.hasCandidate(candidate)).count() == 2){
                 int otherCandidate = cell1.getCandidates().stream().filter(c -> c != candidate).findFirst().orElseThrow(() -> new RuntimeException("No other candidate"));
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Unique Rectangle")
-                        .description(MessageFormat.format("Cells {0} and {1} are strongly linked meaning they have the same value. They have 2 possibilities, if the value {2} is the value for {0} and {1} then cells {3} and {4} are forced to have the value {5} which is a deadly pattern since we can switch {0}, {1}, {3} and {4}",
+                        .description(() -> MessageFormat.format("Cells {0} and {1} are strongly linked meaning they have the same value. They have 2 possibilities, if the value {2} is the value for {0} and {1} then cells {3} and {4} are forced to have the value {5} which is a deadly pattern since we can switch {0}, {1}, {3} and {4}",
                                 cell1, cell2, otherCandidate, cell3, cell4, candidate))
                         .setValueMap(Map.of(cell1.getPos(), candidate, cell2.getPos(), candidate))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos()), Color.GREEN, Set.of(candidate)),
                                 new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos()), Color.RED, Set.of(otherCandidate)),
                                 new TechniqueAction.CandidatesColoring(List.of(cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
@@ -155,6 +154,7 @@ public class RectangleTechnique {
             if(cell4.getValue() != ICell.EMPTY || !cell4.getCandidates().containsAll(cell1.getCandidates()))
                 continue;
             Set<Integer> extraCandidates = extractExtraCandidates(cell1.getCandidates(), cell3, cell4);
+            int line = i;
             //Type 2B
             if(extraCandidates.size() == 1){
                 List<Pos> affectedPos = new ArrayList<>();
@@ -167,17 +167,17 @@ public class RectangleTechnique {
                     }
                 }
                 if(!affectedPos.isEmpty())
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so value {2} cannot appear in the cells {6} since it sees both {0} and {1}",
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so value {2} cannot appear in the cells {6} since it sees both {0} and {1}",
                                     cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), affectedPos))
                             .removeCandidatesMap(affectedPos.stream().collect(Collectors.toMap(pos -> pos, _ -> extraCandidates)))
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
                                     new TechniqueAction.CandidatesColoring(affectedPos, Color.RED, extraCandidates),
                                     new TechniqueAction.GroupColoring(List.of(isRow ?
-                                                    Pair.create(new Pos(0, i), new Pos(8, i)) :
-                                                    Pair.create(new Pos(i, 0), new Pos(i, 8)))
+                                                    Pair.create(Pos.of(0, line), Pos.of(8, line)) :
+                                                    Pair.create(Pos.of(line, 0), Pos.of(line, 8)))
                                             , Color.ORANGE)
                             )).build());
             }
@@ -188,45 +188,45 @@ public class RectangleTechnique {
             if (extraCandidates.size() == 2) {
                 Pair<Pos, Map<Pos, Set<Integer>>> result = checkComplementaryCell(extraCandidates, groupCells);
                 if(result != null && !result.getSecond().isEmpty()){
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0}, {1} and {6} are the only cells in {7} {8} that can have the values {2} and the cells {9} cannot have the values {2}",
-                                    cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), result.getFirst(), isRow? "row" : "column", i, result.getSecond().keySet()))
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0}, {1} and {6} are the only cells in {7} {8} that can have the values {2} and the cells {9} cannot have the values {2}",
+                                    cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), result.getFirst(), isRow? "row" : "column", line, result.getSecond().keySet()))
                             .removeCandidatesMap(result.getSecond())
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
                                     new TechniqueAction.CandidatesColoring(result.getSecond().keySet(), Color.RED, extraCandidates),
                                     new TechniqueAction.CandidatesColoring(List.of(result.getFirst()), Color.BLUE, extraCandidates),
                                     new TechniqueAction.GroupColoring(List.of(isRow ?
-                                                    Pair.create(new Pos(0, i), new Pos(8, i)) :
-                                                    Pair.create(new Pos(i, 0), new Pos(i, 8)))
+                                                    Pair.create(Pos.of(0, line), Pos.of(8, line)) :
+                                                    Pair.create(Pos.of(line, 0), Pos.of(line, 8)))
                                             , Color.ORANGE)
                             )).build());
                 }
                 //Type 3 with Triple Pseudo-Cells
                 Pair<List<Pos>, Map<Pos, Set<Integer>>> pairResult = checkComplementaryPair(extraCandidates, groupCells);
                 if(pairResult != null && !pairResult.getSecond().isEmpty()) {
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0}, {1}, {6} and {7} are the only cells in {8} {9} that can have the values {2} and the cells {10} cannot have the values {2}",
-                                    cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), pairResult.getFirst().get(0), pairResult.getFirst().get(1), isRow ? "row" : "column", i, pairResult.getSecond().keySet()))
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0}, {1}, {6} and {7} are the only cells in {8} {9} that can have the values {2} and the cells {10} cannot have the values {2}",
+                                    cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), pairResult.getFirst().get(0), pairResult.getFirst().get(1), isRow ? "row" : "column", line, pairResult.getSecond().keySet()))
                             .removeCandidatesMap(pairResult.getSecond())
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
                                     new TechniqueAction.CandidatesColoring(pairResult.getSecond().keySet(), Color.RED, extraCandidates),
                                     new TechniqueAction.CandidatesColoring(pairResult.getFirst(), Color.BLUE, extraCandidates),
                                     new TechniqueAction.GroupColoring(List.of(isRow ?
-                                                    Pair.create(new Pos(0, i), new Pos(8, i)) :
-                                                    Pair.create(new Pos(i, 0), new Pos(i, 8)))
+                                                    Pair.create(Pos.of(0, line), Pos.of(8, line)) :
+                                                    Pair.create(Pos.of(line, 0), Pos.of(line, 8)))
                                             , Color.ORANGE)
                             )).build());
                 }
             }
             //Type 4 for different square
             for (int candidate : cell1.getCandidates()){
-                if(groupCells.stream().noneMatch(c-> c.getCandidates().contains(candidate))){
+                if(groupCells.stream().noneMatch(c-> c.hasCandidate(candidate))){
                     int otherCandidate = cell1.getCandidates().stream().filter(c -> c != candidate).findFirst().orElseThrow(() -> new RuntimeException("No other candidate"));
-                    return buildType4Result(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, isRow? ISudoku.GroupType.ROW : ISudoku.GroupType.COLUMN);
+                    return buildType4Result(sudoku, cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, isRow? ISudoku.GroupType.ROW : ISudoku.GroupType.COLUMN);
                 }
             }
         }
@@ -245,7 +245,7 @@ public class RectangleTechnique {
                     for(ICell cell : groupCells){
                         if(cell != cell1 && cell != cell2){
                             for(int candidate : extraCandidates){
-                                if(cell.getCandidates().contains(candidate)){
+                                if(cell.hasCandidate(candidate)){
                                     candidateMap.computeIfAbsent(cell.getPos(), _ -> new HashSet<>()).add(candidate);
                                 }
                             }
@@ -271,6 +271,7 @@ public class RectangleTechnique {
             if(cell4.getValue() != ICell.EMPTY || !cell4.getCandidates().containsAll(cell1.getCandidates()))
                 continue;
             Set<Integer> extraCandidates = extractExtraCandidates(cell1.getCandidates(), cell3, cell4);
+            int line = i;
             //Type 2A
             if(extraCandidates.size() == 1){
                 List<Pos> affectedPos = new ArrayList<>();
@@ -291,17 +292,17 @@ public class RectangleTechnique {
                     }
                 }
                 if(!affectedPos.isEmpty())
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0} and {1} form a pointing pair and a Box/Line Reduction with value {2} for the cells {6}",
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5}, so {0} and {1} form a pointing pair and a Box/Line Reduction with value {2} for the cells {6}",
                                     cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), affectedPos))
                             .removeCandidatesMap(affectedPos.stream().collect(Collectors.toMap(pos -> pos, _ -> extraCandidates)))
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos()), Color.YELLOW, cell1.getCandidates()),
                                     new TechniqueAction.CandidatesColoring(affectedPos, Color.RED, extraCandidates),
                                     new TechniqueAction.GroupColoring(List.of(isRow ?
-                                                    Pair.create(new Pos(0, i), new Pos(8, i)) :
-                                                    Pair.create(new Pos(i, 0), new Pos(i, 8)))
+                                                    Pair.create(Pos.of(0, line), Pos.of(8, line)) :
+                                                    Pair.create(Pos.of(line, 0), Pos.of(line, 8)))
                                             , Color.ORANGE)
                             )).build());
             }
@@ -330,24 +331,24 @@ public class RectangleTechnique {
                     if(groupResult != null){
                         colorings.add(new TechniqueAction.CandidatesColoring(List.of(groupResult.getFirst()), Color.BLUE, extraCandidates));
                         colorings.add(new TechniqueAction.GroupColoring(List.of(isRow ?
-                                        Pair.create(new Pos(0, i), new Pos(8, i)) :
-                                        Pair.create(new Pos(i, 0), new Pos(i, 8)))
+                                        Pair.create(Pos.of(0, line), Pos.of(8, line)) :
+                                        Pair.create(Pos.of(line, 0), Pos.of(line, 8)))
                                 , Color.ORANGE));
                         descriptionEndList.add(MessageFormat.format("so cells {0} and {1} form a pointing tuple with cell {2} with values {3} for the cells {4}",
                                 cell3.getPos(), cell4.getPos(), groupResult.getFirst(), extraCandidates, groupResult.getSecond().keySet()));
                     }
                     if(squareResult != null){
                         colorings.add(new TechniqueAction.CandidatesColoring(List.of(squareResult.getFirst()), Color.BLUE, extraCandidates));
-                        colorings.add(new TechniqueAction.GroupColoring(List.of(Pair.create(new Pos(cell3.getX()/3*3, cell3.getY()/3*3), new Pos(cell3.getX()/3*3+2, cell3.getY()/3*3+2))), Color.ORANGE));
+                        colorings.add(new TechniqueAction.GroupColoring(List.of(Pair.create(Pos.of(cell3.getX()/3*3, cell3.getY()/3*3), Pos.of(cell3.getX()/3*3+2, cell3.getY()/3*3+2))), Color.ORANGE));
                         descriptionEndList.add(MessageFormat.format("so cells {0} and {1} form a Box/Line reduction with cell {2} with values {3} for the cells {4}",
                                 cell3.getPos(), cell4.getPos(), squareResult.getFirst(), extraCandidates, squareResult.getSecond().keySet()));
                     }
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5},{6}",
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5},{6}",
                                     cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), String.join(" and ", descriptionEndList)))
                             .removeCandidatesMap(removeCandidateMap)
-                            .cellColorings(colorings).build());
+                            .colorings(() -> colorings).build());
                 }
 
                 //Type 3b with Triple Pseudo-Cells
@@ -365,49 +366,49 @@ public class RectangleTechnique {
                     if(groupPairResult != null){
                         colorings.add(new TechniqueAction.CandidatesColoring(groupPairResult.getFirst(), Color.BLUE, extraCandidates));
                         colorings.add(new TechniqueAction.GroupColoring(List.of(isRow ?
-                                        Pair.create(new Pos(0, cell3.getY()), new Pos(8, cell3.getY())) :
-                                        Pair.create(new Pos(cell3.getX(), 0), new Pos(cell3.getX(), 8)))
+                                        Pair.create(Pos.of(0, cell3.getY()), Pos.of(8, cell3.getY())) :
+                                        Pair.create(Pos.of(cell3.getX(), 0), Pos.of(cell3.getX(), 8)))
                                 , Color.ORANGE));
                         descriptionEndList.add(MessageFormat.format("so cells {0} and {1} form a pointing tuple with cells {2} and {3} with values {4} for the cells {5}",
                                 cell3.getPos(), cell4.getPos(), groupPairResult.getFirst().get(0), groupPairResult.getFirst().get(1), extraCandidates, groupPairResult.getSecond().keySet()));
                     }
                     if(squarePairResult != null){
                         colorings.add(new TechniqueAction.CandidatesColoring(squarePairResult.getFirst(), Color.BLUE, extraCandidates));
-                        colorings.add(new TechniqueAction.GroupColoring(List.of(Pair.create(new Pos(cell3.getX()/3*3, cell3.getY()/3*3), new Pos(cell3.getX()/3*3+2, cell3.getY()/3*3+2))), Color.ORANGE));
+                        colorings.add(new TechniqueAction.GroupColoring(List.of(Pair.create(Pos.of(cell3.getX()/3*3, cell3.getY()/3*3), Pos.of(cell3.getX()/3*3+2, cell3.getY()/3*3+2))), Color.ORANGE));
                         descriptionEndList.add(MessageFormat.format("so cells {0} and {1} form a Box/Line reduction with cells {2} and {3} with values {4} for the cells {5}",
                                 cell3.getPos(), cell4.getPos(), squarePairResult.getFirst().get(0), squarePairResult.getFirst().get(1), extraCandidates, squarePairResult.getSecond().keySet()));
                     }
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Unique Rectangle")
-                            .description(MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5},{6}",
+                            .description(() -> MessageFormat.format("If cell {0} or {1} is not {2} then there is no way to disambiguate the values {3} for the cells {0}, {1}, {4} and {5},{6}",
                                     cell3.getPos(), cell4.getPos(), extraCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), String.join(" and ", descriptionEndList)))
                             .removeCandidatesMap(removeCandidateMap)
-                            .cellColorings(colorings).build());
+                            .colorings(() -> colorings).build());
                 }
             }
             //Type 4 for same square
             for (int candidate : cell1.getCandidates()){
                 int otherCandidate = cell1.getCandidates().stream().filter(c -> c != candidate).findFirst().orElseThrow(() -> new RuntimeException("No other candidate"));
-                if(groupCells.stream().noneMatch(c-> c.getCandidates().contains(candidate))){
-                    return buildType4Result(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, isRow? ISudoku.GroupType.ROW : ISudoku.GroupType.COLUMN);
+                if(groupCells.stream().noneMatch(c-> c.hasCandidate(candidate))){
+                    return buildType4Result(sudoku, cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, isRow? ISudoku.GroupType.ROW : ISudoku.GroupType.COLUMN);
                 }
-                if(squareCells.stream().noneMatch(c-> c.getCandidates().contains(candidate))){
-                    return buildType4Result(cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, ISudoku.GroupType.SQUARE);
+                if(squareCells.stream().noneMatch(c-> c.hasCandidate(candidate))){
+                    return buildType4Result(sudoku, cell1.getPos(), cell2.getPos(), cell3.getPos(), cell4.getPos(), candidate, otherCandidate, ISudoku.GroupType.SQUARE);
                 }
             }
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> buildType4Result(Pos pos1, Pos pos2, Pos pos3, Pos pos4, int candidate, int otherCandidate, ISudoku.GroupType groupType){
-        return Optional.of(TechniqueAction.builder()
+    private static Optional<TechniqueAction> buildType4Result(ISudoku sudoku, Pos pos1, Pos pos2, Pos pos3, Pos pos4, int candidate, int otherCandidate, ISudoku.GroupType groupType){
+        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                 .name("Unique Rectangle")
-                .description(MessageFormat.format("Value {0} is only available in cell {1} or {2} at {3} {4}, so if value {5} is also in one of the two cells then there will be no way to disambiguate the values {0}, {5} for the cells {1}, {2}, {6} and {7}",
+                .description(() -> MessageFormat.format("Value {0} is only available in cell {1} or {2} at {3} {4}, so if value {5} is also in one of the two cells then there will be no way to disambiguate the values {0}, {5} for the cells {1}, {2}, {6} and {7}",
                         candidate, pos3, pos4, groupType.name().toLowerCase(),
                         groupType == ISudoku.GroupType.SQUARE ? pos3.y() / 3 * 3 + pos3.x() / 3 : groupType == ISudoku.GroupType.ROW ? pos3.y() : pos3.x(),
                         otherCandidate, pos1, pos2))
                 .removeCandidatesMap(Map.of(pos3, Set.of(otherCandidate), pos4, Set.of(otherCandidate)))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(List.of(pos3, pos4), Color.RED, Set.of(otherCandidate)),
                         new TechniqueAction.CandidatesColoring(List.of(pos3, pos4), Color.YELLOW, Set.of(candidate)),
                         new TechniqueAction.CandidatesColoring(List.of(pos1, pos2), Color.YELLOW, Set.of(otherCandidate, candidate))
@@ -424,7 +425,7 @@ public class RectangleTechnique {
             for (ICell cell : groupCells){
                 if(cell != matchingCell){
                     for(int candidate : extraCandidates){
-                        if(cell.getCandidates().contains(candidate)){
+                        if(cell.hasCandidate(candidate)){
                             candidatesMap.computeIfAbsent(cell.getPos(), _ -> new HashSet<>()).add(candidate);
                         }
                     }
@@ -451,16 +452,16 @@ public class RectangleTechnique {
                 int otherRow = cell3.getY() == cell1.getY()? cell2.getY() : cell1.getY();
                 cell4 = sudoku.getCell(cell3.getX(), otherRow);
             }
-            if(cell4.getCandidates().stream().anyMatch(candidate -> cell1.getCandidates().contains(candidate))){
+            if(cell4.getCandidates().stream().anyMatch(candidate -> cell1.hasCandidate(candidate))){
                 List<Integer> otherCandidates = cell4.getCandidates().stream()
-                        .filter(candidate -> !cell1.getCandidates().contains(candidate))
+                        .filter(candidate -> !cell1.hasCandidate(candidate))
                         .toList();
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Unique Rectangle")
-                        .description(MessageFormat.format("If cell {0} is not {1} then there is no way to disambiguate the values {2} for the cells {0}, {3}, {4} and {5}",
+                        .description(() -> MessageFormat.format("If cell {0} is not {1} then there is no way to disambiguate the values {2} for the cells {0}, {3}, {4} and {5}",
                                 cell4.getPos(), otherCandidates, cell1.getCandidates(), cell1.getPos(), cell2.getPos(), cell3.getPos()))
                         .removeCandidatesMap(Map.of(cell4.getPos(), cell1.getCandidates()))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(List.of(cell4.getPos()), Color.RED, cell1.getCandidates()),
                                 new TechniqueAction.CandidatesColoring(List.of(cell1.getPos(), cell2.getPos(), cell3.getPos()), Color.YELLOW, cell1.getCandidates())
                         )).build());
@@ -500,9 +501,9 @@ public class RectangleTechnique {
             case COLUMN -> sudoku.getColumn(i);
             case SQUARE -> throw new RuntimeException("Square not supported");
         };
-        for(int num: ICell.DIGITS) {
+        for(int num: IntStream.rangeClosed(1, sudoku.getGeometry().getSize()).toArray()) {
             List<ICell> cellsWithNum = Arrays.stream(group)
-                    .filter(c -> c.getCandidates().contains(num))
+                    .filter(c -> c.hasCandidate(num))
                     .toList();
             if (cellsWithNum.size() != 2)
                 continue;
@@ -527,7 +528,7 @@ public class RectangleTechnique {
             case ROW -> sudoku.getColumn(cell1.getX());
             case COLUMN -> sudoku.getRow(cell1.getY());
             case SQUARE -> throw new RuntimeException("Square not supported");
-        }).filter(c -> c.getCandidates().contains(num) && (cell1.getX()/3 != c.getX()/3 || cell1.getY()/3 != c.getY()/3))
+        }).filter(c -> c.hasCandidate(num) && (cell1.getX()/3 != c.getX()/3 || cell1.getY()/3 != c.getY()/3))
                 .toList();
 
         for(ICell peer : peers) {
@@ -536,17 +537,17 @@ public class RectangleTechnique {
                 case COLUMN -> cell2.getY() / 3 * 3 + peer.getX() / 3;
                 case SQUARE -> throw new RuntimeException("Square not supported");
             };
-            List<ICell> affectedPeerSquareCells = Arrays.stream(sudoku.getSquare(squareNumber)).filter(c -> c.getCandidates().contains(num))
+            List<ICell> affectedPeerSquareCells = Arrays.stream(sudoku.getSquare(squareNumber)).filter(c -> c.hasCandidate(num))
                     .toList();
             if(affectedPeerSquareCells.isEmpty())
                 continue;
             if(affectedPeerSquareCells.stream().allMatch(c -> isPeer(c, peer) || isPeer(c, cell2))) {
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("Rectangle Elimination")
-                        .description(MessageFormat.format("If cell {0} is {1} then cell {2} cannot be {1} and cell {3} has to be {1}. Making it impossible to place {1} in square {4}",
+                        .description(() -> MessageFormat.format("If cell {0} is {1} then cell {2} cannot be {1} and cell {3} has to be {1}. Making it impossible to place {1} in square {4}",
                                 peer.getPos(), num, cell1.getPos(), cell2.getPos(), squareNumber))
                         .removeCandidatesMap(Map.of(peer.getPos(), Set.of(num)))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(List.of(peer.getPos()), Color.RED, List.of(num)),
                                 new TechniqueAction.CandidatesColoring(List.of(cell1.getPos()), Color.GREEN, List.of(num)),
                                 new TechniqueAction.CandidatesColoring(List.of(cell2.getPos()), Color.YELLOW, List.of(num)),
@@ -586,7 +587,7 @@ public class RectangleTechnique {
             int finalI = i;
             List<ICell> group1 = Arrays.stream(group)
                     .filter(c -> groupType == ISudoku.GroupType.ROW ? c.getX() / 3 == finalI : c.getY() / 3 == finalI)
-                    .filter(c -> c.getValue() == ICell.EMPTY && c.getCandidates().size() <= 3)
+                    .filter(c -> c.getValue() == ICell.EMPTY && c.getCandidateCount() <= 3)
                     .toList();
             if(group1.size() < 2)
                 continue;
@@ -643,10 +644,10 @@ public class RectangleTechnique {
             if(cell5.getValue() != ICell.EMPTY || cell6.getValue() != ICell.EMPTY)
                 continue;
             //Type 1
-            Optional<TechniqueAction> result = checkForTypeOne(cells, cell5, cell6, candidates);
+            Optional<TechniqueAction> result = checkForTypeOne(sudoku, cells, cell5, cell6, candidates);
             if(result.isPresent())
                 return result;
-            result = checkForTypeOne(cells, cell6, cell5, candidates);
+            result = checkForTypeOne(sudoku, cells, cell6, cell5, candidates);
             if(result.isPresent())
                 return result;
             //Type 2
@@ -655,16 +656,16 @@ public class RectangleTechnique {
             extraCandidates.removeAll(candidates);
             if(extraCandidates.size() == 1){
                 int extraCandidate = extraCandidates.stream().findFirst().orElseThrow(() -> new RuntimeException("No extra candidate"));
-                Set<ICell> affectedCells = getPeers(sudoku, cell5);
-                affectedCells.retainAll(getPeers(sudoku, cell6));
-                affectedCells.removeIf(c -> c.getValue() != ICell.EMPTY || !c.getCandidates().contains(extraCandidate));
+                Set<ICell> affectedCells = getCommonPeers(List.of(cell5, cell6))
+                        .intersect(sudoku.getCandidatePlane(extraCandidate))
+                        .toCells(sudoku);
                 if(!affectedCells.isEmpty()){
-                    return Optional.of(TechniqueAction.builder()
+                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                             .name("Extended Unique Rectangle")
-                            .description(MessageFormat.format("If neither cell {0} and {1} are not {2} then there is no way to disambiguate the values {3} for the cells {4}, {5}, {6}, {7}, {0} and {1}",
+                            .description(() -> MessageFormat.format("If neither cell {0} and {1} are not {2} then there is no way to disambiguate the values {3} for the cells {4}, {5}, {6}, {7}, {0} and {1}",
                                     cell5.getPos(), cell6.getX(), extraCandidate, candidates, cells.get(0).getPos(), cells.get(1).getPos(), cells.get(2).getPos(), cells.get(3).getPos()))
                             .removeCandidatesMap(affectedCells.stream().collect(Collectors.toMap(ICell::getPos, _ -> extraCandidates)))
-                            .cellColorings(List.of(
+                            .colorings(() -> List.of(
                                     new TechniqueAction.CandidatesColoring(affectedCells.stream().map(ICell::getPos).toList(), Color.RED, extraCandidates),
                                     new TechniqueAction.CandidatesColoring(List.of(cell5.getPos(), cell6.getPos()), Color.ORANGE, extraCandidates),
                                     new TechniqueAction.CandidatesColoring(List.of(cell5.getPos(), cell6.getPos()), Color.YELLOW, candidates),
@@ -676,7 +677,7 @@ public class RectangleTechnique {
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> checkForTypeOne(List<ICell> cells, ICell additionalCell, ICell extraCell, Set<Integer> candidates) {
+    private static Optional<TechniqueAction> checkForTypeOne(ISudoku sudoku, List<ICell> cells, ICell additionalCell, ICell extraCell, Set<Integer> candidates) {
         if(!candidates.containsAll(additionalCell.getCandidates()))
             return Optional.empty();
 
@@ -687,12 +688,12 @@ public class RectangleTechnique {
         Set<Integer> extraCandidates = new HashSet<>(extraCell.getCandidates());
         extraCandidates.removeAll(candidatesToBeRemoved);
 
-        return Optional.of(TechniqueAction.builder()
+        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                 .name("Extended Unique Rectangle")
-                .description(MessageFormat.format("If cell {0} is not {1} then there is no way to disambiguate the values {2} for the cells {3}, {4}, {5}, {6} and {7}",
+                .description(() -> MessageFormat.format("If cell {0} is not {1} then there is no way to disambiguate the values {2} for the cells {3}, {4}, {5}, {6} and {7}",
                         extraCell.getPos(), extraCandidates, candidates, cells.get(0).getPos(), cells.get(1).getPos(), cells.get(2).getPos(), cells.get(3).getPos(), additionalCell.getPos()))
                 .removeCandidatesMap(Map.of(extraCell.getPos(), candidatesToBeRemoved))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(List.of(extraCell.getPos()), Color.RED, candidatesToBeRemoved),
                         new TechniqueAction.CandidatesColoring(List.of(extraCell.getPos()), Color.YELLOW, extraCandidates),
                         new TechniqueAction.CandidatesColoring(List.of(additionalCell.getPos()), Color.YELLOW, candidates),
@@ -720,13 +721,13 @@ public class RectangleTechnique {
             case COLUMN -> sudoku.getColumn(index);
             case SQUARE -> throw new RuntimeException("Square not supported");
         };
-        for (int digit : ICell.DIGITS) {
+        for (int digit : IntStream.rangeClosed(1, sudoku.getGeometry().getSize()).toArray()) {
             List<ICell> cellsWithDigit = Arrays.stream(group)
-                    .filter(c -> c.getCandidates().contains(digit))
+                    .filter(c -> c.hasCandidate(digit))
                     .toList();
             if (cellsWithDigit.size() != 2)
                 continue;
-            for (ICell mainCell : cellsWithDigit.stream().filter(c -> c.getCandidates().size() == 2).toList()) {
+            for (ICell mainCell : cellsWithDigit.stream().filter(c -> c.getCandidateCount() == 2).toList()) {
                 ICell cell2 = cellsWithDigit.stream().filter(c -> c != mainCell).findFirst().orElseThrow(() -> new RuntimeException("No secondary cell"));
                 if (!cell2.getCandidates().containsAll(mainCell.getCandidates()))
                     continue;
@@ -736,7 +737,7 @@ public class RectangleTechnique {
                     case SQUARE -> throw new RuntimeException("Square not supported");
                 };
                 List<ICell> cells3WithDigit = Arrays.stream(cell3Group)
-                        .filter(c -> c != mainCell && c.getCandidates().contains(digit))
+                        .filter(c -> c != mainCell && c.hasCandidate(digit))
                         .toList();
                 if (cells3WithDigit.size() != 1)
                     continue;
@@ -759,7 +760,7 @@ public class RectangleTechnique {
                     continue;
                 //Check for type 2
                 if (cell3.getCandidates().equals(mainCell.getCandidates()) || cell2.getCandidates().equals(mainCell.getCandidates()))
-                    return buildHiddenUniqueRectangleResult(mainCell, cell2, cell3, cell4, digit);
+                    return buildHiddenUniqueRectangleResult(sudoku, mainCell, cell2, cell3, cell4, digit);
                 //Check for type 1
                 ICell[] commonCells24 = switch (groupType) {
                     case ROW -> sudoku.getColumn(cell2.getX());
@@ -771,22 +772,22 @@ public class RectangleTechnique {
                     case COLUMN -> sudoku.getColumn(cell3.getX());
                     case SQUARE -> throw new RuntimeException("Square not supported");
                 };
-                if (Arrays.stream(commonCells24).noneMatch(c -> c != cell2 && c != cell4 && c.getCandidates().contains(digit))
-                        && Arrays.stream(commonCells34).noneMatch(c -> c != cell3 && c != cell4 && c.getCandidates().contains(digit)))
-                    return buildHiddenUniqueRectangleResult(mainCell, cell2, cell3, cell4, digit);
+                if (Arrays.stream(commonCells24).noneMatch(c -> c != cell2 && c != cell4 && c.hasCandidate(digit))
+                        && Arrays.stream(commonCells34).noneMatch(c -> c != cell3 && c != cell4 && c.hasCandidate(digit)))
+                    return buildHiddenUniqueRectangleResult(sudoku, mainCell, cell2, cell3, cell4, digit);
             }
         }
         return Optional.empty();
     }
 
-    private static Optional<TechniqueAction> buildHiddenUniqueRectangleResult(ICell mainCell, ICell cell2, ICell cell3, ICell cell4, int digit) {
+    private static Optional<TechniqueAction> buildHiddenUniqueRectangleResult(ISudoku sudoku, ICell mainCell, ICell cell2, ICell cell3, ICell cell4, int digit) {
         int otherCandidate = mainCell.getCandidates().stream().filter(c -> c != digit).findFirst().orElseThrow(() -> new RuntimeException("No other candidate"));
-        return Optional.of(TechniqueAction.builder()
+        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                 .name("Hidden Unique Rectangle")
-                .description(MessageFormat.format("If cell {0} is {1} then cells {2} and {3} are {4} and cell {5} is {1}. And this will form a deadly rectangle in the cells {0} {2} {3} {5} since by swapping the values {1} and {6} will result in a second solution",
+                .description(() -> MessageFormat.format("If cell {0} is {1} then cells {2} and {3} are {4} and cell {5} is {1}. And this will form a deadly rectangle in the cells {0} {2} {3} {5} since by swapping the values {1} and {6} will result in a second solution",
                         cell4.getPos(), otherCandidate, cell2.getPos(), cell3.getPos(), digit, mainCell.getPos(), otherCandidate))
                 .removeCandidatesMap(Map.of(cell4.getPos(), Set.of(otherCandidate)))
-                .cellColorings(List.of(
+                .colorings(() -> List.of(
                         new TechniqueAction.CandidatesColoring(List.of(cell4.getPos()), Color.RED, Set.of(otherCandidate)),
                         new TechniqueAction.GroupColoring(List.of(
                                 Pair.create(cell2.getPos(), cell2.getPos()),
@@ -1,9 +1,12 @@
 package com.chgr.sudoku.solver.techniques;
 
+import com.chgr.sudoku.models.CellSet;
 import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
 import com.chgr.sudoku.models.Pos;
+import com.chgr.sudoku.models.SudokuLayout;
 import com.chgr.sudoku.models.TechniqueAction;
+import com.chgr.sudoku.utils.CandidateUtils;
 import com.chgr.sudoku.utils.CellUtils;
 import javafx.scene.paint.Color;
 import lombok.Getter;
@@ -48,7 +51,8 @@ public class WingTechnique {
     }
 
     private static Optional<TechniqueAction> checkFish(ISudoku sudoku, boolean isRow, int combSize) {
-        Map<Integer, List<PossibleWing>> map = generatePossibleWings(sudoku, isRow, combSize);
+        // a fish only depends on the candidates of its digit, so unchanged digits are not even collected
+        Map<Integer, List<PossibleWing>> map = generatePossibleWings(sudoku, isRow, combSize, true);
 
         for (Map.Entry<Integer, List<PossibleWing>> entry : map.entrySet()) {
             List<PossibleWing> possibleWings = entry.getValue();
@@ -66,25 +70,21 @@ public class WingTechnique {
                             .collect(Collectors.toSet());
 
                     if (groupIndices.size() == combSize) {
-                        Set<Pos> affectedPos = new HashSet<>();
                         Set<Integer> combinationIndices = combination.stream()
                                 .map(PossibleWing::getRowOrColIndex)
                                 .collect(Collectors.toSet());
 
-                        for (Integer groupIndex : groupIndices) {
-                            ICell[] group = isRow ? sudoku.getColumn(groupIndex) : sudoku.getRow(groupIndex);
-                            for (ICell cell : group) {
-                                int index = isRow ? cell.getY() : cell.getX();
-                                if (!combinationIndices.contains(index)) {
-                                    Set<Integer> candidates = cell.getCandidates();
-                                    Pos position = cell.getPos();
-                                    if(candidates.contains(entry.getKey())){
-                                        affectedPos.add(position);
-                                    }
-                                }
-                            }
-                        }
-                        if(!affectedPos.isEmpty()){
+                        // Cover lines minus base lines, restricted to cells still holding the digit
+                        CellSet cover = CellSet.EMPTY;
+                        for (Integer groupIndex : groupIndices)
+                            cover = cover.union(SudokuLayout.UNIT_SETS[(isRow ? SudokuLayout.COLUMN_OFFSET : SudokuLayout.ROW_OFFSET) + groupIndex]);
+                        CellSet base = CellSet.EMPTY;
+                        for (Integer combinationIndex : combinationIndices)
+                            base = base.union(SudokuLayout.UNIT_SETS[(isRow ? SudokuLayout.ROW_OFFSET : SudokuLayout.COLUMN_OFFSET) + combinationIndex]);
+                        CellSet eliminations = cover.intersect(sudoku.getCandidatePlane(entry.getKey())).difference(base);
+
+                        if(!eliminations.isEmpty()){
+                            Set<Pos> affectedPos = eliminations.toCells(sudoku).stream().map(ICell::getPos).collect(Collectors.toSet());
                             String name = switch (combSize) {
                                 case 2 -> "X-Wing";
                                 case 3 -> "Swordfish";
@@ -94,21 +94,21 @@ public class WingTechnique {
 
                             Set<Pos> fishCells = groupIndices.stream()
                                     .flatMap(index -> combination.stream().map(combin -> isRow ?
-                                            new Pos(index, combin.rowOrColIndex) :
-                                            new Pos(combin.rowOrColIndex, index)
+                                            Pos.of(index, combin.rowOrColIndex) :
+                                            Pos.of(combin.rowOrColIndex, index)
                                     )).collect(Collectors.toSet());
 
-                            return Optional.of(TechniqueAction.builder()
+                            return Optional.of(TechniqueAction.builder().explaining(sudoku)
                                     .name(name)
-                                    .description("Cells: " + fishCells.stream().map(Pos::toString).collect(Collectors.joining(", "))
+                                    .description(() -> "Cells: " + fishCells.stream().map(Pos::toString).collect(Collectors.joining(", "))
                                             + " form a " + name + " on " + (isRow? "rows " : "columns ")
                                             + combinationIndices.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                                     .removeCandidatesMap(affectedPos.stream().collect(Collectors.toMap(pos -> pos, _ -> Set.of(entry.getKey()))))
-                                    .cellColorings(List.of(
+                                    .colorings(() -> List.of(
                                             new TechniqueAction.CandidatesColoring(fishCells, Color.ORANGE, Set.of(entry.getKey())),
                                             new TechniqueAction.GroupColoring(combinationIndices.stream().map(index -> isRow ?
-                                                    Pair.create(new Pos(0, index), new Pos(8, index)) :
-                                                    Pair.create(new Pos(index, 0), new Pos(index, 8))
+                                                    Pair.create(Pos.of(0, index), Pos.of(8, index)) :
+                                                    Pair.create(Pos.of(index, 0), Pos.of(index, 8))
                                             ).toList(), Color.YELLOW),
                                             new TechniqueAction.CandidatesColoring(affectedPos, Color.RED, Set.of(entry.getKey()))
                                     ))
@@ -121,24 +121,23 @@ public class WingTechnique {
         return Optional.empty();
     }
 
-    private static Map<Integer, List<PossibleWing>> generatePossibleWings(ISudoku sudoku, boolean isRow, int combSize) {
+    private static Map<Integer, List<PossibleWing>> generatePossibleWings(ISudoku sudoku, boolean isRow, int combSize, boolean changedDigitsOnly) {
         Map<Integer, List<PossibleWing>> map = new HashMap<>();
 
         for (int i = 0; i < ISudoku.SUDOKU_SIZE; i++) {
-            List<ICell> group = Arrays.stream((isRow ? sudoku.getRow(i) : sudoku.getColumn(i)))
-                    .filter(cell -> cell.getValue() == ICell.EMPTY)
-                    .toList();
+            int unit = (isRow ? SudokuLayout.ROW_OFFSET : SudokuLayout.COLUMN_OFFSET) + i;
             for (int j = 1; j <= ISudoku.SUDOKU_SIZE; j++) {
-                int finalJ = j;
-                List<ICell> cellsContainingCandidate = group.stream()
-                        .filter(cell -> cell.getCandidates().contains(finalJ))
-                        .toList();
-                if (cellsContainingCandidate.size() >= 2 && cellsContainingCandidate.size() <= combSize) {
+                if (changedDigitsOnly && !sudoku.isDigitChanged(j))
+                    continue;
+                // positions in a row are x coordinates, in a column y coordinates
+                int positions = sudoku.getPositionMask(unit, j);
+                int count = Integer.bitCount(positions);
+                if (count >= 2 && count <= combSize) {
                     PossibleWing possibleWing = new PossibleWing();
                     possibleWing.rowOrColIndex = i;
-                    possibleWing.cellIndices = cellsContainingCandidate.stream()
-                            .map(cell -> isRow ? cell.getX() : cell.getY())
-                            .collect(Collectors.toList());
+                    possibleWing.cellIndices = new ArrayList<>(count);
+                    for (; positions != 0; positions &= positions - 1)
+                        possibleWing.cellIndices.add(Integer.numberOfTrailingZeros(positions));
                     map.computeIfAbsent(j, _ -> new ArrayList<>()).add(possibleWing);
                 }
             }
@@ -149,43 +148,38 @@ public class WingTechnique {
     // https://www.sudokuwiki.org/Y_Wing_Strategy
     // Y-Wing
     public static Optional<TechniqueAction> yWing(ISudoku sudoku) {
-        Map<ICell, Set<ICell>> peerMap = new HashMap<>();
-
-        for (ICell cell : sudoku.getEmptyCells()) {
-            peerMap.put(cell, CellUtils.getPeers(sudoku, cell));
-        }
-
         for (ICell pivot : sudoku.getEmptyCells()) {
-            if (pivot.getCandidates().size() == 2) {
+            if (pivot.getCandidateCount() == 2) {
                 List<Integer> pivotCandidates = pivot.getCandidates().stream().toList();
                 Integer A = pivotCandidates.get(0);
                 Integer B = pivotCandidates.get(1);
 
-                List<ICell> possibleWings = peerMap.get(pivot).stream()
-                        .filter(cell -> cell.getCandidates().size() == 2)
-                        .toList();
+                List<ICell> possibleWings = new ArrayList<>();
+                for (int peer : SudokuLayout.PEERS[SudokuLayout.index(pivot.getX(), pivot.getY())]) {
+                    ICell cell = sudoku.getCell(peer);
+                    if (cell.getCandidateCount() == 2)
+                        possibleWings.add(cell);
+                }
 
                 for (ICell wing1 : possibleWings) {
-                    if (wing1.getCandidates().contains(A) && !wing1.getCandidates().contains(B)) {
+                    if (wing1.hasCandidate(A) && !wing1.hasCandidate(B)) {
                         Integer C = wing1.getCandidates().stream().filter(candidate -> !candidate.equals(A)).findFirst().orElse(null);
                         if (C != null) {
                             for (ICell wing2 : possibleWings) {
                                 if (!wing1.equals(wing2) && isNotPeer(wing1.getX(), wing1.getY(), wing2.getX(), wing2.getY())
-                                        && wing2.getCandidates().contains(B) && wing2.getCandidates().contains(C)) {
-                                    Set<ICell> commonPeers = new HashSet<>(peerMap.get(wing1));
-                                    commonPeers.retainAll(peerMap.get(wing2));
-
-                                    List<ICell> toRemove = commonPeers.stream()
-                                            .filter(cell -> cell != pivot && cell.getCandidates().contains(C))
-                                            .toList();
+                                        && wing2.hasCandidate(B) && wing2.hasCandidate(C)) {
+                                    Set<ICell> toRemove = CellUtils.getCommonPeers(List.of(wing1, wing2))
+                                            .intersect(sudoku.getCandidatePlane(C))
+                                            .difference(CellSet.of(pivot))
+                                            .toCells(sudoku);
                                     if(!toRemove.isEmpty()){
                                         Set<Pos> affectedPos = toRemove.stream().map(ICell::getPos).collect(Collectors.toSet());
-                                        return Optional.of(TechniqueAction.builder()
+                                        return Optional.of(TechniqueAction.builder().explaining(sudoku)
                                                 .name("Y-Wing")
-                                                .description("Cells: " + pivot.getPos() + ", " + wing1.getPos() + ", " + wing2.getPos()
+                                                .description(() -> "Cells: " + pivot.getPos() + ", " + wing1.getPos() + ", " + wing2.getPos()
                                                         + " form a Y-Wing on candidates " + A + ", " + B + ", " + C)
                                                 .removeCandidatesMap(affectedPos.stream().collect(Collectors.toMap(pos -> pos, _ -> Set.of(C))))
-                                                .cellColorings(List.of(
+                                                .colorings(() -> List.of(
                                                         new TechniqueAction.CandidatesColoring(Set.of(pivot.getPos(), wing1.getPos(), wing2.getPos()), Color.GREEN, Set.of(A, B, C)),
                                                         new TechniqueAction.CandidatesColoring(affectedPos, Color.RED, Set.of(C))
                                                 ))
@@ -205,18 +199,14 @@ public class WingTechnique {
     // https://www.sudokuwiki.org/XYZ_Wing
     // XYZ-Wing
     public static Optional<TechniqueAction> xyzWing(ISudoku sudoku){
-        Map<ICell, Set<ICell>> peerMap = new HashMap<>();
-
-        for (ICell cell : sudoku.getEmptyCells()) {
-            peerMap.put(cell, CellUtils.getPeers(sudoku, cell));
-        }
-
         for (ICell pivot : sudoku.getEmptyCells()) {
-            if (pivot.getCandidates().size() == 3) {
-                List<ICell> possibleWings = peerMap.get(pivot).stream()
-                        .filter(cell -> cell.getCandidates().size() == 2)
-                        .filter(wing -> pivot.getCandidates().containsAll(wing.getCandidates()))
-                        .toList();
+            if (pivot.getCandidateCount() == 3) {
+                List<ICell> possibleWings = new ArrayList<>();
+                for (int peer : SudokuLayout.PEERS[SudokuLayout.index(pivot.getX(), pivot.getY())]) {
+                    ICell wing = sudoku.getCell(peer);
+                    if (wing.getCandidateCount() == 2 && (wing.getCandidateMask() & ~pivot.getCandidateMask()) == 0)
+                        possibleWings.add(wing);
+                }
 
                 for (int i = 0; i < possibleWings.size(); i++) {
                     for (int j = i + 1; j < possibleWings.size(); j++) {
@@ -228,22 +218,19 @@ public class WingTechnique {
                             allCommonCandidates.retainAll(wing2.getCandidates());
 
                             if (allCommonCandidates.size() == 1) {
-                                Set<ICell> commonPeers = new HashSet<>(peerMap.get(pivot));
-                                commonPeers.retainAll(peerMap.get(wing1));
-                                commonPeers.retainAll(peerMap.get(wing2));
-
                                 Integer candidateToRemove = allCommonCandidates.iterator().next();
-                                Set<Pos> toRemove = commonPeers.stream()
-                                        .filter(cell -> cell.getCandidates().contains(candidateToRemove))
+                                Set<Pos> toRemove = CellUtils.getCommonPeers(List.of(pivot, wing1, wing2))
+                                        .intersect(sudoku.getCandidatePlane(candidateToRemove))
+                                        .toCells(sudoku).stream()
                                         .map(ICell::getPos)
                                         .collect(Collectors.toSet());
                                 if(!toRemove.isEmpty()) {
-                                    return Optional.of(TechniqueAction.builder()
+                                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                                             .name("XYZ-Wing")
-                                            .description("Cells: " + pivot.getPos() + ", " + wing1.getPos() + ", " + wing2.getPos()
+                                            .description(() -> "Cells: " + pivot.getPos() + ", " + wing1.getPos() + ", " + wing2.getPos()
                                                     + " form a XYZ-Wing on candidates " + allCommonCandidates.iterator().next())
                                             .removeCandidatesMap(toRemove.stream().collect(Collectors.toMap(pos -> pos, _ -> Set.of(candidateToRemove))))
-                                            .cellColorings(List.of(
+                                            .colorings(() -> List.of(
                                                     new TechniqueAction.CandidatesColoring(Set.of(pivot.getPos()), Color.YELLOW, allCommonCandidates),
                                                     new TechniqueAction.CandidatesColoring(Set.of(wing1.getPos(), wing2.getPos()), Color.GREEN, allCommonCandidates),
                                                     new TechniqueAction.CandidatesColoring(toRemove, Color.RED, Set.of(candidateToRemove))
@@ -276,13 +263,12 @@ public class WingTechnique {
     }
 
     private static Optional<TechniqueAction> checkwxyzWing(ISudoku sudoku, int index, ISudoku.GroupType groupType) {
-        List<ICell> group = Arrays.stream(switch (groupType) {
-                    case ROW -> sudoku.getRow(index);
-                    case COLUMN -> sudoku.getColumn(index);
-                    case SQUARE -> sudoku.getSquare(index);
-                })
-                .filter(cell -> cell.getValue() == ICell.EMPTY)
-                .toList();
+        List<ICell> group = new ArrayList<>();
+        for (int cellIndex : sudoku.getUnitIndices(SudokuLayout.unit(groupType, index))) {
+            ICell cell = sudoku.getCell(cellIndex);
+            if (cell.getValue() == ICell.EMPTY)
+                group.add(cell);
+        }
         if (group.size() < 3)
             return Optional.empty();
         Combinations combinations = new Combinations(group.size(), 3);
@@ -352,40 +338,37 @@ public class WingTechnique {
             return Optional.empty();
         Set<Integer> uniqueCandidates = pivotGroup.stream()
                 .flatMap(cell -> cell.getCandidates().stream())
-                .filter(candidate -> wingGroup.stream().noneMatch(cell -> cell.getCandidates().contains(candidate)))
+                .filter(candidate -> wingGroup.stream().noneMatch(cell -> cell.hasCandidate(candidate)))
                 .collect(Collectors.toSet());
+        int candidatesMask = CandidateUtils.toMask(candidates);
+        ICell pivot = pivotGroup.getFirst();
         for (int uniqueCandidate : uniqueCandidates) {
-            Stream<ICell> groupStream = switch (groupType) {
-                case ROW, COLUMN -> Arrays.stream(sudoku.getSquare(pivotGroup.getFirst().getSquare()));
-                case SQUARE -> Stream.concat(Arrays.stream(sudoku.getRow(pivotGroup.getFirst().getY())), Arrays.stream(sudoku.getColumn(pivotGroup.getFirst().getX())))
-                        .filter(cell -> cell.getSquare() != pivotGroup.getFirst().getSquare());
-            };
-            List<ICell> possibleCell4 = groupStream
-                    .filter(iCell -> !pivotGroup.contains(iCell))
-                    .filter(cell -> cell.getCandidates().contains(uniqueCandidate) && cell.getCandidates().size() == 2 && candidates.containsAll(cell.getCandidates()))
-                    .toList();
+            List<ICell> possibleCell4 = new ArrayList<>();
+            if (groupType == ISudoku.GroupType.SQUARE) {
+                addPossibleCell4(sudoku, SudokuLayout.ROW_OFFSET + pivot.getY(), pivot.getSquare(), pivotGroup, uniqueCandidate, candidatesMask, possibleCell4);
+                addPossibleCell4(sudoku, SudokuLayout.COLUMN_OFFSET + pivot.getX(), pivot.getSquare(), pivotGroup, uniqueCandidate, candidatesMask, possibleCell4);
+            }
+            else
+                addPossibleCell4(sudoku, SudokuLayout.SQUARE_OFFSET + pivot.getSquare(), -1, pivotGroup, uniqueCandidate, candidatesMask, possibleCell4);
             if (possibleCell4.isEmpty())
                 continue;
             for (ICell cell4 : possibleCell4) {
                 Integer candidateToRemove = cell4.getCandidates().stream().filter(candidate -> uniqueCandidate != candidate).findFirst().orElseThrow(() -> new RuntimeException("Invalid state"));
                 Set<ICell> allWingCells = Stream.concat(Stream.concat(pivotGroup.stream(), wingGroup.stream()), Stream.of(cell4)).collect(Collectors.toSet());
                 Set<ICell> cellsWithCandidateToRemove = allWingCells.stream()
-                        .filter(cell -> cell.getCandidates().contains(candidateToRemove))
+                        .filter(cell -> cell.hasCandidate(candidateToRemove))
                         .collect(Collectors.toSet());
-                Iterator<ICell> iterator = cellsWithCandidateToRemove.iterator();
-                Set<ICell> affectedCells = CellUtils.getPeers(sudoku, iterator.next());
-                while (iterator.hasNext()) {
-                    affectedCells.retainAll(CellUtils.getPeers(sudoku, iterator.next()));
-                }
-                affectedCells.removeIf(cell -> !cell.getCandidates().contains(candidateToRemove));
+                Set<ICell> affectedCells = CellUtils.getCommonPeers(cellsWithCandidateToRemove)
+                        .intersect(sudoku.getCandidatePlane(candidateToRemove))
+                        .toCells(sudoku);
                 if (affectedCells.isEmpty())
                     continue;
-                return Optional.of(TechniqueAction.builder()
+                return Optional.of(TechniqueAction.builder().explaining(sudoku)
                         .name("WXYZ-Wing")
-                        .description("Cells: " + allWingCells.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", "))
+                        .description(() -> "Cells: " + allWingCells.stream().map(ICell::getPos).map(Pos::toString).collect(Collectors.joining(", "))
                                 + " form a WXYZ-Wing on candidates " + candidateToRemove)
                         .removeCandidatesMap(affectedCells.stream().map(ICell::getPos).collect(Collectors.toMap(pos -> pos, _ -> Set.of(candidateToRemove))))
-                        .cellColorings(List.of(
+                        .colorings(() -> List.of(
                                 new TechniqueAction.CandidatesColoring(allWingCells.stream().map(ICell::getPos).collect(Collectors.toSet()), Color.YELLOW, candidates),
                                 new TechniqueAction.CandidatesColoring(affectedCells.stream().map(ICell::getPos).collect(Collectors.toSet()), Color.RED, Set.of(candidateToRemove))
                         ))
@@ -395,6 +378,17 @@ public class WingTechnique {
         return Optional.empty();
     }
 
+    // Bi-value cells of the unit outside the excluded square that hold the unique candidate and only wing candidates
+    private static void addPossibleCell4(ISudoku sudoku, int unit, int excludedSquare, List<ICell> pivotGroup, int uniqueCandidate, int candidatesMask, List<ICell> possibleCell4) {
+        for (int index : sudoku.getUnitIndices(unit)) {
+            ICell cell = sudoku.getCell(index);
+            if (cell.getSquare() == excludedSquare || pivotGroup.contains(cell))
+                continue;
+            if (cell.hasCandidate(uniqueCandidate) && cell.getCandidateCount() == 2 && (cell.getCandidateMask() & ~candidatesMask) == 0)
+                possibleCell4.add(cell);
+        }
+    }
+
     // https://www.sudokuwiki.org/Finned_X_Wing
     // Finned X-Wing
     public static Optional<TechniqueAction> finnedXWing(ISudoku sudoku) {
@@ -415,7 +409,7 @@ public class WingTechnique {
     }
 
     private static Optional<TechniqueAction> checkFin(ISudoku sudoku, boolean isRow, int combSize) {
-        Map<Integer, List<PossibleWing>> map = generatePossibleWings(sudoku, isRow, combSize);
+        Map<Integer, List<PossibleWing>> map = generatePossibleWings(sudoku, isRow, combSize, false);
 
         for (Map.Entry<Integer, List<PossibleWing>> entry : map.entrySet()){
             List<PossibleWing> possibleWings = entry.getValue();
@@ -437,25 +431,31 @@ public class WingTechnique {
 
                     if(groupIndices.size() == combSize){
                         for(int i = 0; i < ISudoku.SUDOKU_SIZE; i++){
-                            List<ICell> group = Arrays.stream((isRow ? sudoku.getRow(i) : sudoku.getColumn(i)))
-                                    .filter(cell -> cell.getValue() != ICell.EMPTY || cell.getCandidates().contains(entry.getKey()))
-                                    .toList();
+                            List<ICell> group = new ArrayList<>();
+                            for (int index : sudoku.getUnitIndices((isRow ? SudokuLayout.ROW_OFFSET : SudokuLayout.COLUMN_OFFSET) + i)) {
+                                ICell cell = sudoku.getCell(index);
+                                if (cell.getValue() != ICell.EMPTY || cell.hasCandidate(entry.getKey()))
+                                    group.add(cell);
+                            }
 
                             Set<ICell> fishCells = group.stream()
                                     .filter(cell -> groupIndices.contains(isRow ? cell.getX() : cell.getY()))
                                     .collect(Collectors.toSet());
-                            if(fishCells.size() == combSize && fishCells.stream().anyMatch(cell -> cell.getCandidates().contains(entry.getKey()))){
+                            if(fishCells.size() == combSize && fishCells.stream().anyMatch(cell -> cell.hasCandidate(entry.getKey()))){
                                 List<ICell> finCells = group.stream()
                                         .filter(cell -> !groupIndices.contains(isRow ? cell.getX() : cell.getY()) && cell.getValue() == ICell.EMPTY)
                                         .toList();
                                 if(finCells.stream().map(ICell::getSquare).distinct().count() != 1)
                                     continue;
-                                int finalI = i;
-                                Set<Pos> affectedPos = Arrays.stream(sudoku.getSquare(finCells.getFirst().getSquare()))
-                                        .filter(cell -> groupIndices.contains(isRow ? cell.getX() : cell.getY()) && !rowOrColIndices.contains(isRow ? cell.getY() : cell.getX()) && finalI != (isRow ? cell.getY() : cell.getX()))
-                                        .filter(cell -> cell.getValue() == ICell.EMPTY && cell.getCandidates().contains(entry.getKey()))
-                                        .map(ICell::getPos)
-                                        .collect(Collectors.toSet());
+                                Set<Pos> affectedPos = new HashSet<>();
+                                for (int index : sudoku.getUnitIndices(SudokuLayout.SQUARE_OFFSET + finCells.getFirst().getSquare())) {
+                                    ICell cell = sudoku.getCell(index);
+                                    int along = isRow ? cell.getX() : cell.getY();
+                                    int across = isRow ? cell.getY() : cell.getX();
+                                    if (groupIndices.contains(along) && !rowOrColIndices.contains(across) && i != across
+                                            && cell.getValue() == ICell.EMPTY && cell.hasCandidate(entry.getKey()))
+                                        affectedPos.add(cell.getPos());
+                                }
 
                                 if(!affectedPos.isEmpty()) {
                                     String name = switch (combSize) {
@@ -466,17 +466,17 @@ public class WingTechnique {
 
                                     Set<Pos> fishPos = groupIndices.stream()
                                             .flatMap(index -> rowOrColIndices.stream().map(rowOrColIndex -> isRow ?
-                                                    new Pos(index, rowOrColIndex) :
-                                                    new Pos(rowOrColIndex, index)
+                                                    Pos.of(index, rowOrColIndex) :
+                                                    Pos.of(rowOrColIndex, index)
                                             )).collect(Collectors.toSet());
                                     fishPos.addAll(fishCells.stream().map(ICell::getPos).collect(Collectors.toSet()));
 
-                                    return Optional.of(TechniqueAction.builder()
+                                    return Optional.of(TechniqueAction.builder().explaining(sudoku)
                                             .name(name)
-                                            .description("Cells: " + groupIndices.stream().map(String::valueOf).collect(Collectors.joining(", "))
+                                            .description(() -> "Cells: " + groupIndices.stream().map(String::valueOf).collect(Collectors.joining(", "))
                                                     + " form a Finned X-Wing on " + (isRow ? "rows " : "columns ") + rowOrColIndices.stream().map(String::valueOf).collect(Collectors.joining(", ")))
                                             .removeCandidatesMap(affectedPos.stream().collect(Collectors.toMap(pos -> pos, _ -> Set.of(entry.getKey()))))
-                                            .cellColorings(List.of(
+                                            .colorings(() -> List.of(
                                                     new TechniqueAction.CandidatesColoring(fishPos, Color.YELLOW, Set.of(entry.getKey())),
                                                     new TechniqueAction.CandidatesColoring(finCells.stream().map(ICell::getPos).collect(Collectors.toSet()), Color.ORANGE, Set.of(entry.getKey())),
                                                     new TechniqueAction.CandidatesColoring(affectedPos, Color.RED, Set.of(entry.getKey()))
@@ -0,0 +1,52 @@
+package com.chgr.sudoku.utils;
+
+import java.util.Collection;
+import java.util.Set;
+
+// Candidates are stored as a bit mask where bit (d - 1) is set when digit d is still possible.
+// 9 bits for the standard grid, up to 25 bits for the larger SudokuGeometry sizes, see SudokuGeometry.getAllCandidates.
+// Iterate a mask without allocating with:
+//   for (int mask = cell.getCandidateMask(); mask != 0; mask &= mask - 1) { int candidate = CandidateUtils.first(mask); ... }
+public class CandidateUtils {
+
+    public static final int MAX_CANDIDATE = 25;
+
+    public static int bit(int candidate) {
+        return 1 << (candidate - 1);
+    }
+
+    // Bit of a placed value, 0 for an empty cell
+    public static int valueBit(int value) {
+        return value == 0 ? 0 : bit(value);
+    }
+
+    public static boolean contains(int mask, int candidate) {
+        return candidate > 0 && candidate <= MAX_CANDIDATE && (mask & bit(candidate)) != 0;
+    }
+
+    public static int first(int mask) {
+        return Integer.numberOfTrailingZeros(mask) + 1;
+    }
+
+    public static int count(int mask) {
+        return Integer.bitCount(mask);
+    }
+
+    public static int toMask(Collection<Integer> candidates) {
+        int mask = 0;
+        for (int candidate : candidates) {
+            if (candidate > 0 && candidate <= MAX_CANDIDATE)
+                mask |= bit(candidate);
+        }
+        return mask;
+    }
+
+    public static Set<Integer> toSet(int mask) {
+        Integer[] candidates = new Integer[Integer.bitCount(mask)];
+        int i = 0;
+        for (; mask != 0; mask &= mask - 1) {
+            candidates[i++] = first(mask);
+        }
+        return Set.of(candidates);
+    }
+}
@@ -1,20 +1,24 @@
 package com.chgr.sudoku.utils;
 
+import com.chgr.sudoku.models.CellSet;
 import com.chgr.sudoku.models.ICell;
 import com.chgr.sudoku.models.ISudoku;
 
-import java.util.HashSet;
+import java.util.Collection;
 import java.util.Set;
 
 public class CellUtils {
 
     public static Set<ICell> getPeers(ISudoku sudoku, ICell cell) {
-        Set<ICell> peers = new HashSet<>();
-        peers.addAll(Set.of(sudoku.getColumn(cell.getX())));
-        peers.addAll(Set.of(sudoku.getRow(cell.getY())));
-        peers.addAll(Set.of(sudoku.getSquare(cell.getX(), cell.getY())));
-        peers.removeIf(cell::equals);
-        return peers;
+        return CellSet.peersOf(cell).toCells(sudoku);
+    }
+
+    // Cells seen by every given cell, excluding the given cells themselves
+    public static CellSet getCommonPeers(Collection<? extends ICell> cells) {
+        CellSet commonPeers = CellSet.ALL;
+        for (ICell cell : cells)
+            commonPeers = commonPeers.intersect(CellSet.peersOf(cell));
+        return commonPeers;
     }
 
     public static boolean isPeer(ICell cell1, ICell cell2) {
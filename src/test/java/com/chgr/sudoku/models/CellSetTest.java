@@ -0,0 +1,74 @@
+package com.chgr.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellSetTest {
+
+    private static List<Integer> indices(CellSet set) {
+        List<Integer> indices = new ArrayList<>();
+        for (int i = set.next(0); i >= 0; i = set.next(i + 1))
+            indices.add(i);
+        return indices;
+    }
+
+    @Test
+    public void whenAddingAroundWordBoundary_thenEachCellLandsInItsWord() {
+        CellSet set = CellSet.EMPTY.with(63).with(64);
+
+        assertEquals(new CellSet(1L << 63, 1L), set);
+        assertTrue(set.contains(63));
+        assertTrue(set.contains(64));
+        assertFalse(set.contains(62));
+        assertFalse(set.contains(65));
+        assertEquals(2, set.size());
+    }
+
+    @Test
+    public void whenRemovingAroundWordBoundary_thenOnlyThatCellIsRemoved() {
+        CellSet set = CellSet.of(62).with(63).with(64).with(80);
+
+        assertEquals(List.of(62, 64, 80), indices(set.without(63)));
+        assertEquals(List.of(62, 63, 80), indices(set.without(64)));
+        assertEquals(List.of(62, 63, 64), indices(set.without(80)));
+        assertTrue(CellSet.of(63).without(63).isEmpty());
+        assertTrue(CellSet.of(64).without(64).isEmpty());
+    }
+
+    @Test
+    public void whenIterating_thenCrossesWordBoundaryInOrder() {
+        CellSet set = CellSet.of(0).with(63).with(64).with(80);
+
+        assertEquals(List.of(0, 63, 64, 80), indices(set));
+        assertEquals(63, set.next(1));
+        assertEquals(64, set.next(64));
+        assertEquals(80, set.next(65));
+        assertEquals(-1, set.next(81));
+        assertEquals(-1, CellSet.of(63).next(64));
+        assertEquals(List.of(64), indices(CellSet.of(64)));
+    }
+
+    @Test
+    public void whenIntersectingAcrossWordBoundary_thenKeepsCommonCellsOfBothWords() {
+        CellSet left = CellSet.of(62).with(63).with(64);
+        CellSet right = CellSet.of(63).with(64).with(65);
+
+        assertEquals(List.of(63, 64), indices(left.intersect(right)));
+        assertTrue(left.intersects(right));
+        assertFalse(CellSet.of(63).intersects(CellSet.of(64)));
+        assertEquals(List.of(62), indices(left.difference(right)));
+        assertEquals(List.of(62, 63, 64, 65), indices(left.union(right)));
+    }
+
+    @Test
+    public void whenAllCells_thenHoldsExactlyTheGrid() {
+        assertEquals(81, CellSet.ALL.size());
+        assertTrue(CellSet.ALL.contains(80));
+        assertEquals(80, CellSet.ALL.next(80));
+        assertEquals(-1, CellSet.ALL.next(81));
+    }
+}
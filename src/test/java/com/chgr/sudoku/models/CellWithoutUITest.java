@@ -0,0 +1,47 @@
+package com.chgr.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CellWithoutUITest {
+
+    @Test
+    public void whenStandardGeometry_thenDigitsAboveNineAreIgnored() {
+        CellWithoutUI cell = new CellWithoutUI(0, 0);
+
+        cell.addCandidate(9);
+        cell.addCandidate(10);
+        cell.addCandidates(List.of(1, 12));
+
+        assertEquals(Set.of(1, 9), cell.getCandidates());
+        assertFalse(cell.removeCandidate(10));
+    }
+
+    @Test
+    public void whenLargerGeometry_thenKeepsAllItsDigits() {
+        SudokuGeometry geometry = SudokuGeometry.ofSize(16);
+        CellWithoutUI cell = new CellWithoutUI(0, 0, geometry);
+
+        cell.addCandidate(16);
+        cell.addCandidates(List.of(10, 17));
+        cell.setCandidateMask(cell.getCandidateMask() | 1 << 16);
+
+        assertEquals(Set.of(10, 16), cell.getCandidates());
+        assertTrue(cell.removeCandidate(16));
+        assertEquals(Set.of(10), cell.getCandidates());
+    }
+
+    @Test
+    public void whenLargerGeometry_thenSquareFollowsItsBoxSize() {
+        SudokuGeometry geometry = SudokuGeometry.ofSize(16);
+
+        assertEquals(1, new CellWithoutUI(4, 0, geometry).getSquare());
+        assertEquals(4, new CellWithoutUI(0, 4, geometry).getSquare());
+        assertEquals(15, new CellWithoutUI(15, 15, geometry).getSquare());
+        assertEquals(4, new CellWithoutUI(4, 4).getSquare());
+    }
+}
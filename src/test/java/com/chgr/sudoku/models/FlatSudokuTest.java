@@ -0,0 +1,110 @@
+package com.chgr.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlatSudokuTest {
+
+    private static final String PUZZLE = "530070000600195000098000060800060003400803001700020006060000280000419005000080079";
+
+    private static FlatSudoku load() {
+        FlatSudoku sudoku = FlatSudoku.parse(PUZZLE, SudokuGeometry.STANDARD);
+        sudoku.loadCandidates();
+        return sudoku;
+    }
+
+    private static void assertSameBoard(FlatSudoku expected, FlatSudoku actual) {
+        for (int i = 0; i < expected.getGeometry().getCellCount(); i++) {
+            assertEquals(expected.getValue(i), actual.getValue(i), "value of cell " + i);
+            assertEquals(expected.getCandidateMask(i), actual.getCandidateMask(i), "candidates of cell " + i);
+        }
+        for (int unit = 0; unit < expected.getGeometry().getUnits().length; unit++)
+            assertEquals(expected.getUsedMask(unit), actual.getUsedMask(unit), "used digits of unit " + unit);
+        assertEquals(expected.getFilledCount(), actual.getFilledCount());
+    }
+
+    @Test
+    public void whenRolledBackPastSetValues_thenValuesAndCandidatesAreRestored() {
+        FlatSudoku sudoku = load();
+        FlatSudoku original = sudoku.copy();
+
+        int mark = sudoku.mark();
+        sudoku.setValue(2, 4);
+        sudoku.removeCandidate(3, 6);
+        sudoku.setCandidateMask(5, 0);
+        sudoku.rollback(mark);
+
+        assertSameBoard(original, sudoku);
+    }
+
+    @Test
+    public void whenNestedMarks_thenEachRollbackUndoesOnlyItsOwnChanges() {
+        FlatSudoku sudoku = load();
+        FlatSudoku original = sudoku.copy();
+
+        int outer = sudoku.mark();
+        sudoku.setValue(2, 4);
+        FlatSudoku afterOuter = sudoku.copy();
+        int inner = sudoku.mark();
+        sudoku.setValue(3, 6);
+        sudoku.removeCandidate(5, 1);
+
+        sudoku.rollback(inner);
+        assertSameBoard(afterOuter, sudoku);
+        assertTrue(sudoku.isTrailing());
+
+        sudoku.rollback(outer);
+        assertSameBoard(original, sudoku);
+    }
+
+    @Test
+    public void whenRolledBackToFirstMark_thenStopsRecording() {
+        FlatSudoku sudoku = load();
+
+        assertFalse(sudoku.isTrailing());
+        int mark = sudoku.mark();
+        assertTrue(sudoku.isTrailing());
+        sudoku.setValue(2, 4);
+        sudoku.rollback(mark);
+
+        assertFalse(sudoku.isTrailing());
+        assertEquals(0, sudoku.mark());
+    }
+
+    @Test
+    public void whenSnapshotRestored_thenValuesAndMasksAreIdentical() {
+        FlatSudoku sudoku = load();
+        FlatSudoku original = sudoku.copy();
+        SudokuSnapshot snapshot = sudoku.snapshot();
+
+        sudoku.setValue(2, 4);
+        sudoku.removeCandidate(3, 6);
+        sudoku.addCandidate(5, 9);
+        sudoku.restore(snapshot);
+
+        assertSameBoard(original, sudoku);
+        for (int digit = 1; digit <= 9; digit++)
+            assertEquals(original.getCandidatePlane(digit), sudoku.getCandidatePlane(digit), "plane of digit " + digit);
+    }
+
+    @Test
+    public void whenCandidatePlaneTaken_thenMatchesCellCandidates() {
+        FlatSudoku sudoku = load();
+        sudoku.removeCandidate(2, 4);
+
+        for (int digit = 1; digit <= 9; digit++) {
+            CellSet plane = sudoku.getCandidatePlane(digit);
+            for (int i = 0; i < 81; i++)
+                assertEquals((sudoku.getCandidateMask(i) & 1 << digit - 1) != 0, plane.contains(i), "cell " + i + " digit " + digit);
+        }
+    }
+
+    @Test
+    public void whenLargerGeometry_thenCandidatePlaneIsRejected() {
+        FlatSudoku sudoku = new FlatSudoku(SudokuGeometry.ofSize(16));
+        sudoku.loadCandidates();
+
+        assertThrows(UnsupportedOperationException.class, () -> sudoku.getCandidatePlane(1));
+    }
+}
@@ -0,0 +1,36 @@
+package com.chgr.sudoku.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PosTest {
+
+    @Test
+    public void whenInsideStandardGrid_thenInterned() {
+        assertSame(Pos.of(8, 8), Pos.of(80));
+        assertEquals(80, Pos.of(8, 8).index());
+        assertSame(PosCandidate.of(Pos.of(8, 8), 9), PosCandidate.of(PosCandidate.of(Pos.of(8, 8), 9).node()));
+    }
+
+    @Test
+    public void whenOutsideStandardGrid_thenIndexIsRejected() {
+        Pos pos = Pos.of(9, 0);
+
+        assertEquals(new Pos(9, 0), pos);
+        assertThrows(IllegalStateException.class, pos::index);
+        assertThrows(IllegalArgumentException.class, () -> Pos.of(81));
+    }
+
+    @Test
+    public void whenCandidateAboveNine_thenNotTakenFromTable() {
+        PosCandidate first = PosCandidate.of(Pos.of(0, 0), 10);
+        PosCandidate outside = PosCandidate.of(Pos.of(12, 3), 5);
+
+        assertEquals(Pos.of(0, 0), first.pos());
+        assertEquals(10, first.candidate());
+        assertEquals(new Pos(12, 3), outside.pos());
+        assertThrows(IllegalStateException.class, first::node);
+        assertThrows(IllegalStateException.class, outside::node);
+    }
+}
@@ -0,0 +1,109 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.SudokuGeometry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BacktrackingSearchTest {
+
+    private static final String HARD = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 100, 5000})
+    public void whenRunInNodeBudgets_thenFindsSameSolutionAsUnlimited(long nodes) {
+        FlatSudoku puzzle = FlatSudoku.parse(HARD, SudokuGeometry.STANDARD);
+        BacktrackingSearch unlimited = new BacktrackingSearch(puzzle);
+        assertEquals(BacktrackingSearch.State.SOLVED, unlimited.run(SearchBudget.UNLIMITED));
+
+        BacktrackingSearch sliced = new BacktrackingSearch(puzzle);
+        BacktrackingSearch.State state;
+        int slices = 0;
+        while ((state = sliced.run(SearchBudget.ofNodes(nodes))) == BacktrackingSearch.State.PAUSED)
+            slices++;
+
+        assertEquals(BacktrackingSearch.State.SOLVED, state);
+        assertTrue(slices >= unlimited.getNodes() / nodes - 1);
+        assertEquals(unlimited.getNodes(), sliced.getNodes());
+        assertArrayEquals(unlimited.getValues(), sliced.getValues());
+    }
+
+    @Test
+    public void whenNodeBudgetIsNearLongMax_thenDoesNotOverflow() {
+        BacktrackingSearch search = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD));
+        assertEquals(BacktrackingSearch.State.PAUSED, search.run(SearchBudget.ofNodes(10)));
+
+        assertEquals(BacktrackingSearch.State.SOLVED, search.run(SearchBudget.ofNodes(Long.MAX_VALUE - 1)));
+    }
+
+    @Test
+    public void whenTimeBudgetRunsOut_thenPauses() {
+        BacktrackingSearch search = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD));
+
+        assertEquals(BacktrackingSearch.State.PAUSED, search.run(SearchBudget.ofTime(Duration.ofNanos(1))));
+        assertEquals(BacktrackingSearch.State.SOLVED, search.run(SearchBudget.UNLIMITED));
+    }
+
+    @Test
+    public void whenResumedAfterSolution_thenEnumeratesTheRest() {
+        BacktrackingSearch unique = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD));
+        assertEquals(BacktrackingSearch.State.SOLVED, unique.run(SearchBudget.UNLIMITED));
+        assertEquals(BacktrackingSearch.State.EXHAUSTED, unique.run(SearchBudget.UNLIMITED));
+        assertEquals(1, unique.getSolutionCount());
+
+        BacktrackingSearch empty = new BacktrackingSearch(new FlatSudoku(SudokuGeometry.ofSize(4)));
+        while (empty.run(SearchBudget.ofNodes(10)) != BacktrackingSearch.State.EXHAUSTED) {
+            assertNotEquals(BacktrackingSearch.State.CANCELLED, empty.getState());
+        }
+        assertEquals(288, empty.getSolutionCount());
+    }
+
+    @Test
+    public void whenCancelled_thenStopsForGood() {
+        boolean[] cancelled = {false};
+        BacktrackingSearch search = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD), () -> cancelled[0], Branching.MRV);
+        assertEquals(BacktrackingSearch.State.PAUSED, search.run(SearchBudget.ofNodes(10)));
+
+        cancelled[0] = true;
+        assertEquals(BacktrackingSearch.State.CANCELLED, search.run(SearchBudget.UNLIMITED));
+        cancelled[0] = false;
+        assertEquals(BacktrackingSearch.State.CANCELLED, search.run(SearchBudget.UNLIMITED));
+    }
+
+    @ParameterizedTest
+    @EnumSource(Branching.class)
+    public void whenUsingBranching_thenSolvesAndEnumeratesCorrectly(Branching branching) {
+        BacktrackingSearch hard = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD), () -> false, branching);
+        BacktrackingSearch reference = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD));
+        assertEquals(BacktrackingSearch.State.SOLVED, hard.run(SearchBudget.UNLIMITED));
+        assertEquals(BacktrackingSearch.State.SOLVED, reference.run(SearchBudget.UNLIMITED));
+        assertArrayEquals(reference.getValues(), hard.getValues());
+
+        BacktrackingSearch empty = new BacktrackingSearch(new FlatSudoku(SudokuGeometry.ofSize(4)), () -> false, branching);
+        while (empty.run(SearchBudget.UNLIMITED) == BacktrackingSearch.State.SOLVED) {
+            assertTrue(Arrays.stream(empty.getValues()).noneMatch(value -> value == 0));
+        }
+        assertEquals(288, empty.getSolutionCount());
+        assertTrue(empty.getStats().maxDepth() <= 16);
+    }
+
+    @Test
+    public void whenSearching_thenReportsStats() {
+        BacktrackingSearch search = new BacktrackingSearch(FlatSudoku.parse(HARD, SudokuGeometry.STANDARD));
+        search.run(SearchBudget.UNLIMITED);
+        SearchStats stats = search.getStats();
+
+        assertEquals(search.getNodes(), stats.nodes());
+        assertTrue(stats.backtracks() > 0);
+        assertTrue(stats.backtracks() < stats.nodes());
+        assertTrue(stats.maxDepth() <= 60);
+        assertTrue(stats.maxDepth() > 0);
+    }
+}
@@ -1,17 +1,24 @@
 package com.chgr.sudoku.solver;
 
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.SudokuGeometry;
 import com.chgr.sudoku.models.SudokuWithoutUI;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.junit.jupiter.params.provider.MethodSource;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import java.io.IOException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -30,7 +37,7 @@ class BacktrackingSolverTest {
     @BeforeEach
     void setUp() {
         sudoku = new SudokuWithoutUI();
-        solver = new BacktrackingSolver(sudoku);
+        solver = new BacktrackingSolver();
         mapper = new ObjectMapper(new YAMLFactory());
     }
 
@@ -63,7 +70,106 @@ class BacktrackingSolverTest {
             }
         }
 
-        assertTrue(solver.solve());
+        assertTrue(solver.solve(sudoku).isSolved());
         assertEquals(sudokuMap.solved, sudoku.toString());
     }
-}
\ No newline at end of file
+
+    @ParameterizedTest
+    @ValueSource(ints = {4, 16})
+    public void whenGivenOtherSize_thenSolvesKeepingGivens(int size) {
+        SudokuGeometry geometry = SudokuGeometry.ofSize(size);
+        String givens = "1" + ".".repeat(size) + geometry.toChar(size) + ".".repeat(geometry.getCellCount() - size - 2);
+        FlatSudoku board = FlatSudoku.parse(givens, geometry);
+
+        assertTrue(new BacktrackingSolver().solve(board).isSolved());
+        assertTrue(board.isSolved());
+        assertEquals(1, board.getValue(0));
+        assertEquals(size, board.getValue(size + 1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenGivenEngine_thenSolvesWithIt(EngineType engineType) throws IOException, URISyntaxException {
+        Path sudokuPath = sudokuFiles().sorted().findFirst().orElseThrow();
+        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        for(int i = 0; i<81; i++){
+            int value = Character.getNumericValue(sudokuMap.unsolved.charAt(i));
+            if(value != 0){
+                sudoku.getCell(i % 9, i / 9).setValue(value);
+            }
+        }
+
+        assertTrue(new BacktrackingSolver(engineType).solve(sudoku).isSolved());
+        assertEquals(sudokuMap.solved, sudoku.toString());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 2, 5})
+    public void whenCountingSolutionsOfEmptyGrid_thenStopsAtLimit(int limit) {
+        SolutionCount count = solver.countSolutions(sudoku, limit);
+
+        assertEquals(limit, count.count());
+        assertEquals(limit, count.solutions().size());
+        assertEquals(0, sudoku.getFilledCount());
+    }
+
+    @Test
+    public void whenCancelled_thenStopsWithCancelledStatus() {
+        solver.setCancellation(() -> true);
+
+        assertEquals(SolveResult.Status.CANCELLED, solver.solve(sudoku).status());
+        assertEquals(0, sudoku.getFilledCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(Branching.class)
+    public void whenGivenBranching_thenSolvesAndReportsStats(Branching branching) {
+        solver.setBranching(branching);
+        SolveResult result = solver.solve(sudoku);
+
+        assertTrue(result.isSolved());
+        assertTrue(sudoku.isSolved());
+        // every cell is a level, plus the node that finds the board full
+        assertTrue(result.stats().nodes() >= 82);
+        assertEquals(81, result.stats().maxDepth());
+        assertTrue(result.stats().backtracks() < result.stats().nodes());
+    }
+
+    @Test
+    public void whenGivenLubyPolicy_thenCutoffsFollowTheSequence() {
+        RestartPolicy policy = RestartPolicy.luby(10, 0);
+        long[] expected = {10, 10, 20, 10, 10, 20, 40, 10, 10, 20, 10, 10, 20, 40, 80};
+        for (int i = 0; i < expected.length; i++)
+            assertEquals(expected[i], policy.cutoff(i));
+        assertEquals(1000, RestartPolicy.geometric(100, 10, 0).cutoff(1));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 7, 42})
+    public void whenGivenRestartPolicy_thenSolvesReproducibly(int seed) {
+        String hard = "800000000003600000070090200050007000000045700000100030001000068008500010090000400";
+        List<SolveResult> results = new ArrayList<>();
+        List<String> solutions = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            FlatSudoku board = FlatSudoku.parse(hard, SudokuGeometry.STANDARD);
+            solver.setRestartPolicy(RestartPolicy.luby(50, seed));
+            results.add(solver.solve(board));
+            solutions.add(board.toString());
+        }
+
+        assertTrue(results.get(0).isSolved());
+        assertTrue(results.get(0).stats().restarts() > 0);
+        assertEquals(results.get(0).stats(), results.get(1).stats());
+        assertEquals(solutions.get(0), solutions.get(1));
+    }
+
+    @Test
+    public void whenStatsAdded_thenOnlyRestartsCountRestarts() {
+        SearchStats first = new SearchStats(10, 4, 3, 0);
+        SearchStats second = new SearchStats(5, 6, 1, 1);
+
+        assertEquals(new SearchStats(15, 6, 4, 1), first.plus(second));
+        assertEquals(new SearchStats(10, 4, 3, 1), first.withRestart());
+        assertEquals(first, SearchStats.NONE.plus(first));
+    }
+}
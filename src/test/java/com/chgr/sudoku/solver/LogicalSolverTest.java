@@ -1,9 +1,15 @@
 package com.chgr.sudoku.solver;
 
+import com.chgr.sudoku.models.BaseAction;
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.LazyTechniqueAction;
+import com.chgr.sudoku.models.Pos;
+import com.chgr.sudoku.models.TechniqueAction;
 import com.chgr.sudoku.models.SudokuWithoutUI;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
 import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
@@ -12,6 +18,14 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.stream.Stream;
 
@@ -39,31 +53,265 @@ class LogicalSolverTest{
         return Files.list(dir);
     }
 
+    // Puzzles every solver mode solves, difficult2 needs techniques the solver does not have yet
+    static Stream<Path> solvableSudokuFiles() throws IOException, URISyntaxException {
+        return sudokuFiles().filter(path -> !path.getFileName().toString().equals("difficult2.yml"));
+    }
+
     @ParameterizedTest
     @MethodSource("sudokuFiles")
     public void whenGivenSudokuGridFromFile_thenSolvesCorrectly(Path sudokuPath) throws IOException {
         assertNotNull(sudokuPath);
         assertTrue(Files.exists(sudokuPath));
-        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        SudokuMap sudokuMap = read(sudokuPath);
         assertNotNull(sudokuMap);
         assertNotNull(sudokuMap.unsolved);
         assertNotNull(sudokuMap.solved);
         assertTrue(PATTERN.matcher(sudokuMap.unsolved).matches());
         assertTrue(PATTERN.matcher(sudokuMap.solved).matches());
 
-        for(int i = 0; i<9; i++){
-            for(int j = 0; j<9; j++){
-                int value = Character.getNumericValue(sudokuMap.unsolved.charAt(i*9 + j));
-                if(value != 0){
-                    sudoku.getCell(j, i).setValue(value);
-                }
+        sudoku = load(sudokuMap.unsolved);
+
+        SolveResult result = new LogicalSolver().solve(sudoku);
+
+        assertTrue(result.isSolved());
+        result.steps().forEach(step -> step.apply(sudoku));
+        assertEquals(sudokuMap.solved, sudoku.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvableSudokuFiles")
+    public void whenNotExplaining_thenSameStepsWithLazyDescriptions(Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = read(sudokuPath);
+        LogicalSolver leanSolver = new LogicalSolver();
+        leanSolver.setExplaining(false);
+
+        SolveResult explained = solveAndVerify(sudokuMap, new LogicalSolver());
+        SolveResult lean = solveAndVerify(sudokuMap, leanSolver);
+        List<LazyTechniqueAction> lazySteps = lean.steps().stream()
+                .filter(LazyTechniqueAction.class::isInstance)
+                .map(LazyTechniqueAction.class::cast)
+                .toList();
+
+        assertEquals(explained.steps().stream().map(BaseAction::getName).toList(), lean.steps().stream().map(BaseAction::getName).toList());
+        assertFalse(lazySteps.isEmpty());
+        // neither solving nor applying the steps builds an explanation
+        assertTrue(lazySteps.stream().noneMatch(LazyTechniqueAction::isExplained));
+        assertEquals(descriptions(explained), descriptions(lean));
+        assertTrue(lazySteps.stream().allMatch(LazyTechniqueAction::isExplained));
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvableSudokuFiles")
+    public void whenBatching_thenSolvesLikeStepByStepInFewerPasses(Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = read(sudokuPath);
+        int[] passes = new int[2];
+        LogicalSolver stepSolver = new LogicalSolver();
+        stepSolver.setListener(countPasses(passes, 0));
+        LogicalSolver batchSolver = new LogicalSolver();
+        batchSolver.setBatching(true);
+        batchSolver.setListener(countPasses(passes, 1));
+        LogicalSolver leanBatchSolver = new LogicalSolver();
+        leanBatchSolver.setBatching(true);
+        leanBatchSolver.setExplaining(false);
+
+        solveAndVerify(sudokuMap, stepSolver);
+        SolveResult batched = solveAndVerify(sudokuMap, batchSolver);
+        SolveResult leanBatched = solveAndVerify(sudokuMap, leanBatchSolver);
+
+        assertTrue(passes[1] < passes[0]);
+        assertEquals(descriptions(batched), descriptions(leanBatched));
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvableSudokuFiles")
+    public void whenBatching_thenEachPassAppliesEveryFindingOfOneScan(Path sudokuPath) throws IOException {
+        // technique steps and filled cells of every pass, the pass that adds no step ends the solve
+        List<List<BaseAction>> passSteps = new ArrayList<>();
+        List<Integer> filledCounts = new ArrayList<>();
+        LogicalSolver solver = new LogicalSolver();
+        solver.setBatching(true);
+        solver.setListener(new SolverListener() {
+            @Override
+            public void onStep(BaseAction step) {
+                if (step instanceof TechniqueAction && !passSteps.isEmpty())
+                    passSteps.getLast().add(step);
+            }
+
+            @Override
+            public void onProgress(int filled, int total) {
+                passSteps.add(new ArrayList<>());
+                filledCounts.add(filled);
             }
+        });
+
+        solveAndVerify(read(sudokuPath), solver);
+
+        assertTrue(passSteps.stream().anyMatch(steps -> steps.size() > 1));
+        for (int pass = 0; pass + 1 < passSteps.size(); pass++) {
+            List<BaseAction> steps = passSteps.get(pass);
+            assertEquals(1, steps.stream().map(BaseAction::getName).distinct().count());
+            // singles place one value each, all of them before the next pass starts
+            if (steps.getFirst().getName().endsWith("Single"))
+                assertEquals(steps.size(), filledCounts.get(pass + 1) - filledCounts.get(pass));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("solvableSudokuFiles")
+    public void whenAdaptiveOrder_thenLearnedOrderStillSolvesCorrectly(Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = read(sudokuPath);
+        LogicalSolver solver = new LogicalSolver();
+        solver.setOrder(TechniqueOrder.ADAPTIVE);
+
+        // the second solve starts from the statistics of the first
+        solveAndVerify(sudokuMap, solver);
+        solveAndVerify(sudokuMap, solver);
+    }
+
+    @Test
+    public void whenAdaptiveStatsFavourALaterTechnique_thenItIsTriedFirst() throws IOException, URISyntaxException {
+        URL url = LogicalSolverTest.class.getResource("/sudoku/easy1.yml");
+        assertNotNull(url);
+        SudokuMap sudokuMap = read(Path.of(url.toURI()));
+        LogicalSolver adaptive = new LogicalSolver();
+        adaptive.setOrder(TechniqueOrder.ADAPTIVE);
+        LogicalSolver grading = new LogicalSolver();
+        // naked singles measured as slow without findings, hidden singles as fast with one
+        for (LogicalSolver solver : List.of(adaptive, grading)) {
+            solver.recordScan(LogicalSolver.techniques().get(0), 1_000_000_000L, false);
+            solver.recordScan(LogicalSolver.techniques().get(1), 1, true);
         }
 
-        LogicalSolver solver = new LogicalSolver(sudoku);
+        assertEquals("Naked Single", firstTechniqueStep(solveAndVerify(sudokuMap, grading)));
+        assertEquals("Hidden Single", firstTechniqueStep(solveAndVerify(sudokuMap, adaptive)));
+    }
 
-        assertTrue(solver.solve());
-        solver.getSteps().forEach(step -> step.apply(sudoku));
-        assertEquals(sudokuMap.solved, sudoku.toString());
+    @ParameterizedTest
+    @MethodSource("solvableSudokuFiles")
+    public void whenGivenExecutor_thenSameStepsAsSerial(Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = read(sudokuPath);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        LogicalSolver concurrentSolver = new LogicalSolver();
+        concurrentSolver.setExecutor(executor);
+        LogicalSolver leanConcurrentSolver = new LogicalSolver();
+        leanConcurrentSolver.setExecutor(executor);
+        leanConcurrentSolver.setExplaining(false);
+
+        try {
+            List<String> serialSteps = descriptions(solveAndVerify(sudokuMap, new LogicalSolver()));
+            assertEquals(serialSteps, descriptions(solveAndVerify(sudokuMap, concurrentSolver)));
+            assertEquals(serialSteps, descriptions(solveAndVerify(sudokuMap, leanConcurrentSolver)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenCancelledDuringSolutionCount_thenStopsWithCancelledStatus() {
+        LogicalSolver solver = new LogicalSolver();
+        // the count of the empty board polls at every node, the second poll stops it before any pass
+        int[] polls = new int[1];
+        solver.setCancellation(() -> ++polls[0] > 1);
+
+        SolveResult result = solver.solve(sudoku);
+
+        assertEquals(SolveResult.Status.CANCELLED, result.status());
+        assertEquals(2, result.steps().size());
+    }
+
+    @Test
+    public void whenRebuiltStepDiffersFromRecorded_thenExplainingFails() {
+        FlatSudoku board = new FlatSudoku();
+        board.loadCandidates();
+        TechniqueAction recorded = TechniqueAction.builder()
+                .name("Recorded")
+                .cellColorings(List.of())
+                .removeCandidatesMap(Map.of(Pos.of(0, 0), Set.of(1)))
+                .build();
+        TechniqueAction other = TechniqueAction.builder()
+                .name("Recorded")
+                .description("Other")
+                .cellColorings(List.of())
+                .removeCandidatesMap(Map.of(Pos.of(0, 0), Set.of(2)))
+                .build();
+        LazyTechniqueAction step = LazyTechniqueAction.builder()
+                .name("Recorded")
+                .action(recorded)
+                .before(board.snapshot())
+                .technique(_ -> Optional.of(other))
+                .build();
+
+        step.apply(board);
+
+        assertFalse(board.getCell(0, 0).getCandidates().contains(1));
+        assertTrue(board.getCell(0, 0).getCandidates().contains(2));
+        assertThrows(IllegalStateException.class, step::getDescription);
+    }
+
+    @Test
+    public void whenAdaptiveSolverIsShared_thenConcurrentSolvesStayCorrect() throws Exception {
+        LogicalSolver solver = new LogicalSolver();
+        solver.setOrder(TechniqueOrder.ADAPTIVE);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            List<Future<SolveResult>> solves = new ArrayList<>();
+            for (Path path : solvableSudokuFiles().toList()) {
+                SudokuMap sudokuMap = read(path);
+                solves.add(executor.submit(() -> solveAndVerify(sudokuMap, solver)));
+            }
+
+            // a failed check inside a solve fails its future
+            for (Future<SolveResult> solve : solves)
+                solve.get();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SudokuMap read(Path sudokuPath) throws IOException {
+        return mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+    }
+
+    // Solves the puzzle and replays the steps on a fresh board, which has to end as the expected solution
+    private static SolveResult solveAndVerify(SudokuMap sudokuMap, LogicalSolver solver) {
+        SudokuWithoutUI board = load(sudokuMap.unsolved);
+        SolveResult result = solver.solve(board);
+        assertTrue(result.isSolved());
+        result.steps().forEach(step -> step.apply(board));
+        assertEquals(sudokuMap.solved, board.toString());
+        return result;
+    }
+
+    private static List<String> descriptions(SolveResult result) {
+        return result.steps().stream().map(BaseAction::getDescription).toList();
+    }
+
+    private static SudokuWithoutUI load(String values) {
+        SudokuWithoutUI board = new SudokuWithoutUI();
+        for (int i = 0; i < 81; i++) {
+            int value = Character.getNumericValue(values.charAt(i));
+            if (value != 0)
+                board.getCell(i % 9, i / 9).setValue(value);
+        }
+        return board;
+    }
+
+    private static String firstTechniqueStep(SolveResult result) {
+        return result.steps().stream()
+                .filter(TechniqueAction.class::isInstance)
+                .map(BaseAction::getName)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static SolverListener countPasses(int[] passes, int slot) {
+        return new SolverListener() {
+            @Override
+            public void onProgress(int filled, int total) {
+                passes[slot]++;
+            }
+        };
     }
-}
\ No newline at end of file
+}
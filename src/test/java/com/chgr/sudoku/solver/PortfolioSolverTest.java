@@ -0,0 +1,185 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.ISudoku;
+import com.chgr.sudoku.models.SudokuWithoutUI;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSolverTest {
+
+    private record SudokuMap (String unsolved, String solved) {
+    }
+
+    private SudokuWithoutUI sudoku;
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        sudoku = new SudokuWithoutUI();
+        mapper = new ObjectMapper(new YAMLFactory());
+    }
+
+    static Stream<Path> sudokuFiles() throws IOException, URISyntaxException {
+        URL url = PortfolioSolverTest.class.getResource("/sudoku");
+        assertNotNull(url);
+
+        Path dir = Path.of(url.toURI());
+        return Files.list(dir);
+    }
+
+    private void load(String values) {
+        for (int i = 0; i < 81; i++) {
+            int value = Character.getNumericValue(values.charAt(i));
+            if (value != 0)
+                sudoku.getCell(i % 9, i / 9).setValue(value);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("sudokuFiles")
+    public void whenGivenSudokuGridFromFile_thenSolvesWithSomeWinner(Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        load(sudokuMap.unsolved);
+
+        PortfolioResult result = new PortfolioSolver().race(sudoku);
+
+        assertTrue(result.hasWinner());
+        assertTrue(result.result().isSolved());
+        // LogicalSolver leaves the puzzle as it is and explains the solve instead
+        if (result.result().steps().isEmpty())
+            assertEquals(sudokuMap.solved, sudoku.toString());
+        else
+            assertEquals("Logical", result.winner());
+    }
+
+    @Test
+    public void whenGivenDuplicates_thenCompleteEntryDecidesUnsolved() {
+        sudoku.getCell(0, 0).setValue(5);
+        sudoku.getCell(1, 0).setValue(5);
+
+        PortfolioResult result = new PortfolioSolver().race(sudoku);
+
+        assertTrue(result.hasWinner());
+        assertNotEquals("Logical", result.winner());
+        assertEquals(SolveResult.Status.UNSOLVED, result.result().status());
+    }
+
+    @Test
+    public void whenOneEntryWins_thenLosersAreCancelled() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        SudokuSolver spinning = new SudokuSolver() {
+            private BooleanSupplier cancelled;
+
+            @Override
+            public SolveResult solve(ISudoku sudoku) {
+                while (!cancelled.getAsBoolean())
+                    Thread.onSpinWait();
+                stopped.countDown();
+                return SolveResult.of(false, true, List.of());
+            }
+
+            @Override
+            public void setListener(SolverListener listener) {
+            }
+
+            @Override
+            public void setCancellation(BooleanSupplier cancelled) {
+                this.cancelled = cancelled;
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        PortfolioSolver portfolio = new PortfolioSolver(executor, List.of(
+                new PortfolioSolver.Entry("Spinning", () -> spinning, true),
+                new PortfolioSolver.Entry("Backtracking", BacktrackingSolver::new, true)));
+
+        try {
+            PortfolioResult result = portfolio.race(sudoku);
+
+            assertEquals("Backtracking", result.winner());
+            assertTrue(result.result().isSolved());
+            assertTrue(sudoku.isSolved());
+            assertTrue(stopped.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenAnEntryFails_thenOtherEntriesStillDecide() {
+        SudokuSolver failing = new SudokuSolver() {
+            @Override
+            public SolveResult solve(ISudoku sudoku) {
+                throw new IllegalStateException("broken entry");
+            }
+
+            @Override
+            public void setListener(SolverListener listener) {
+            }
+
+            @Override
+            public void setCancellation(BooleanSupplier cancelled) {
+            }
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        PortfolioSolver portfolio = new PortfolioSolver(executor, List.of(
+                new PortfolioSolver.Entry("Failing", () -> failing, true),
+                new PortfolioSolver.Entry("Backtracking", BacktrackingSolver::new, true)));
+
+        try {
+            PortfolioResult result = portfolio.race(sudoku);
+
+            assertEquals("Backtracking", result.winner());
+            assertTrue(result.result().isSolved());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenOnlyIncompleteEntryGetsStuck_thenHasNoWinner() throws IOException, URISyntaxException {
+        SudokuMap sudokuMap = mapper.readValue(Path.of(PortfolioSolverTest.class.getResource("/sudoku/difficult2.yml").toURI()).toFile(), SudokuMap.class);
+        load(sudokuMap.unsolved);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        PortfolioSolver portfolio = new PortfolioSolver(executor, List.of(
+                new PortfolioSolver.Entry("Logical", LogicalSolver::new, false)));
+
+        try {
+            PortfolioResult result = portfolio.race(sudoku);
+
+            assertFalse(result.hasWinner());
+            assertEquals(SolveResult.Status.UNSOLVED, result.result().status());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void whenCancelled_thenStopsWithCancelledStatus() {
+        PortfolioSolver portfolio = new PortfolioSolver();
+        portfolio.setCancellation(() -> true);
+
+        PortfolioResult result = portfolio.race(sudoku);
+
+        assertFalse(result.hasWinner());
+        assertEquals(SolveResult.Status.CANCELLED, result.result().status());
+    }
+}
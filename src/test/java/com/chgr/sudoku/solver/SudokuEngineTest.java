@@ -0,0 +1,175 @@
+package com.chgr.sudoku.solver;
+
+import com.chgr.sudoku.models.FlatSudoku;
+import com.chgr.sudoku.models.SudokuGeometry;
+import com.chgr.sudoku.models.SudokuWithoutUI;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SudokuEngineTest {
+
+    private record SudokuMap (String unsolved, String solved) {
+    }
+
+    private ObjectMapper mapper;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper(new YAMLFactory());
+    }
+
+    static Stream<Arguments> sudokuFiles() throws IOException, URISyntaxException {
+        URL url = SudokuEngineTest.class.getResource("/sudoku");
+        assertNotNull(url);
+
+        Path dir = Path.of(url.toURI());
+        List<Path> files = Files.list(dir).toList();
+        return Arrays.stream(EngineType.values())
+                .flatMap(engineType -> files.stream().map(file -> Arguments.of(engineType, file)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sudokuFiles")
+    public void whenGivenSudokuGridFromFile_thenSolvesCorrectly(EngineType engineType, Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        assertNotNull(sudokuMap);
+
+        SudokuWithoutUI sudoku = new SudokuWithoutUI();
+        for(int i = 0; i<9; i++){
+            for(int j = 0; j<9; j++){
+                int value = Character.getNumericValue(sudokuMap.unsolved.charAt(i*9 + j));
+                if(value != 0){
+                    sudoku.getCell(j, i).setValue(value);
+                }
+            }
+        }
+
+        assertTrue(engineType.create(SudokuGeometry.STANDARD).solve(sudoku));
+        assertEquals(sudokuMap.solved, sudoku.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("sudokuFiles")
+    public void whenReused_thenSolvesEveryGrid(EngineType engineType, Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        SudokuEngine engine = engineType.create(SudokuGeometry.STANDARD);
+        int[] grid = new int[81];
+        for (int round = 0; round < 2; round++) {
+            for (int i = 0; i < 81; i++)
+                grid[i] = Character.getNumericValue(sudokuMap.unsolved.charAt(i));
+            assertTrue(engine.solve(grid));
+        }
+        StringBuilder solved = new StringBuilder();
+        for (int value : grid)
+            solved.append(value);
+        assertEquals(sudokuMap.solved, solved.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenGivenDuplicateDigits_thenFails(EngineType engineType) {
+        SudokuEngine engine = engineType.create(SudokuGeometry.STANDARD);
+        int[] grid = new int[81];
+        grid[0] = 5;
+        grid[8] = 5;
+        assertFalse(engine.solve(grid));
+        assertEquals(0, grid[1]);
+
+        // the failed attempt must not leave state behind
+        grid[8] = 0;
+        assertTrue(engine.solve(grid));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenGivenOtherSize_thenSolvesKeepingGivens(EngineType engineType) {
+        for (int size : new int[]{4, 16, 25}) {
+            SudokuGeometry geometry = SudokuGeometry.ofSize(size);
+            String givens = "1" + ".".repeat(size) + geometry.toChar(size) + ".".repeat(geometry.getCellCount() - size - 2);
+            FlatSudoku board = FlatSudoku.parse(givens, geometry);
+
+            assertTrue(engineType.create(geometry).solve(board));
+            assertTrue(board.isSolved());
+            assertEquals(1, board.getValue(0));
+            assertEquals(size, board.getValue(size + 1));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("sudokuFiles")
+    public void whenCountingSolutionsOfPuzzle_thenFindsExactlyOne(EngineType engineType, Path sudokuPath) throws IOException {
+        SudokuMap sudokuMap = mapper.readValue(sudokuPath.toFile(), SudokuMap.class);
+        int[] grid = new int[81];
+        for (int i = 0; i < 81; i++)
+            grid[i] = Character.getNumericValue(sudokuMap.unsolved.charAt(i));
+        int[] givens = grid.clone();
+
+        SolutionCount count = engineType.create(SudokuGeometry.STANDARD).countSolutions(grid, 2);
+        assertTrue(count.isUnique());
+        assertArrayEquals(givens, grid);
+        StringBuilder solved = new StringBuilder();
+        for (int value : count.solutions().getFirst())
+            solved.append(value);
+        assertEquals(sudokuMap.solved, solved.toString());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenCountingSolutionsOfEmptyGrid_thenStopsAtLimit(EngineType engineType) {
+        SudokuEngine engine = engineType.create(SudokuGeometry.STANDARD);
+        SolutionCount count = engine.countSolutions(new int[81], 2);
+
+        assertEquals(2, count.count());
+        assertTrue(count.isLimitReached());
+        assertFalse(count.isUnique());
+        assertFalse(Arrays.equals(count.solutions().get(0), count.solutions().get(1)));
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenCountingSolutionsOfDuplicateDigits_thenFindsNone(EngineType engineType) {
+        int[] grid = new int[81];
+        grid[0] = 5;
+        grid[8] = 5;
+
+        SolutionCount count = engineType.create(SudokuGeometry.STANDARD).countSolutions(grid, 2);
+        assertFalse(count.hasSolution());
+        assertTrue(count.solutions().isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenEnumeratingEmpty4x4Grid_thenFindsAllSolutions(EngineType engineType) {
+        SolutionCount count = engineType.create(SudokuGeometry.ofSize(4)).countSolutions(new int[16], 1000);
+
+        assertEquals(288, count.count());
+        assertFalse(count.isLimitReached());
+        assertEquals(288, count.solutions().stream().map(Arrays::toString).distinct().count());
+    }
+
+    @ParameterizedTest
+    @EnumSource(EngineType.class)
+    public void whenCancelled_thenGivesUp(EngineType engineType) {
+        SudokuEngine engine = engineType.create(SudokuGeometry.STANDARD);
+        engine.setCancellation(() -> true);
+
+        assertFalse(engine.solve(new int[81]));
+        assertFalse(engine.countSolutions(new int[81], 2).hasSolution());
+    }
+}
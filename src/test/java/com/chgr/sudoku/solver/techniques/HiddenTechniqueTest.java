@@ -1,5 +1,6 @@
 package com.chgr.sudoku.solver.techniques;
 
+import com.chgr.sudoku.models.FlatSudoku;
 import com.chgr.sudoku.models.TechniqueAction;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -37,6 +38,21 @@ public class HiddenTechniqueTest extends BaseTechniqueTest {
         assertChecksMatch(sudoku, technique.checks);
     }
 
+    @Test
+    void hiddenSingleSkipsUnitsUnchangedSinceEmptyScan() throws IOException {
+        URL url = HiddenTechniqueTest.class.getResource("/techniques/hiddenSingleRow.yml");
+        assertNotNull(url);
+        BaseTechniqueTest.TechniqueEntity technique = mapper.readValue(url, BaseTechniqueTest.TechniqueEntity.class);
+        loadSudoku(technique);
+        FlatSudoku board = new FlatSudoku(sudoku.snapshot());
+
+        assertTrue(HiddenTechnique.hiddenSingle(board).isPresent());
+        board.setChangedSince(board.getVersion());
+        assertTrue(HiddenTechnique.hiddenSingle(board).isEmpty());
+        board.setChangedSince(-1);
+        assertTrue(HiddenTechnique.hiddenSingle(board).isPresent());
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {1, 2})
     void hiddenPair(int fileNumber) throws IOException {
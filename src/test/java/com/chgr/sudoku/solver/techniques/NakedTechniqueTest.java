@@ -1,5 +1,7 @@
 package com.chgr.sudoku.solver.techniques;
 
+import com.chgr.sudoku.models.ICell;
+import com.chgr.sudoku.models.SudokuSnapshot;
 import com.chgr.sudoku.models.TechniqueAction;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -9,6 +11,7 @@ import java.io.IOException;
 import java.net.URL;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -36,6 +39,27 @@ class NakedTechniqueTest extends BaseTechniqueTest {
         assertChecksMatch(sudoku, technique.checks);
     }
 
+    @Test
+    void nakedSingleDescribesPlacedDigitBeforeAndAfterApplying() throws IOException {
+        URL url = NakedTechniqueTest.class.getResource("/techniques/nakedSingle.yml");
+        assertNotNull(url);
+        TechniqueEntity technique = mapper.readValue(url, TechniqueEntity.class);
+        loadSudoku(technique);
+        SudokuSnapshot before = sudoku.snapshot();
+
+        Optional<TechniqueAction> result = NakedTechnique.nakedSingle(sudoku);
+        assertTrue(result.isPresent());
+        String described = result.get().getDescription();
+        result.get().apply(sudoku);
+
+        int index = 0;
+        while (sudoku.getCell(index).getValue() == before.getValue(index))
+            index++;
+        ICell cell = sudoku.getCell(index);
+        assertEquals("Value " + cell.getValue() + " is the only available candidate at cell (" + cell.getX() + "," + cell.getY() + ")", described);
+        assertEquals(described, result.get().getDescription());
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {1, 2})
     void nakedPair(int fileNumber) throws IOException {
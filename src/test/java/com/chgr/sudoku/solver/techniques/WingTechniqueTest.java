@@ -1,6 +1,8 @@
 package com.chgr.sudoku.solver.techniques;
 
+import com.chgr.sudoku.models.FlatSudoku;
 import com.chgr.sudoku.models.TechniqueAction;
+import com.chgr.sudoku.utils.CandidateUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
@@ -37,6 +39,41 @@ class WingTechniqueTest extends BaseTechniqueTest {
         assertChecksMatch(sudoku, technique.checks);
     }
 
+    @Test
+    void xWingSkipsUnchangedDigitsAndScansChangedOnes() throws IOException {
+        URL url = WingTechniqueTest.class.getResource("/techniques/xWing1.yml");
+        assertNotNull(url);
+        TechniqueEntity technique = mapper.readValue(url, TechniqueEntity.class);
+        loadSudoku(technique);
+        FlatSudoku board = new FlatSudoku(sudoku.snapshot());
+
+        Optional<TechniqueAction> result = WingTechnique.xWing(board);
+        assertTrue(result.isPresent());
+        // the cell and digit the X-Wing eliminates
+        FlatSudoku after = board.copy();
+        result.get().apply(after);
+        int index = 0;
+        while (board.getCandidateMask(index) == after.getCandidateMask(index))
+            index++;
+        int digit = Integer.numberOfTrailingZeros(board.getCandidateMask(index) ^ after.getCandidateMask(index)) + 1;
+
+        board.setChangedSince(board.getVersion());
+        assertTrue(WingTechnique.xWing(board).isEmpty());
+
+        // touching another digit leaves the X-Wing digit skipped
+        int other = Integer.numberOfTrailingZeros(board.getCandidateMask(index) & ~CandidateUtils.bit(digit)) + 1;
+        board.removeCandidate(index, other);
+        board.addCandidate(index, other);
+        assertTrue(WingTechnique.xWing(board).isEmpty());
+
+        // touching the X-Wing digit scans it again and finds the same elimination
+        board.removeCandidate(index, digit);
+        board.addCandidate(index, digit);
+        Optional<TechniqueAction> rescanned = WingTechnique.xWing(board);
+        assertTrue(rescanned.isPresent());
+        assertTrue(rescanned.get().hasSameEffect(result.get()));
+    }
+
     @ParameterizedTest
     @ValueSource(ints = {1, 2, 3})
     void swordfish(int fileNumber) throws IOException {